@@ -68,6 +68,14 @@ public final class Config implements Serializable {
     public boolean useSquidwardModels = false;
     public int maxBuildingSize = 8192;
     public int maxBuildingRadius = 320;
+    public int buildingScanVisitsPerStep = 512;
+    public int buildingScanTickBudget = 2000;
+    public int maxConcurrentBuildingScans = 4;
+    public int buildingQueueBatchSize = 4;
+    public int buildingQueueCapacity = 4096;
+    public boolean asyncBuildingScans = false;
+    public int buildingScanThreads = 2;
+    public int buildingScanSnapshotRadius = 2;
     public int maxTreeHeight = 8;
     public int minPillarHeight = 2;
     public Map<String, Integer> maxTreeTicks = ImmutableMap.<String, Integer>builder()
@@ -86,6 +94,9 @@ public final class Config implements Serializable {
     public boolean allowDestinyTeleportation = true;
     public boolean letPlayerCustomize = true;
     public boolean allowPlayerEditor = false;
+    public boolean useIndexedPlayerData = false;
+    public int playerDataCacheSize = 64;
+    public boolean networkStats = false;
     public Map<String, Integer> guardsTargetEntities = ImmutableMap.<String, Integer>builder()
             .put("minecraft:creeper", -1)
             .put("minecraft:drowned", 2)
@@ -2,8 +2,12 @@ package mca.client.gui;
 
 import com.mojang.blaze3d.systems.RenderSystem;
 import mca.MCA;
+import mca.client.resources.StaticDataCache;
 import mca.client.gui.widget.RectangleWidget;
 import mca.cobalt.network.NetworkHandler;
+import mca.network.StaticPayloads;
+import mca.network.c2s.CloseVillageViewMessage;
+import mca.network.c2s.GetBuildingDetailRequest;
 import mca.network.c2s.GetVillageRequest;
 import mca.network.c2s.RenameVillageMessage;
 import mca.network.c2s.ReportBuildingMessage;
@@ -19,6 +23,9 @@ import net.minecraft.client.gui.widget.TextFieldWidget;
 import net.minecraft.client.gui.widget.TexturedButtonWidget;
 import net.minecraft.client.network.ClientPlayerEntity;
 import net.minecraft.client.util.math.MatrixStack;
+import net.minecraft.nbt.NbtCompound;
+import net.minecraft.nbt.NbtElement;
+import net.minecraft.nbt.NbtList;
 import net.minecraft.text.LiteralText;
 import net.minecraft.text.Text;
 import net.minecraft.text.TranslatableText;
@@ -58,6 +65,9 @@ public class BlueprintScreen extends ExtendedScreen {
     private Map<Rank, List<Task>> tasks;
     private Map<String, BuildingType> buildingTypes;
 
+    //buildings whose blocks have been requested
+    private final Set<Integer> requestedDetails = new HashSet<>();
+
     public BlueprintScreen() {
         super(new LiteralText("Blueprint"));
     }
@@ -108,9 +118,19 @@ public class BlueprintScreen extends ExtendedScreen {
         transform.pop();
     }
 
+    public void requestVillageData() {
+        NetworkHandler.sendToServer(new GetVillageRequest(StaticDataCache.getVersion(StaticPayloads.Type.VILLAGE)));
+    }
+
+    @Override
+    public void removed() {
+        super.removed();
+        NetworkHandler.sendToServer(new CloseVillageViewMessage());
+    }
+
     @Override
     public void init() {
-        NetworkHandler.sendToServer(new GetVillageRequest());
+        requestVillageData();
         setPage("waiting");
     }
 
@@ -148,7 +168,7 @@ public class BlueprintScreen extends ExtendedScreen {
         switch (page) {
             case "refresh":
                 NetworkHandler.sendToServer(new ReportBuildingMessage(ReportBuildingMessage.Action.FULL_SCAN));
-                NetworkHandler.sendToServer(new GetVillageRequest());
+                requestVillageData();
                 assert client != null;
                 assert client.player != null;
                 client.player.sendMessage(new TranslatableText("blueprint.refreshed"), true);
@@ -166,7 +186,6 @@ public class BlueprintScreen extends ExtendedScreen {
                 }
                 addDrawableChild(new ButtonWidget(bx, by, 96, 20, text, (b) -> {
                     NetworkHandler.sendToServer(new ReportBuildingMessage(ReportBuildingMessage.Action.AUTO_SCAN));
-                    NetworkHandler.sendToServer(new GetVillageRequest());
                     village.toggleAutoScan();
                     setPage(page);
                 }));
@@ -175,14 +194,12 @@ public class BlueprintScreen extends ExtendedScreen {
                 //restrict access
                 addDrawableChild(new ButtonWidget(bx, by, 96, 20, new TranslatableText("gui.blueprint.restrictAccess"), (b) -> {
                     NetworkHandler.sendToServer(new ReportBuildingMessage(ReportBuildingMessage.Action.FORCE_TYPE, "blocked"));
-                    NetworkHandler.sendToServer(new GetVillageRequest());
                 }));
                 by += 22;
 
                 //add room
                 addDrawableChild(new ButtonWidget(bx, by, 96, 20, new TranslatableText("gui.blueprint.addRoom"), (b) -> {
                     NetworkHandler.sendToServer(new ReportBuildingMessage(ReportBuildingMessage.Action.ADD_ROOM));
-                    NetworkHandler.sendToServer(new GetVillageRequest());
                 }));
                 by += 22 * 3;
 
@@ -197,14 +214,12 @@ public class BlueprintScreen extends ExtendedScreen {
                 by = height / 2 - 56 + 22 * 3;
                 addDrawableChild(new ButtonWidget(bx, by, 96, 20, new TranslatableText("gui.blueprint.addBuilding"), (b) -> {
                     NetworkHandler.sendToServer(new ReportBuildingMessage(ReportBuildingMessage.Action.ADD));
-                    NetworkHandler.sendToServer(new GetVillageRequest());
                 }));
                 by += 22;
 
                 //remove building
                 addDrawableChild(new ButtonWidget(bx, by, 96, 20, new TranslatableText("gui.blueprint.removeBuilding"), (b) -> {
                     NetworkHandler.sendToServer(new ReportBuildingMessage(ReportBuildingMessage.Action.REMOVE));
-                    NetworkHandler.sendToServer(new GetVillageRequest());
                 }));
                 by += 22;
 
@@ -457,7 +472,10 @@ public class BlueprintScreen extends ExtendedScreen {
             lines.add(new LiteralText(name));
         }
 
-        //present blocks
+        //present blocks, only known once requested
+        if (!hoverBuilding.isDetailed() && requestedDetails.add(hoverBuilding.getId())) {
+            NetworkHandler.sendToServer(new GetBuildingDetailRequest(village.getId(), hoverBuilding.getId()));
+        }
         for (Map.Entry<Identifier, List<BlockPos>> block : hoverBuilding.getBlocks().entrySet()) {
             lines.add(new LiteralText(block.getValue().size() + " x ").append(getBlockName(block.getKey())).formatted(Formatting.GRAY));
         }
@@ -613,6 +631,7 @@ public class BlueprintScreen extends ExtendedScreen {
 
     public void setVillage(Village village) {
         this.village = village;
+        requestedDetails.clear();
         if (village == null) {
             setPage("empty");
         } else if (page.equals("waiting")) {
@@ -620,6 +639,40 @@ public class BlueprintScreen extends ExtendedScreen {
         }
     }
 
+    /**
+     * Applies the changes of the village, see {@link mca.server.world.data.VillageViewers}.
+     */
+    public void updateVillage(int id, NbtCompound delta) {
+        if (village == null || village.getId() != id) {
+            return;
+        }
+
+        if (delta.contains("settings")) {
+            village.loadSettings(delta.getCompound("settings"));
+        }
+
+        NbtList buildings = delta.getList("buildings", NbtElement.COMPOUND_TYPE);
+        for (int i = 0; i < buildings.size(); i++) {
+            Building building = new Building(buildings.getCompound(i));
+            village.putBuilding(building);
+            requestedDetails.remove(building.getId());
+        }
+
+        for (int removed : delta.getIntArray("removed")) {
+            village.removeBuilding(removed);
+        }
+
+        if (!village.getBuildings().isEmpty()) {
+            village.calculateDimensions();
+        }
+    }
+
+    public void setBuildingDetail(int id, Building building) {
+        if (village != null && village.getId() == id && village.getBuildings().containsKey(building.getId())) {
+            village.putBuilding(building);
+        }
+    }
+
     public void setRank(Rank rank, int reputation, Set<String> completedTasks, Map<Rank, List<Task>> tasks, Map<String, BuildingType> buildingTypes) {
         this.rank = rank;
         this.reputation = reputation;
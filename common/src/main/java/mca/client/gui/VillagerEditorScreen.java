@@ -5,6 +5,7 @@ import mca.client.gui.widget.ColorPickerWidget;
 import mca.client.gui.widget.GeneSliderWidget;
 import mca.client.gui.widget.NamedTextFieldWidget;
 import mca.client.gui.widget.TooltipButtonWidget;
+import mca.client.resources.StaticDataCache;
 import mca.cobalt.network.NetworkHandler;
 import mca.entity.EntitiesMCA;
 import mca.entity.Infectable;
@@ -16,12 +17,12 @@ import mca.entity.ai.Traits;
 import mca.entity.ai.relationship.AgeState;
 import mca.entity.ai.relationship.Gender;
 import mca.entity.ai.relationship.Personality;
+import mca.network.StaticPayloads;
 import mca.network.c2s.GetVillagerRequest;
 import mca.network.c2s.SkinListRequest;
 import mca.network.c2s.VillagerEditorSyncRequest;
 import mca.network.c2s.VillagerNameRequest;
 import mca.resources.ClothingList;
-import mca.resources.HairList;
 import net.minecraft.client.MinecraftClient;
 import net.minecraft.client.gui.screen.Screen;
 import net.minecraft.client.gui.screen.ingame.InventoryScreen;
@@ -63,8 +64,6 @@ public class VillagerEditorScreen extends Screen {
 
     private List<String> filteredClothing = new LinkedList<>();
     private List<String> filteredHair = new LinkedList<>();
-    private static HashMap<String, ClothingList.Clothing> clothing;
-    private static HashMap<String, HairList.Hair> hair;
     private Gender filterGender = Gender.NEUTRAL;
     private String searchString = "";
     private int hoveredClothingId;
@@ -87,10 +86,7 @@ public class VillagerEditorScreen extends Screen {
         requestVillagerData();
         setPage(Objects.requireNonNullElse(page, "loading"));
 
-        if (clothing == null) {
-            clothing = new HashMap<>();
-            NetworkHandler.sendToServer(new SkinListRequest());
-        }
+        requestSkinList();
     }
 
     @Override
@@ -438,8 +434,8 @@ public class VillagerEditorScreen extends Screen {
     }
 
     private void filter() {
-        filteredClothing = filter(clothing);
-        filteredHair = filter(hair);
+        filteredClothing = filter(StaticDataCache.getClothing());
+        filteredHair = filter(StaticDataCache.getHair());
     }
 
     private <T extends ClothingList.ListEntry> List<String> filter(HashMap<String, T> map) {
@@ -654,9 +650,11 @@ public class VillagerEditorScreen extends Screen {
         NetworkHandler.sendToServer(new VillagerEditorSyncRequest("sync", villagerUUID, nbt));
     }
 
-    public void setSkinList(HashMap<String, ClothingList.Clothing> clothing, HashMap<String, HairList.Hair> hair) {
-        VillagerEditorScreen.clothing = clothing;
-        VillagerEditorScreen.hair = hair;
+    public void requestSkinList() {
+        NetworkHandler.sendToServer(new SkinListRequest(StaticDataCache.getVersion(StaticPayloads.Type.SKINS)));
+    }
+
+    public void onSkinListChanged() {
         filter();
     }
 }
@@ -17,8 +17,9 @@ public class ClothingLayer<T extends MobEntity & VillagerLike<T>> extends Villag
 
     @Override
     protected Identifier getSkin(T villager) {
-        return cached(villager.getClothes() + variant, clothes -> {
-            Identifier id = new Identifier(villager.getClothes());
+        //the variant is fixed per layer, so the clothes alone identify the texture
+        return cached(VillagerAppearance.of(villager).getClothes(), clothes -> {
+            Identifier id = new Identifier(clothes);
 
             // use it if it's already valid
             if (canUse(id)) {
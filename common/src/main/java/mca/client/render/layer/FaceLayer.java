@@ -2,8 +2,7 @@ package mca.client.render.layer;
 
 import mca.client.model.VillagerEntityModelMCA;
 import mca.entity.VillagerLike;
-import mca.entity.ai.Genetics;
-import mca.entity.ai.Traits;
+import mca.entity.ai.relationship.Gender;
 import net.minecraft.client.render.entity.feature.FeatureRendererContext;
 import net.minecraft.entity.mob.MobEntity;
 import net.minecraft.util.Identifier;
@@ -11,12 +10,14 @@ import net.minecraft.util.Identifier;
 public class FaceLayer<T extends MobEntity & VillagerLike<T>> extends VillagerLayer<T, VillagerEntityModelMCA<T>> {
 
     private final String variant;
+    private final boolean heterochromia;
 
     public FaceLayer(
             FeatureRendererContext<T, VillagerEntityModelMCA<T>> renderer,
             VillagerEntityModelMCA<T> model, String variant) {
         super(renderer, model);
         this.variant = variant;
+        this.heterochromia = variant.equals("normal");
 
         model.setVisible(false);
         model.head.visible = true;
@@ -29,17 +30,18 @@ public class FaceLayer<T extends MobEntity & VillagerLike<T>> extends VillagerLa
 
     @Override
     protected Identifier getSkin(T villager) {
-        int totalFaces = 11;
-        int index = (int) Math.min(totalFaces - 1, Math.max(0, villager.getGenetics().getGene(Genetics.FACE) * totalFaces));
-        int time = villager.age / 2 + (int) (villager.getGenetics().getGene(Genetics.HEMOGLOBIN) * 65536);
+        VillagerAppearance appearance = VillagerAppearance.of(villager);
+        int time = villager.age / 2 + appearance.getBlinkOffset();
         boolean blink = time % 50 == 1 || time % 57 == 1 || villager.isSleeping() || villager.isDead();
-        boolean hasHeterochromia = variant.equals("normal") && villager.getTraits().hasTrait(Traits.Trait.HETEROCHROMIA);
+        boolean hasHeterochromia = heterochromia && appearance.hasHeterochromia();
 
-        return cached(String.format("mca:skins/face/%s/%s/%d%s.png",
+        //the eye state completes the packed face key
+        int state = blink ? 2 : (hasHeterochromia ? 1 : 0);
+        return cached(appearance.getFaceKey() | state, key -> String.format("mca:skins/face/%s/%s/%d%s.png",
                 variant,
-                villager.getGenetics().getGender().getStrName(),
-                index,
-                blink ? "_blink" : (hasHeterochromia ? "_hetero" : "")
-        ), Identifier::new);
+                Gender.byId(key >> 6).getStrName(),
+                key >> 2 & 15,
+                (key & 3) == 2 ? "_blink" : ((key & 3) == 1 ? "_hetero" : "")
+        ));
     }
 }
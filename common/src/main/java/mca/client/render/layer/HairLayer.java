@@ -1,20 +1,14 @@
 package mca.client.render.layer;
 
 import mca.client.model.VillagerEntityModelMCA;
-import mca.client.resources.ColorPalette;
 import mca.entity.VillagerLike;
-import mca.entity.ai.Genetics;
-import mca.entity.ai.Traits;
 import net.minecraft.client.render.entity.feature.FeatureRendererContext;
 import net.minecraft.entity.mob.MobEntity;
-import net.minecraft.util.DyeColor;
 import net.minecraft.util.Identifier;
 
-import java.util.Optional;
-
-import static mca.client.model.VillagerEntityBaseModelMCA.getVillager;
-
 public class HairLayer<T extends MobEntity & VillagerLike<T>> extends VillagerLayer<T, VillagerEntityModelMCA<T>> {
+    private final TextureCache overlays = new TextureCache();
+
     public HairLayer(FeatureRendererContext<T, VillagerEntityModelMCA<T>> renderer, VillagerEntityModelMCA<T> model) {
         super(renderer, model);
 
@@ -26,27 +20,16 @@ public class HairLayer<T extends MobEntity & VillagerLike<T>> extends VillagerLa
 
     @Override
     protected Identifier getSkin(T villager) {
-        return cached(villager.getHair(), Identifier::new);
+        return cached(VillagerAppearance.of(villager).getHair(), Identifier::new);
     }
 
     @Override
     protected Identifier getOverlay(T villager) {
-        return cached(getVillager(villager).getHair().replace(".png", "_overlay.png"), Identifier::new);
+        return overlays.get(VillagerAppearance.of(villager).getHair(), hair -> new Identifier(hair.replace(".png", "_overlay.png")));
     }
 
     @Override
     protected float[] getColor(T villager) {
-        Optional<DyeColor> hairDye = villager.getHairDye();
-        if (hairDye.isPresent()) {
-            return hairDye.get().getColorComponents();
-        }
-
-        float albinism = villager.getTraits().hasTrait(Traits.Trait.ALBINISM) ? 0.1f : 1.0f;
-
-        return ColorPalette.HAIR.getColor(
-                villager.getGenetics().getGene(Genetics.EUMELANIN) * albinism,
-                villager.getGenetics().getGene(Genetics.PHEOMELANIN) * albinism,
-                0
-        );
+        return VillagerAppearance.of(villager).getHairColor();
     }
 }
@@ -2,10 +2,8 @@ package mca.client.render.layer;
 
 import mca.MCA;
 import mca.client.model.VillagerEntityModelMCA;
-import mca.client.resources.ColorPalette;
 import mca.entity.VillagerLike;
-import mca.entity.ai.Genetics;
-import mca.entity.ai.Traits;
+import mca.entity.ai.relationship.Gender;
 import net.minecraft.client.render.entity.feature.FeatureRendererContext;
 import net.minecraft.entity.mob.MobEntity;
 import net.minecraft.util.Identifier;
@@ -17,19 +15,13 @@ public class SkinLayer<T extends MobEntity & VillagerLike<T>> extends VillagerLa
 
     @Override
     protected Identifier getSkin(T villager) {
-        Genetics genetics = villager.getGenetics();
-        int skin = (int) Math.min(4, Math.max(0, genetics.getGene(Genetics.SKIN) * 5));
-        return cached(String.format("%s:skins/skin/%s/%d.png", MCA.MOD_ID, genetics.getGender().getStrName(), skin), Identifier::new);
+        return cached(VillagerAppearance.of(villager).getSkinKey(), key ->
+                String.format("%s:skins/skin/%s/%d.png", MCA.MOD_ID, Gender.byId(key >> 3).getStrName(), key & 7)
+        );
     }
 
     @Override
     protected float[] getColor(T villager) {
-        float albinism = villager.getTraits().hasTrait(Traits.Trait.ALBINISM) ? 0.1f : 1.0f;
-
-        return ColorPalette.SKIN.getColor(
-                villager.getGenetics().getGene(Genetics.MELANIN) * albinism,
-                villager.getGenetics().getGene(Genetics.HEMOGLOBIN) * albinism,
-                villager.getInfectionProgress()
-        );
+        return VillagerAppearance.of(villager).getSkinColor();
     }
 }
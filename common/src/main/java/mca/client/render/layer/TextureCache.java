@@ -0,0 +1,93 @@
+package mca.client.render.layer;
+
+import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import net.minecraft.client.MinecraftClient;
+import net.minecraft.util.Identifier;
+import net.minecraft.util.InvalidIdentifierException;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+
+/**
+ * Resolved textures of a layer, keyed by the appearance they have been built from.
+ * <p>
+ * Only missing entries build a texture name and probe the resource manager, missing textures are remembered as well.
+ * All caches are dropped once the client resources have been reloaded.
+ */
+public final class TextureCache {
+    private static int generation;
+
+    private int cacheGeneration = generation;
+
+    private final Map<String, Optional<Identifier>> named = new HashMap<>();
+    private final Int2ObjectMap<Optional<Identifier>> keyed = new Int2ObjectOpenHashMap<>();
+
+    public static void invalidateAll() {
+        generation++;
+    }
+
+    /**
+     * Increased on every resource reload, used by other client caches derived from resources.
+     */
+    public static int getGeneration() {
+        return generation;
+    }
+
+    public static boolean exists(@Nullable Identifier texture) {
+        return texture != null && MinecraftClient.getInstance().getResourceManager().containsResource(texture);
+    }
+
+    /**
+     * Returns the texture resolved from the given name, or null if it does not exist.
+     */
+    @Nullable
+    public Identifier get(@Nullable String name, Function<String, Identifier> resolver) {
+        if (name == null || name.isEmpty()) {
+            return null;
+        }
+        validate();
+
+        Optional<Identifier> texture = named.get(name);
+        if (texture == null) {
+            texture = resolve(name, resolver);
+            named.put(name, texture);
+        }
+        return texture.orElse(null);
+    }
+
+    /**
+     * Returns the texture of the given packed appearance key, the name is only built if not cached yet.
+     */
+    @Nullable
+    public Identifier get(int key, IntFunction<String> name) {
+        validate();
+
+        Optional<Identifier> texture = keyed.get(key);
+        if (texture == null) {
+            texture = resolve(name.apply(key), Identifier::new);
+            keyed.put(key, texture);
+        }
+        return texture.orElse(null);
+    }
+
+    private void validate() {
+        if (cacheGeneration != generation) {
+            cacheGeneration = generation;
+            named.clear();
+            keyed.clear();
+        }
+    }
+
+    private static Optional<Identifier> resolve(String name, Function<String, Identifier> resolver) {
+        try {
+            return Optional.ofNullable(resolver.apply(name)).filter(TextureCache::exists);
+        } catch (InvalidIdentifierException ignored) {
+            return Optional.empty();
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package mca.client.render.layer;
+
+import mca.client.resources.ColorPalette;
+import mca.entity.VillagerLike;
+import mca.entity.ai.Genetics;
+import mca.entity.ai.Traits;
+import mca.entity.ai.relationship.Gender;
+import net.minecraft.util.DyeColor;
+
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Client snapshot of everything the layers derive from a villagers tracked data.
+ * <p>
+ * It is rebuilt on the next frame whenever the tracked data revision of the villager changed.
+ * Resource reloads rebuild it as well, since the color palettes may have changed.
+ * Snapshots are kept outside the entity, so server side code never depends on the client renderers.
+ */
+public final class VillagerAppearance {
+    //only accessed from the render thread
+    private static final Map<VillagerLike<?>, VillagerAppearance> APPEARANCES = new WeakHashMap<>();
+
+    private final VillagerLike<?> villager;
+
+    private int revision;
+    private int generation;
+
+    private Gender gender;
+    private int skinKey;
+    private int faceKey;
+    private int blinkOffset;
+    private boolean heterochromia;
+
+    private String clothes;
+    private String hair;
+
+    private float[] skinColor;
+    private float[] hairColor;
+
+    private VillagerAppearance(VillagerLike<?> villager) {
+        this.villager = villager;
+        this.revision = villager.getTrackedDataRevision() - 1;
+    }
+
+    public static VillagerAppearance of(VillagerLike<?> villager) {
+        return APPEARANCES.computeIfAbsent(villager, VillagerAppearance::new);
+    }
+
+    private VillagerAppearance validate() {
+        if (revision != villager.getTrackedDataRevision() || generation != TextureCache.getGeneration()) {
+            revision = villager.getTrackedDataRevision();
+            generation = TextureCache.getGeneration();
+            rebuild();
+        }
+        return this;
+    }
+
+    private void rebuild() {
+        Genetics genetics = villager.getGenetics();
+        Traits traits = villager.getTraits();
+
+        gender = genetics.getGender();
+        heterochromia = traits.hasTrait(Traits.Trait.HETEROCHROMIA);
+
+        int skin = (int)Math.min(4, Math.max(0, genetics.getGene(Genetics.SKIN) * 5));
+        skinKey = gender.getId() << 3 | skin;
+
+        int totalFaces = 11;
+        int face = (int)Math.min(totalFaces - 1, Math.max(0, genetics.getGene(Genetics.FACE) * totalFaces));
+        faceKey = gender.getId() << 6 | face << 2;
+        blinkOffset = (int)(genetics.getGene(Genetics.HEMOGLOBIN) * 65536);
+
+        clothes = villager.getClothes();
+        hair = villager.getHair();
+
+        float albinism = traits.hasTrait(Traits.Trait.ALBINISM) ? 0.1f : 1.0f;
+        skinColor = ColorPalette.SKIN.getColor(
+                genetics.getGene(Genetics.MELANIN) * albinism,
+                genetics.getGene(Genetics.HEMOGLOBIN) * albinism,
+                villager.getInfectionProgress()
+        );
+        hairColor = villager.getHairDye().map(DyeColor::getColorComponents).orElseGet(() -> ColorPalette.HAIR.getColor(
+                genetics.getGene(Genetics.EUMELANIN) * albinism,
+                genetics.getGene(Genetics.PHEOMELANIN) * albinism,
+                0
+        ));
+    }
+
+    public Gender getGender() {
+        return validate().gender;
+    }
+
+    /**
+     * Gender id and skin bucket, packed as {@code gender << 3 | skin}.
+     */
+    public int getSkinKey() {
+        return validate().skinKey;
+    }
+
+    /**
+     * Gender id and face index, packed as {@code gender << 6 | face << 2}, the lowest two bits are left for the eye state.
+     */
+    public int getFaceKey() {
+        return validate().faceKey;
+    }
+
+    public int getBlinkOffset() {
+        return validate().blinkOffset;
+    }
+
+    public boolean hasHeterochromia() {
+        return validate().heterochromia;
+    }
+
+    public String getClothes() {
+        return validate().clothes;
+    }
+
+    public String getHair() {
+        return validate().hair;
+    }
+
+    /**
+     * The final skin tint, shared and must not be modified.
+     */
+    public float[] getSkinColor() {
+        return validate().skinColor;
+    }
+
+    /**
+     * The final hair tint, shared and must not be modified.
+     */
+    public float[] getHairColor() {
+        return validate().hairColor;
+    }
+}
@@ -1,5 +1,6 @@
 package mca.client.render.playerLayer;
 
+import mca.client.render.layer.VillagerAppearance;
 import net.minecraft.client.render.entity.feature.FeatureRendererContext;
 import net.minecraft.client.render.entity.model.PlayerEntityModel;
 import net.minecraft.entity.LivingEntity;
@@ -18,8 +19,9 @@ public class PlayerClothingLayer<T extends LivingEntity> extends PlayerLayer<T,
 
     @Override
     protected Identifier getSkin(T villager) {
-        return cached(getVillager(villager).getClothes() + variant, clothes -> {
-            Identifier id = new Identifier(getVillager(villager).getClothes());
+        //the variant is fixed per layer, so the clothes alone identify the texture
+        return cached(VillagerAppearance.of(getVillager(villager)).getClothes(), clothes -> {
+            Identifier id = new Identifier(clothes);
 
             // use it if it's already valid
             if (canUse(id)) {
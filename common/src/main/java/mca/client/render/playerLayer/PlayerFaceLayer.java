@@ -1,7 +1,7 @@
 package mca.client.render.playerLayer;
 
-import mca.entity.ai.Genetics;
-import mca.entity.ai.Traits;
+import mca.client.render.layer.VillagerAppearance;
+import mca.entity.ai.relationship.Gender;
 import net.minecraft.client.render.entity.feature.FeatureRendererContext;
 import net.minecraft.client.render.entity.model.PlayerEntityModel;
 import net.minecraft.entity.LivingEntity;
@@ -12,10 +12,12 @@ import static mca.client.model.VillagerEntityBaseModelMCA.getVillager;
 public class PlayerFaceLayer<T extends LivingEntity> extends PlayerLayer<T, PlayerEntityModel<T>> {
 
     private final String variant;
+    private final boolean heterochromia;
 
     public PlayerFaceLayer(FeatureRendererContext<T, PlayerEntityModel<T>> renderer, PlayerEntityModel<T> model) {
         super(renderer, model);
         this.variant = "normal";
+        this.heterochromia = variant.equals("normal");
 
         model.setVisible(false);
         model.head.visible = true;
@@ -28,17 +30,18 @@ public class PlayerFaceLayer<T extends LivingEntity> extends PlayerLayer<T, Play
 
     @Override
     protected Identifier getSkin(T villager) {
-        int totalFaces = 11;
-        int index = (int)Math.min(totalFaces - 1, Math.max(0, getVillager(villager).getGenetics().getGene(Genetics.FACE) * totalFaces));
-        int time = villager.age / 2 + (int)(getVillager(villager).getGenetics().getGene(Genetics.HEMOGLOBIN) * 65536);
+        VillagerAppearance appearance = VillagerAppearance.of(getVillager(villager));
+        int time = villager.age / 2 + appearance.getBlinkOffset();
         boolean blink = time % 50 == 1 || time % 57 == 1 || villager.isSleeping() || villager.isDead();
-        boolean hasHeterochromia = variant.equals("normal") && getVillager(villager).getTraits().hasTrait(Traits.Trait.HETEROCHROMIA);
+        boolean hasHeterochromia = heterochromia && appearance.hasHeterochromia();
 
-        return cached(String.format("mca:skins/face/%s/%s/%d%s.png",
+        //the eye state completes the packed face key
+        int state = blink ? 2 : (hasHeterochromia ? 1 : 0);
+        return cached(appearance.getFaceKey() | state, key -> String.format("mca:skins/face/%s/%s/%d%s.png",
                 variant,
-                getVillager(villager).getGenetics().getGender().getStrName(),
-                index,
-                blink ? "_blink" : (hasHeterochromia ? "_hetero" : "")
-        ), Identifier::new);
+                Gender.byId(key >> 6).getStrName(),
+                key >> 2 & 15,
+                (key & 3) == 2 ? "_blink" : ((key & 3) == 1 ? "_hetero" : "")
+        ));
     }
 }
@@ -1,19 +1,17 @@
 package mca.client.render.playerLayer;
 
-import mca.client.resources.ColorPalette;
-import mca.entity.ai.Genetics;
-import mca.entity.ai.Traits;
+import mca.client.render.layer.TextureCache;
+import mca.client.render.layer.VillagerAppearance;
 import net.minecraft.client.render.entity.feature.FeatureRendererContext;
 import net.minecraft.client.render.entity.model.PlayerEntityModel;
 import net.minecraft.entity.LivingEntity;
-import net.minecraft.util.DyeColor;
 import net.minecraft.util.Identifier;
 
-import java.util.Optional;
-
 import static mca.client.model.VillagerEntityBaseModelMCA.getVillager;
 
 public class PlayerHairLayer<T extends LivingEntity> extends PlayerLayer<T, PlayerEntityModel<T>> {
+    private final TextureCache overlays = new TextureCache();
+
     public PlayerHairLayer(FeatureRendererContext<T, PlayerEntityModel<T>> renderer, PlayerEntityModel<T> model) {
         super(renderer, model);
 
@@ -23,27 +21,16 @@ public class PlayerHairLayer<T extends LivingEntity> extends PlayerLayer<T, Play
 
     @Override
     protected Identifier getSkin(T villager) {
-        return cached(getVillager(villager).getHair(), Identifier::new);
+        return cached(VillagerAppearance.of(getVillager(villager)).getHair(), Identifier::new);
     }
 
     @Override
     protected Identifier getOverlay(T villager) {
-        return cached(getVillager(villager).getHair().replace(".png", "_overlay.png"), Identifier::new);
+        return overlays.get(VillagerAppearance.of(getVillager(villager)).getHair(), hair -> new Identifier(hair.replace(".png", "_overlay.png")));
     }
 
     @Override
     protected float[] getColor(T villager) {
-        Optional<DyeColor> hairDye = getVillager(villager).getHairDye();
-        if (hairDye.isPresent()) {
-            return hairDye.get().getColorComponents();
-        }
-
-        float albinism = getVillager(villager).getTraits().hasTrait(Traits.Trait.ALBINISM) ? 0.1f : 1.0f;
-
-        return ColorPalette.HAIR.getColor(
-                getVillager(villager).getGenetics().getGene(Genetics.EUMELANIN) * albinism,
-                getVillager(villager).getGenetics().getGene(Genetics.PHEOMELANIN) * albinism,
-                0
-        );
+        return VillagerAppearance.of(getVillager(villager)).getHairColor();
     }
 }
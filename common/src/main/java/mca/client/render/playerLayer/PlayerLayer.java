@@ -1,7 +1,6 @@
 package mca.client.render.playerLayer;
 
-import com.google.common.collect.Maps;
-import net.minecraft.client.MinecraftClient;
+import mca.client.render.layer.TextureCache;
 import net.minecraft.client.render.RenderLayer;
 import net.minecraft.client.render.VertexConsumer;
 import net.minecraft.client.render.VertexConsumerProvider;
@@ -12,17 +11,17 @@ import net.minecraft.client.render.entity.model.PlayerEntityModel;
 import net.minecraft.client.util.math.MatrixStack;
 import net.minecraft.entity.LivingEntity;
 import net.minecraft.util.Identifier;
-import net.minecraft.util.InvalidIdentifierException;
 import org.jetbrains.annotations.Nullable;
 
-import java.util.Map;
 import java.util.function.Function;
+import java.util.function.IntFunction;
 
 public abstract class PlayerLayer<T extends LivingEntity, M extends PlayerEntityModel<T>> extends FeatureRenderer<T, M> {
 
     private static final float[] DEFAULT_COLOR = new float[] {1, 1, 1};
 
-    private static final Map<String, Identifier> TEXTURE_CACHE = Maps.newHashMap();
+    //resolved textures of this layer, only existing textures are returned
+    private final TextureCache textures = new TextureCache();
 
     public final M model;
 
@@ -66,13 +65,13 @@ public abstract class PlayerLayer<T extends LivingEntity, M extends PlayerEntity
         int tint = LivingEntityRenderer.getOverlay(entity, 0);
 
         Identifier skin = getSkin(entity);
-        if (canUse(skin)) {
+        if (skin != null) {
             float[] color = getColor(entity);
             renderModel(transform, provider, light, model, color[0], color[1], color[2], skin, tint);
         }
 
         Identifier overlay = getOverlay(entity);
-        if (canUse(overlay)) {
+        if (overlay != null) {
             renderModel(transform, provider, light, model, 1, 1, 1, overlay, tint);
         }
     }
@@ -83,20 +82,19 @@ public abstract class PlayerLayer<T extends LivingEntity, M extends PlayerEntity
     }
 
     protected final boolean canUse(Identifier texture) {
-        return texture != null && MinecraftClient.getInstance().getResourceManager().containsResource(texture);
+        return TextureCache.exists(texture);
     }
 
     @Nullable
     protected final Identifier cached(String name, Function<String, Identifier> supplier) {
-        if (name == null || name.isEmpty()) {
-            return null;
-        }
-        return TEXTURE_CACHE.computeIfAbsent(name, s -> {
-            try {
-                return supplier.apply(s);
-            } catch (InvalidIdentifierException ignored) {
-                return null;
-            }
-        });
+        return textures.get(name, supplier);
+    }
+
+    /**
+     * Resolves the texture of a packed appearance key, the name is only built once per key.
+     */
+    @Nullable
+    protected final Identifier cached(int key, IntFunction<String> name) {
+        return textures.get(key, name);
     }
 }
@@ -1,8 +1,6 @@
 package mca.client.render.playerLayer;
 
-import mca.client.resources.ColorPalette;
-import mca.entity.ai.Genetics;
-import mca.entity.ai.Traits;
+import mca.client.render.layer.VillagerAppearance;
 import mca.entity.ai.relationship.Gender;
 import net.minecraft.client.render.entity.feature.FeatureRendererContext;
 import net.minecraft.client.render.entity.model.PlayerEntityModel;
@@ -18,19 +16,13 @@ public class PlayerSkinLayer<T extends LivingEntity> extends PlayerLayer<T, Play
 
     @Override
     protected Identifier getSkin(T villager) {
-        Gender gender = getVillager(villager).getGenetics().getGender();
-        int skin = (int) Math.min(4, Math.max(0, getVillager(villager).getGenetics().getGene(Genetics.SKIN) * 5));
-        return cached(String.format("mca:skins/skin/%s/%d.png", gender == Gender.FEMALE ? "female" : "male", skin), Identifier::new);
+        return cached(VillagerAppearance.of(getVillager(villager)).getSkinKey(), key ->
+                String.format("mca:skins/skin/%s/%d.png", Gender.byId(key >> 3) == Gender.FEMALE ? "female" : "male", key & 7)
+        );
     }
 
     @Override
     protected float[] getColor(T villager) {
-        float albinism = getVillager(villager).getTraits().hasTrait(Traits.Trait.ALBINISM) ? 0.1f : 1.0f;
-
-        return ColorPalette.SKIN.getColor(
-                getVillager(villager).getGenetics().getGene(Genetics.MELANIN) * albinism,
-                getVillager(villager).getGenetics().getGene(Genetics.HEMOGLOBIN) * albinism,
-                getVillager(villager).getInfectionProgress()
-        );
+        return VillagerAppearance.of(getVillager(villager)).getSkinColor();
     }
 }
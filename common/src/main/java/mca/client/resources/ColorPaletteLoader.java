@@ -1,6 +1,7 @@
 package mca.client.resources;
 
 import mca.MCA;
+import mca.client.render.layer.TextureCache;
 import net.minecraft.client.texture.NativeImage;
 import net.minecraft.resource.ResourceManager;
 import net.minecraft.resource.SinglePreparationResourceReloader;
@@ -42,5 +43,8 @@ public class ColorPaletteLoader extends SinglePreparationResourceReloader<Map<Id
                 ColorPalette.REGISTRY.get(id).data = data;
             }
         });
+
+        //textures may have been added or removed
+        TextureCache.invalidateAll();
     }
 }
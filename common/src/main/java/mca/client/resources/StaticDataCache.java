@@ -0,0 +1,73 @@
+package mca.client.resources;
+
+import mca.network.StaticPayloads;
+import mca.resources.ClothingList;
+import mca.resources.HairList;
+import mca.resources.Rank;
+import mca.resources.data.BuildingType;
+import mca.resources.data.tasks.Task;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Client copies of the static payloads, kept across screens and servers and refreshed only if the server announces a different version.
+ */
+public final class StaticDataCache {
+    private static final Map<StaticPayloads.Type, Long> VERSIONS = new EnumMap<>(StaticPayloads.Type.class);
+
+    private static Map<Rank, List<Task>> tasks = Map.of();
+    private static Map<String, BuildingType> buildingTypes = Map.of();
+
+    private static HashMap<String, ClothingList.Clothing> clothing = new HashMap<>();
+    private static HashMap<String, HairList.Hair> hair = new HashMap<>();
+
+    private StaticDataCache() {
+    }
+
+    /**
+     * The version of the cached copy, or zero if there is none.
+     */
+    public static long getVersion(StaticPayloads.Type type) {
+        return VERSIONS.getOrDefault(type, 0L);
+    }
+
+    /**
+     * Drops every cached copy which differs from the announced version.
+     *
+     * @return true if anything has been dropped
+     */
+    public static boolean retain(Map<StaticPayloads.Type, Long> versions) {
+        return VERSIONS.entrySet().removeIf(e -> !e.getValue().equals(versions.get(e.getKey())));
+    }
+
+    public static void setVillageTables(long version, Map<Rank, List<Task>> tasks, Map<String, BuildingType> buildingTypes) {
+        StaticDataCache.tasks = tasks;
+        StaticDataCache.buildingTypes = buildingTypes;
+        VERSIONS.put(StaticPayloads.Type.VILLAGE, version);
+    }
+
+    public static void setSkins(long version, HashMap<String, ClothingList.Clothing> clothing, HashMap<String, HairList.Hair> hair) {
+        StaticDataCache.clothing = clothing;
+        StaticDataCache.hair = hair;
+        VERSIONS.put(StaticPayloads.Type.SKINS, version);
+    }
+
+    public static Map<Rank, List<Task>> getTasks() {
+        return tasks;
+    }
+
+    public static Map<String, BuildingType> getBuildingTypes() {
+        return buildingTypes;
+    }
+
+    public static HashMap<String, ClothingList.Clothing> getClothing() {
+        return clothing;
+    }
+
+    public static HashMap<String, HairList.Hair> getHair() {
+        return hair;
+    }
+}
@@ -5,29 +5,22 @@ import net.minecraft.server.network.ServerPlayerEntity;
 
 import java.io.*;
 
+/**
+ * A network message.
+ * <p>
+ * By default messages are written using java serialization. Messages with an explicit codec override {@link #encode(PacketByteBuf)},
+ * provide a constructor reading the same fields back, and are registered using {@link NetworkHandler#registerMessage(Class, java.util.function.Function)}.
+ */
 public interface Message extends Serializable {
 
     static Message decode(PacketByteBuf b) {
         byte[] data = new byte[b.readableBytes()];
         b.readBytes(data);
-
-        try (ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(data))) {
-            return (Message)ois.readObject();
-        } catch (IOException | ClassNotFoundException e) {
-            throw new RuntimeException("SneakyThrows", e);
-        }
+        return readObject(data);
     }
 
     default void encode(PacketByteBuf b) {
-        ByteArrayOutputStream baos = new ByteArrayOutputStream();
-
-        try (ObjectOutputStream oos = new ObjectOutputStream(baos)) {
-            oos.writeObject(this);
-        } catch (IOException e) {
-            throw new RuntimeException("SneakyThrows", e);
-        }
-
-        b.writeBytes(baos.toByteArray());
+        b.writeBytes(writeObject(this));
     }
 
     default void receive() {
@@ -37,4 +30,41 @@ public interface Message extends Serializable {
     default void receive(ServerPlayerEntity player) {
         // N/A
     }
-}
\ No newline at end of file
+
+    /**
+     * Writes a single value using java serialization, for object graphs without an explicit codec.
+     */
+    static void writeSerialized(PacketByteBuf b, Serializable value) {
+        b.writeByteArray(writeObject(value));
+    }
+
+    @SuppressWarnings("unchecked")
+    static <T> T readSerialized(PacketByteBuf b) {
+        return (T)readObject(b.readByteArray());
+    }
+
+    private static byte[] writeObject(Serializable value) {
+        try {
+            return serialize(value);
+        } catch (IOException e) {
+            throw new RuntimeException("SneakyThrows", e);
+        }
+    }
+
+    static byte[] serialize(Serializable value) throws IOException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        try (ObjectOutputStream oos = new ObjectOutputStream(baos)) {
+            oos.writeObject(value);
+        }
+        return baos.toByteArray();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T readObject(byte[] data) {
+        try (ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(data))) {
+            return (T)ois.readObject();
+        } catch (IOException | ClassNotFoundException e) {
+            throw new RuntimeException("SneakyThrows", e);
+        }
+    }
+}
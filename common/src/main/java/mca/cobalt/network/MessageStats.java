@@ -0,0 +1,94 @@
+package mca.cobalt.network;
+
+import mca.Config;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Optional per message type statistics, comparing the size and timing of the message codecs with plain java serialization.
+ * Only collected while {@link Config#networkStats} is enabled.
+ */
+public final class MessageStats {
+    private static final Map<Class<?>, Entry> ENTRIES = new HashMap<>();
+
+    private MessageStats() {
+    }
+
+    public static boolean isEnabled() {
+        return Config.getInstance().networkStats;
+    }
+
+    static synchronized void recordEncode(Message m, int bytes, long nanos) {
+        Entry entry = ENTRIES.computeIfAbsent(m.getClass(), Entry::new);
+        entry.encoded++;
+        entry.bytes += bytes;
+        entry.encodeNanos += nanos;
+
+        //compare with the legacy format
+        if (!entry.legacyFailed) {
+            try {
+                long time = System.nanoTime();
+                byte[] legacy = Message.serialize(m);
+                entry.legacyNanos += System.nanoTime() - time;
+                entry.legacyBytes += legacy.length;
+                entry.legacyEncoded++;
+            } catch (IOException e) {
+                //some field can not be serialized
+                entry.legacyFailed = true;
+            }
+        }
+    }
+
+    static synchronized void recordDecode(Class<?> type, long nanos) {
+        Entry entry = ENTRIES.computeIfAbsent(type, Entry::new);
+        entry.decoded++;
+        entry.decodeNanos += nanos;
+    }
+
+    public static synchronized List<Entry> getEntries() {
+        List<Entry> entries = new ArrayList<>(ENTRIES.values());
+        entries.sort(Comparator.comparingLong((Entry e) -> e.bytes).reversed());
+        return entries;
+    }
+
+    public static synchronized void clear() {
+        ENTRIES.clear();
+    }
+
+    public static final class Entry {
+        private final Class<?> type;
+
+        private long encoded;
+        private long bytes;
+        private long encodeNanos;
+
+        private long decoded;
+        private long decodeNanos;
+
+        private long legacyEncoded;
+        private long legacyBytes;
+        private long legacyNanos;
+        private boolean legacyFailed;
+
+        private Entry(Class<?> type) {
+            this.type = type;
+        }
+
+        @Override
+        public String toString() {
+            String s = String.format("%s: %d sent, avg %d bytes, %.1fµs encode; %d received, %.1fµs decode",
+                    type.getSimpleName(),
+                    encoded, encoded == 0 ? 0 : bytes / encoded, encoded == 0 ? 0.0 : encodeNanos / 1000.0 / encoded,
+                    decoded, decoded == 0 ? 0.0 : decodeNanos / 1000.0 / decoded);
+            if (legacyEncoded > 0) {
+                s += String.format("; serialized avg %d bytes, %.1fµs", legacyBytes / legacyEncoded, legacyNanos / 1000.0 / legacyEncoded);
+            }
+            return s;
+        }
+    }
+}
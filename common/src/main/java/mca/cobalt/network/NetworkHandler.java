@@ -1,12 +1,52 @@
 package mca.cobalt.network;
 
+import io.netty.buffer.Unpooled;
+import it.unimi.dsi.fastutil.objects.Object2IntMap;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+import net.minecraft.network.PacketByteBuf;
 import net.minecraft.server.network.ServerPlayerEntity;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+
 public abstract class NetworkHandler {
     private static Impl INSTANCE;
 
+    private static final Set<Class<? extends Message>> CODECS = new LinkedHashSet<>();
+
+    /**
+     * Registers a message written using java serialization.
+     */
     public static <T extends Message> void registerMessage(Class<T> msg) {
-        INSTANCE.registerMessage(msg);
+        INSTANCE.registerMessage(msg, b -> msg.cast(Message.decode(b)));
+    }
+
+    /**
+     * Registers a message with an explicit codec, the decoder has to read what {@link Message#encode(PacketByteBuf)} wrote.
+     */
+    public static <T extends Message> void registerMessage(Class<T> msg, Function<PacketByteBuf, T> decoder) {
+        CODECS.add(msg);
+        INSTANCE.registerMessage(msg, decoder);
+    }
+
+    /**
+     * The message types registered with an explicit codec.
+     */
+    public static Set<Class<? extends Message>> getCodecMessages() {
+        return Collections.unmodifiableSet(CODECS);
+    }
+
+    /**
+     * Encodes the message and decodes it again using its registered decoder, which has to read exactly the written bytes.
+     *
+     * @return the decoded copy
+     */
+    public static Message roundTrip(Message m) {
+        return INSTANCE.roundTrip(m);
     }
 
     public static void sendToServer(Message m) {
@@ -18,14 +58,93 @@ public abstract class NetworkHandler {
     }
 
     public abstract static class Impl {
+        //numeric ids are assigned in registration order, which is the same on both sides
+        private final Object2IntMap<Class<?>> ids = new Object2IntOpenHashMap<>();
+        private final List<Function<PacketByteBuf, ? extends Message>> decoders = new ArrayList<>();
+
         protected Impl() {
             INSTANCE = this;
+            ids.defaultReturnValue(-1);
         }
 
-        public abstract <T extends Message> void registerMessage(Class<T> msg);
+        public abstract <T extends Message> void registerMessage(Class<T> msg, Function<PacketByteBuf, T> decoder);
 
         public abstract void sendToServer(Message m);
 
         public abstract void sendToPlayer(Message m, ServerPlayerEntity e);
+
+        /**
+         * Assigns the next free id to the message type.
+         */
+        protected <T extends Message> int register(Class<T> msg, Function<PacketByteBuf, T> decoder) {
+            int id = decoders.size();
+            ids.put(msg, id);
+            decoders.add(decoder);
+            return id;
+        }
+
+        protected int getId(Message m) {
+            int id = ids.getInt(m.getClass());
+            if (id < 0) {
+                throw new IllegalArgumentException("Unregistered message " + m.getClass().getName());
+            }
+            return id;
+        }
+
+        /**
+         * Encodes the message, without its id.
+         */
+        protected void encode(Message m, PacketByteBuf b) {
+            if (MessageStats.isEnabled()) {
+                int start = b.writerIndex();
+                long time = System.nanoTime();
+                m.encode(b);
+                MessageStats.recordEncode(m, b.writerIndex() - start, System.nanoTime() - time);
+            } else {
+                m.encode(b);
+            }
+        }
+
+        /**
+         * Decodes a message of the given id.
+         */
+        protected Message decode(int id, PacketByteBuf b) {
+            if (id < 0 || id >= decoders.size()) {
+                throw new IllegalArgumentException("Unknown message id " + id);
+            }
+            if (MessageStats.isEnabled()) {
+                long time = System.nanoTime();
+                Message m = decoders.get(id).apply(b);
+                MessageStats.recordDecode(m.getClass(), System.nanoTime() - time);
+                return m;
+            }
+            return decoders.get(id).apply(b);
+        }
+
+        Message roundTrip(Message m) {
+            PacketByteBuf b = new PacketByteBuf(Unpooled.buffer());
+            m.encode(b);
+            int size = b.readableBytes();
+            Message copy = decoders.get(getId(m)).apply(b);
+            if (b.readableBytes() != 0) {
+                throw new IllegalStateException(String.format("%d of %d bytes left unread", b.readableBytes(), size));
+            }
+            return copy;
+        }
+
+        /**
+         * Writes the message prefixed by its id.
+         */
+        protected void write(Message m, PacketByteBuf b) {
+            b.writeVarInt(getId(m));
+            encode(m, b);
+        }
+
+        /**
+         * Reads a message prefixed by its id.
+         */
+        protected Message read(PacketByteBuf b) {
+            return decode(b.readVarInt(), b);
+        }
     }
 }
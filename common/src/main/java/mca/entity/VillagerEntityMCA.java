@@ -142,6 +142,8 @@ public class VillagerEntityMCA extends VillagerEntity implements VillagerLike<Vi
 
     private GameProfile gameProfile;
 
+    private int trackedDataRevision;
+
     @Override
     public GameProfile getGameProfile() {
         return gameProfile;
@@ -164,6 +166,11 @@ public class VillagerEntityMCA extends VillagerEntity implements VillagerLike<Vi
         return DATA;
     }
 
+    @Override
+    public int getTrackedDataRevision() {
+        return trackedDataRevision;
+    }
+
     @Override
     protected EntityNavigation createNavigation(World world) {
         return new VillagerNavigation(this, world);
@@ -804,6 +811,15 @@ public class VillagerEntityMCA extends VillagerEntity implements VillagerLike<Vi
         residency.leaveHome();
     }
 
+    @Override
+    public void setRemoved(RemovalReason reason) {
+        super.setRemoved(reason);
+
+        if (!world.isClient) {
+            residency.onRemoved();
+        }
+    }
+
     @Override
     public MoveControl getMoveControl() {
         return isRidingHorse() ? moveControl : super.getMoveControl();
@@ -1057,6 +1073,11 @@ public class VillagerEntityMCA extends VillagerEntity implements VillagerLike<Vi
 
     @Override
     public void onTrackedDataSet(TrackedData<?> par) {
+        //mirror genes first, the dimensions depend on them
+        if (getTypeDataManager().contains(par)) {
+            genetics.onTrackedDataSet(par);
+            trackedDataRevision++;
+        }
         if (getTypeDataManager().isParam(AGE_STATE, par) || getTypeDataManager().isParam(Genetics.SIZE.getParam(), par)) {
             calculateDimensions();
         }
@@ -1150,6 +1171,7 @@ public class VillagerEntityMCA extends VillagerEntity implements VillagerLike<Vi
         super.readCustomDataFromNbt(nbt);
         getTypeDataManager().load(this, nbt);
         relations.readFromNbt(nbt);
+        mcaBrain.readFromNbt(nbt);
         longTermMemory.readFromNbt(nbt);
 
         updateSpeed();
@@ -1165,10 +1187,23 @@ public class VillagerEntityMCA extends VillagerEntity implements VillagerLike<Vi
         super.writeCustomDataToNbt(nbt);
         getTypeDataManager().save(this, nbt);
         relations.writeToNbt(nbt);
+        mcaBrain.writeToNbt(nbt);
         longTermMemory.writeToNbt(nbt);
         InventoryUtils.saveToNBT(inventory, nbt);
     }
 
+    @Override
+    public void onStartedTrackingBy(ServerPlayerEntity player) {
+        super.onStartedTrackingBy(player);
+        mcaBrain.onStartedTrackingBy(player);
+    }
+
+    @Override
+    public void onStoppedTrackingBy(ServerPlayerEntity player) {
+        super.onStoppedTrackingBy(player);
+        mcaBrain.onStoppedTrackingBy(player);
+    }
+
     @Override
     public boolean isHostile() {
         return getProfession() == ProfessionsMCA.OUTLAW.get();
@@ -65,6 +65,11 @@ public interface VillagerLike<E extends Entity & VillagerLike<E>> extends CTrack
 
     EntityCommandHandler<?> getInteractions();
 
+    /**
+     * Incremented whenever tracked data of this type changes, lets client side caches notice stale values.
+     */
+    int getTrackedDataRevision();
+
     default void initialize(SpawnReason spawnReason) {
         if (spawnReason != SpawnReason.CONVERSION) {
             if (spawnReason != SpawnReason.BREEDING) {
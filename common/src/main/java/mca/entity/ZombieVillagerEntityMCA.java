@@ -47,6 +47,8 @@ public class ZombieVillagerEntityMCA extends ZombieVillagerEntity implements Vil
     private final ZombieCommandHandler interactions = new ZombieCommandHandler(this);
     private final UpdatableInventory inventory = new UpdatableInventory(27);
 
+    private int trackedDataRevision;
+
     public ZombieVillagerEntityMCA(EntityType<? extends ZombieVillagerEntity> type, World world, Gender gender) {
         super(type, world);
         genetics.setGender(gender);
@@ -64,6 +66,11 @@ public class ZombieVillagerEntityMCA extends ZombieVillagerEntity implements Vil
         return DATA;
     }
 
+    @Override
+    public int getTrackedDataRevision() {
+        return trackedDataRevision;
+    }
+
     @Override
     public Genetics getGenetics() {
         return genetics;
@@ -246,6 +253,7 @@ public class ZombieVillagerEntityMCA extends ZombieVillagerEntity implements Vil
         super.readCustomDataFromNbt(nbt);
         getTypeDataManager().load(this, nbt);
         relations.readFromNbt(nbt);
+        mcaBrain.readFromNbt(nbt);
 
         updateSpeed();
 
@@ -260,11 +268,29 @@ public class ZombieVillagerEntityMCA extends ZombieVillagerEntity implements Vil
         super.writeCustomDataToNbt(nbt);
         getTypeDataManager().save(this, nbt);
         relations.writeToNbt(nbt);
+        mcaBrain.writeToNbt(nbt);
         InventoryUtils.saveToNBT(inventory, nbt);
     }
 
+    @Override
+    public void onStartedTrackingBy(ServerPlayerEntity player) {
+        super.onStartedTrackingBy(player);
+        mcaBrain.onStartedTrackingBy(player);
+    }
+
+    @Override
+    public void onStoppedTrackingBy(ServerPlayerEntity player) {
+        super.onStoppedTrackingBy(player);
+        mcaBrain.onStoppedTrackingBy(player);
+    }
+
     @Override
     public void onTrackedDataSet(TrackedData<?> par) {
+        //mirror genes first, the dimensions depend on them
+        if (getTypeDataManager().contains(par)) {
+            genetics.onTrackedDataSet(par);
+            trackedDataRevision++;
+        }
         if (getTypeDataManager().isParam(AGE_STATE, par) || getTypeDataManager().isParam(Genetics.SIZE.getParam(), par)) {
             calculateDimensions();
         }
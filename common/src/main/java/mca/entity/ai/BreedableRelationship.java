@@ -5,6 +5,7 @@ import mca.MCA;
 import mca.cobalt.network.NetworkHandler;
 import mca.entity.Status;
 import mca.entity.VillagerEntityMCA;
+import mca.entity.interaction.EvaluationContext;
 import mca.entity.interaction.gifts.GiftType;
 import mca.entity.interaction.gifts.Response;
 import mca.item.SpecialCaseGift;
@@ -101,15 +102,16 @@ public class BreedableRelationship extends Relationship<VillagerEntityMCA> {
                 }
                 stack.decrement(1);
             } else {
-                Optional<GiftType> gift = GiftType.bestMatching(entity, stack, player);
+                EvaluationContext context = new EvaluationContext(entity, stack, player);
+                Optional<GiftType> gift = GiftType.bestMatching(context);
 
                 // gift is unknown
                 if (gift.isPresent()) {
-                    acceptGift(stack, gift.get(), player, memory);
+                    acceptGift(stack, gift.get(), context, memory);
                 } else {
                     gift = handleDynamicGift(stack);
                     if (gift.isPresent()) {
-                        acceptGift(stack, gift.get(), player, memory);
+                        acceptGift(stack, gift.get(), context, memory);
                     } else {
                         rejectGift(player, "gift.fail");
                     }
@@ -154,14 +156,15 @@ public class BreedableRelationship extends Relationship<VillagerEntityMCA> {
         return Optional.empty();
     }
 
-    private void acceptGift(ItemStack stack, GiftType gift, ServerPlayerEntity player, Memories memory) {
+    private void acceptGift(ItemStack stack, GiftType gift, EvaluationContext context, Memories memory) {
+        ServerPlayerEntity player = context.getPlayer();
         // inventory full
         if (!entity.getInventory().canInsert(stack)) {
             rejectGift(player, "villager.inventory.full");
             return;
         }
 
-        IntAnalysis analysis = gift.getSatisfactionFor(entity, stack, player);
+        IntAnalysis analysis = gift.getSatisfactionFor(context);
         int satisfaction = analysis.getTotal();
         Response response = gift.getResponse(satisfaction);
 
@@ -3,8 +3,10 @@ package mca.entity.ai;
 import mca.entity.ai.relationship.AgeState;
 import mca.entity.ai.relationship.Personality;
 import net.minecraft.util.Language;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
@@ -24,6 +26,10 @@ public enum DialogueType {
 
     private static final Random random = new Random();
 
+    //resolved phrase keys of the current language
+    private static final Map<String, Resolution> RESOLVED = new ConcurrentHashMap<>();
+    private static Language resolvedLanguage;
+
     DialogueType(DialogueType fallback) {
         this.fallback = fallback;
     }
@@ -73,11 +79,25 @@ public enum DialogueType {
         return Optional.empty();
     }
 
+    /**
+     * Resolves a flagged phrase key to the most specific translated key, falling back to more generic ones.
+     */
     public static String applyFallback(String key) {
-        if (!key.contains("#")) {
+        if (key.indexOf('#') < 0) {
             return key;
         }
 
+        //resolutions only depend on the available translations
+        Language language = Language.getInstance();
+        if (language != resolvedLanguage) {
+            RESOLVED.clear();
+            resolvedLanguage = language;
+        }
+
+        return RESOLVED.computeIfAbsent(key, DialogueType::resolve).pick();
+    }
+
+    private static Resolution resolve(String key) {
         //extract flags
         Map<String, String> flags = new HashMap<>();
         for (String s : key.split("\\.")) {
@@ -93,16 +113,14 @@ public enum DialogueType {
             type = DialogueType.MAP.get(flags.get("T"));
         }
         if (type == null) {
-            return key;
+            return new Resolution(null, key);
         }
 
-        //first try professions
+        //first try professions, picked by chance
         //children can't have profession, this is already checked in the Messenger
-        if (flags.containsKey("P") && random.nextBoolean()) {
-            Optional<String> p = getPrefixedPhrase(type, flags.get("P"), key);
-            if (p.isPresent()) {
-                return p.get();
-            }
+        String profession = null;
+        if (flags.containsKey("P")) {
+            profession = getPrefixedPhrase(type, flags.get("P"), key).orElse(null);
         }
 
         //then try personality
@@ -110,7 +128,7 @@ public enum DialogueType {
             String personality = Personality.valueOf(flags.get("E")).name().toLowerCase(Locale.ROOT);
             Optional<String> p = getPrefixedPhrase(type, personality, key);
             if (p.isPresent()) {
-                return p.get();
+                return new Resolution(profession, p.get());
             }
         }
 
@@ -119,11 +137,17 @@ public enum DialogueType {
         while (t != null) {
             String s = t.name().toLowerCase(Locale.ENGLISH) + "." + key;
             if (Language.getInstance().hasTranslation(s)) {
-                return s;
+                return new Resolution(profession, s);
             }
             t = t.fallback;
         }
 
-        return key;
+        return new Resolution(profession, key);
+    }
+
+    private record Resolution(@Nullable String profession, String fallback) {
+        String pick() {
+            return profession != null && random.nextBoolean() ? profession : fallback;
+        }
     }
 }
@@ -8,15 +8,19 @@ import mca.util.network.datasync.CDataParameter;
 import mca.util.network.datasync.CEnumParameter;
 import mca.util.network.datasync.CParameter;
 import net.minecraft.entity.Entity;
+import net.minecraft.entity.data.TrackedData;
 import net.minecraft.util.math.MathHelper;
 
 import java.util.*;
 
 /**
  * Villagerized Genetic Diversity.
+ * <p>
+ * Each gene is tracked as its own float parameter, mirrored into an array indexed by the gene id.
  */
 public class Genetics implements Iterable<Genetics.Gene> {
-    private static final Set<GeneType> GENOMES = new HashSet<>();
+    private static final List<GeneType> GENOMES = new ArrayList<>();
+    private static final Map<CParameter<?, ?>, GeneType> BY_PARAM = new HashMap<>();
 
     public static final GeneType SIZE = new GeneType("gene_size");
     public static final GeneType WIDTH = new GeneType("gene_width");
@@ -37,13 +41,29 @@ public class Genetics implements Iterable<Genetics.Gene> {
 
     private Random random;
 
-    private final Map<GeneType, Gene> genes = new HashMap<>();
+    //tracked values of all genes, kept in sync by onTrackedDataSet
+    private final float[] values = new float[GENOMES.size()];
+    private final Gene[] genes = new Gene[GENOMES.size()];
 
     private final VillagerLike<?> entity;
 
     public Genetics(VillagerLike<?> entity) {
         this.entity = entity;
         random = new Random(entity.asEntity().world.random.nextLong());
+
+        for (GeneType type : GENOMES) {
+            genes[type.id] = new Gene(type);
+        }
+    }
+
+    /**
+     * Updates the mirrored gene if the changed tracked data belongs to one.
+     */
+    public void onTrackedDataSet(TrackedData<?> data) {
+        GeneType type = BY_PARAM.get(entity.getTypeDataManager().getParam(data));
+        if (type != null) {
+            values[type.id] = entity.getTrackedValue(type.parameter);
+        }
     }
 
     public float getVerticalScaleFactor() {
@@ -68,26 +88,36 @@ public class Genetics implements Iterable<Genetics.Gene> {
 
     @Override
     public Iterator<Gene> iterator() {
-        return genes.values().iterator();
+        return Arrays.asList(genes).iterator();
     }
 
     public void setGene(GeneType type, float value) {
-        getGenome(type).set(value);
+        values[type.id] = value;
+        entity.setTrackedValue(type.parameter, value);
     }
 
     public float getGene(GeneType type) {
-        return getGenome(type).get();
+        return values[type.id];
     }
 
     public Gene getGenome(GeneType type) {
-        return genes.computeIfAbsent(type, Gene::new);
+        return genes[type.id];
+    }
+
+    //sets all genes, packed in gene id order
+    private void setAll(float[] genes) {
+        for (GeneType type : GENOMES) {
+            setGene(type, genes[type.id]);
+        }
     }
 
     //initializes the genes with random numbers
     public void randomize() {
-        for (GeneType type : GENOMES) {
-            getGenome(type).randomize();
+        float[] genes = new float[values.length];
+        for (int i = 0; i < genes.length; i++) {
+            genes[i] = random.nextFloat();
         }
+        setAll(genes);
 
         // size is more centered
         setGene(SIZE, centeredRandom());
@@ -120,9 +150,19 @@ public class Genetics implements Iterable<Genetics.Gene> {
     }
 
     public void combine(Genetics mother, Genetics father) {
-        for (GeneType type : GENOMES) {
-            getGenome(type).mutate(mother, father);
+        float[] genes = new float[values.length];
+        for (int i = 0; i < genes.length; i++) {
+            genes[i] = mutate(mother.values[i], father.values[i]);
         }
+        setAll(genes);
+    }
+
+    private float mutate(float m, float f) {
+        float interpolation = random.nextFloat();
+        float mutation = (random.nextFloat() - 0.5f) * 0.2f;
+        float g = m * interpolation + f * (1.0f - interpolation) + mutation;
+
+        return (float) Math.min(1.0, Math.max(0.0, g));
     }
 
     public void combine(Optional<Genetics> mother, Optional<Genetics> father) {
@@ -151,11 +191,11 @@ public class Genetics implements Iterable<Genetics.Gene> {
         }
 
         public float get() {
-            return entity.getTrackedValue(type.parameter);
+            return getGene(type);
         }
 
         public void set(float value) {
-            entity.setTrackedValue(type.parameter, value);
+            setGene(type, value);
         }
 
         public void randomize() {
@@ -163,24 +203,28 @@ public class Genetics implements Iterable<Genetics.Gene> {
         }
 
         public void mutate(Genetics mother, Genetics father) {
-            float m = mother.getGene(type);
-            float f = father.getGene(type);
-            float interpolation = random.nextFloat();
-            float mutation = (random.nextFloat() - 0.5f) * 0.2f;
-            float g = m * interpolation + f * (1.0f - interpolation) + mutation;
-
-            set((float) Math.min(1.0, Math.max(0.0, g)));
+            set(Genetics.this.mutate(mother.getGene(type), father.getGene(type)));
         }
     }
 
     public static class GeneType implements Comparable<GeneType> {
+        private final int id;
         private final String key;
         private final CDataParameter<Float> parameter;
 
         GeneType(String key) {
+            this.id = GENOMES.size();
             this.key = key;
             parameter = CParameter.create(key, 0F);
             GENOMES.add(this);
+            BY_PARAM.put(parameter, this);
+        }
+
+        /**
+         * Dense index of this gene, in order of declaration.
+         */
+        public int getId() {
+            return id;
         }
 
         public String key() {
@@ -1,5 +1,6 @@
 package mca.entity.ai;
 
+import mca.Config;
 import mca.entity.VillagerLike;
 import mca.entity.ai.brain.VillagerBrain;
 import net.minecraft.entity.mob.MobEntity;
@@ -14,7 +15,9 @@ public class Memories {
 
     private final UUID playerUUID;
 
+    //fatigue at the given world time, it decays lazily from there
     private int interactionFatigue;
+    private long fatigueTime;
 
     private DialogueType dialogueType;
 
@@ -47,17 +50,21 @@ public class Memories {
     }
 
     public int getInteractionFatigue() {
-        return interactionFatigue;
+        if (interactionFatigue <= 0) {
+            return interactionFatigue;
+        }
+        long decayed = (brain.getTime() - fatigueTime) / Math.max(1, Config.getInstance().interactionFatigueCooldown);
+        return (int)Math.max(0, interactionFatigue - decayed);
     }
 
     public void setInteractionFatigue(int value) {
         this.interactionFatigue = value;
+        this.fatigueTime = brain.getTime();
         brain.updateMemories(this);
     }
 
     public void modInteractionFatigue(int value) {
-        this.interactionFatigue += value;
-        brain.updateMemories(this);
+        setInteractionFatigue(getInteractionFatigue() + value);
     }
 
     public DialogueType getDialogueType() {
@@ -83,7 +90,9 @@ public class Memories {
 
         nbt.putUuid("playerUUID", playerUUID);
         nbt.putInt("hearts", hearts);
+        //raw values, decaying here would drop the progress towards the next cooldown
         nbt.putInt("interactionFatigue", interactionFatigue);
+        nbt.putLong("fatigueTime", fatigueTime);
         nbt.putInt("dialogueType", dialogueType.ordinal());
         nbt.putLong("lastSeen", lastSeen);
 
@@ -99,6 +108,7 @@ public class Memories {
 
         memories.hearts = tag.getInt("hearts");
         memories.interactionFatigue = tag.getInt("interactionFatigue");
+        memories.fatigueTime = tag.contains("fatigueTime") ? tag.getLong("fatigueTime") : villager.world.getTime();
         memories.dialogueType = DialogueType.byId(tag.getInt("dialogueType"));
         memories.lastSeen = tag.getLong("lastSeen");
 
@@ -35,6 +35,9 @@ public class Residency {
 
     private final VillagerEntityMCA entity;
 
+    //joins the loaded residents of its home village on the first tick
+    private boolean joined;
+
     public Residency(VillagerEntityMCA entity) {
         this.entity = entity;
     }
@@ -85,9 +88,10 @@ public class Residency {
         village.ifPresent(v -> {
             Optional<Building> building = v.getBuilding(entity.getTrackedValue(BUILDING));
             if (building.isPresent()) {
-                building.get().getResidents().remove(entity.getUuid());
+                building.get().removeResident(entity.getUuid());
                 manager.markDirty();
             }
+            v.getResidents().leave(entity.getUuid());
             v.cleanReputation();
             v.markDirty((ServerWorld)entity.world);
         });
@@ -97,7 +101,22 @@ public class Residency {
         return getHomeBuilding().map(building -> GlobalPos.create(entity.world.getRegistryKey(), building.getCenter()));
     }
 
+    /**
+     * Leaves the loaded residents of the home village, called once the entity has been unloaded or removed.
+     */
+    public void onRemoved() {
+        if (joined) {
+            joined = false;
+            getHomeVillage().ifPresent(v -> v.getResidents().leave(entity));
+        }
+    }
+
     public void tick() {
+        if (!joined) {
+            joined = true;
+            getHomeVillage().ifPresent(v -> v.getResidents().join(entity));
+        }
+
         if (entity.age % 600 == 0) {
             if (getHomeVillage().filter(v -> !v.isAutoScan()).isEmpty()) {
                 reportBuildings();
@@ -178,7 +197,7 @@ public class Residency {
         //fetch all near POIs
         Stream<BlockPos> stream = ((ServerWorld)entity.world).getPointOfInterestStorage().getPositions(
                 PointOfInterestType.ALWAYS_TRUE,
-                (p) -> !manager.cache.contains(p),
+                manager::shouldReport,
                 entity.getBlockPos(),
                 48,
                 PointOfInterestStorage.OccupationStatus.ANY);
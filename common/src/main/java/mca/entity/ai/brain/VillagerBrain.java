@@ -1,11 +1,12 @@
 package mca.entity.ai.brain;
 
-import mca.Config;
 import mca.advancement.criterion.CriterionMCA;
+import mca.cobalt.network.NetworkHandler;
 import mca.entity.Status;
 import mca.entity.VillagerLike;
 import mca.entity.ai.*;
 import mca.entity.ai.relationship.Personality;
+import mca.network.s2c.VillagerMemoriesMessage;
 import mca.util.network.datasync.CDataManager;
 import mca.util.network.datasync.CDataParameter;
 import mca.util.network.datasync.CEnumParameter;
@@ -18,16 +19,18 @@ import net.minecraft.nbt.NbtCompound;
 import net.minecraft.server.network.ServerPlayerEntity;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 /**
  * Handles memory and complex bodily functions. Such as walking, and not being a nitwit.
  */
 public class VillagerBrain<E extends MobEntity & VillagerLike<E>> {
-    private static final CDataParameter<NbtCompound> MEMORIES = CParameter.create("memories", new NbtCompound());
     private static final CEnumParameter<Personality> PERSONALITY = CParameter.create("personality", Personality.UNASSIGNED);
     private static final CDataParameter<Integer> MOOD = CParameter.create("mood", 0);
     private static final CEnumParameter<MoveState> MOVE_STATE = CParameter.create("moveState", MoveState.MOVE);
@@ -37,11 +40,17 @@ public class VillagerBrain<E extends MobEntity & VillagerLike<E>> {
     private static final CDataParameter<Boolean> WEAR_ARMOR = CParameter.create("wearArmor", false);
 
     public static <E extends Entity> CDataManager.Builder<E> createTrackedData(CDataManager.Builder<E> builder) {
-        return builder.addAll(MEMORIES, PERSONALITY, MOOD, MOVE_STATE, ACTIVE_CHORE, CHORE_ASSIGNING_PLAYER, PANICKING, WEAR_ARMOR);
+        return builder.addAll(PERSONALITY, MOOD, MOVE_STATE, ACTIVE_CHORE, CHORE_ASSIGNING_PLAYER, PANICKING, WEAR_ARMOR);
     }
 
     private final E entity;
 
+    //all players on the server, only the local player on the client
+    private final Map<UUID, Memories> memories = new HashMap<>();
+
+    //players whose client currently knows this villager, server side only
+    private final Set<UUID> trackingPlayers = new HashSet<>();
+
     public VillagerBrain(E entity) {
         this.entity = entity;
     }
@@ -67,20 +76,6 @@ public class VillagerBrain<E extends MobEntity & VillagerLike<E>> {
         if (entity.age % 20 != 0) {
             updateMoveState();
         }
-
-        // decrease interaction fatigue
-        if (entity.age % Config.getInstance().interactionFatigueCooldown == 0) {
-            NbtCompound nbt = entity.getTrackedValue(MEMORIES);
-            if (nbt != null) {
-                for (String uuid : nbt.getKeys()) {
-                    Memories memories = Memories.fromCNBT(entity, nbt.getCompound(uuid));
-                    int fatigue = memories.getInteractionFatigue();
-                    if (fatigue > 0) {
-                        memories.setInteractionFatigue(fatigue - 1);
-                    }
-                }
-            }
-        }
     }
 
     public Chore getCurrentJob() {
@@ -120,34 +115,75 @@ public class VillagerBrain<E extends MobEntity & VillagerLike<E>> {
         entity.setTrackedValue(PERSONALITY, p);
     }
 
+    /**
+     * The world time memories use to decay their interaction fatigue.
+     */
+    public long getTime() {
+        return entity.world.getTime();
+    }
+
     public void updateMemories(Memories memories) {
-        NbtCompound nbt = entity.getTrackedValue(MEMORIES);
+        this.memories.put(memories.getPlayerUUID(), memories);
 
-        nbt = nbt == null ? new NbtCompound() : nbt.copy();
-        nbt.put(memories.getPlayerUUID().toString(), memories.toCNBT());
-        entity.setTrackedValue(MEMORIES, nbt);
+        //only the player concerned receives the change, and only if their client knows this villager
+        if (!entity.world.isClient && trackingPlayers.contains(memories.getPlayerUUID())
+                && entity.world.getPlayerByUuid(memories.getPlayerUUID()) instanceof ServerPlayerEntity player) {
+            NetworkHandler.sendToPlayer(new VillagerMemoriesMessage(entity.getId(), memories.toCNBT()), player);
+        }
     }
 
     public Map<UUID, Memories> getMemories() {
-        NbtCompound nbt = entity.getTrackedValue(MEMORIES);
-        Map<UUID, Memories> memories = new HashMap<>();
-        for (String uuid : nbt.getKeys()) {
-            memories.put(UUID.fromString(uuid), Memories.fromCNBT(entity, nbt.getCompound(uuid)));
-        }
-        return memories;
+        return Collections.unmodifiableMap(memories);
     }
 
+    /**
+     * Returns the memories of the given player, unknown players get detached defaults which are only stored once modified.
+     */
     public Memories getMemoriesForPlayer(PlayerEntity player) {
-        NbtCompound nbt = entity.getTrackedValue(MEMORIES);
-        nbt = nbt == null ? new NbtCompound() : nbt;
-        NbtCompound compoundTag = nbt.getCompound(player.getUuid().toString());
-        Memories returnMemories = Memories.fromCNBT(entity, compoundTag);
-        if (returnMemories == null) {
-            returnMemories = new Memories(this, player.world.getTimeOfDay(), player.getUuid());
-            nbt.put(player.getUuid().toString(), returnMemories.toCNBT());
-            entity.setTrackedValue(MEMORIES, nbt);
+        Memories m = memories.get(player.getUuid());
+        return m != null ? m : new Memories(this, player.world.getTimeOfDay(), player.getUuid());
+    }
+
+    /**
+     * Sends the memories of a player who just started seeing this villager.
+     */
+    public void onStartedTrackingBy(ServerPlayerEntity player) {
+        trackingPlayers.add(player.getUuid());
+        Memories m = memories.get(player.getUuid());
+        if (m != null) {
+            NetworkHandler.sendToPlayer(new VillagerMemoriesMessage(entity.getId(), m.toCNBT()), player);
         }
-        return returnMemories;
+    }
+
+    public void onStoppedTrackingBy(ServerPlayerEntity player) {
+        trackingPlayers.remove(player.getUuid());
+    }
+
+    /**
+     * Reads the memories of a single player, as sent by the server.
+     */
+    public void readMemories(NbtCompound nbt) {
+        Memories m = Memories.fromCNBT(entity, nbt);
+        if (m != null) {
+            memories.put(m.getPlayerUUID(), m);
+        }
+    }
+
+    public void readFromNbt(NbtCompound nbt) {
+        memories.clear();
+        NbtCompound list = nbt.getCompound("memories");
+        for (String uuid : list.getKeys()) {
+            Memories m = Memories.fromCNBT(entity, list.getCompound(uuid));
+            if (m != null) {
+                memories.put(UUID.fromString(uuid), m);
+            }
+        }
+    }
+
+    public void writeToNbt(NbtCompound nbt) {
+        NbtCompound list = new NbtCompound();
+        memories.forEach((uuid, m) -> list.put(uuid.toString(), m.toCNBT()));
+        nbt.put("memories", list);
     }
 
     public Personality getPersonality() {
@@ -4,8 +4,9 @@ import com.google.common.collect.ImmutableMap;
 import mca.TagsMCA;
 import mca.entity.VillagerEntityMCA;
 import mca.entity.ai.Chore;
-import mca.entity.ai.TaskUtils;
 import mca.item.NonPlayerItemUsageContext;
+import mca.server.world.data.FarmIndex;
+import mca.server.world.data.VillageManager;
 import mca.util.InventoryUtils;
 import net.minecraft.block.*;
 import net.minecraft.entity.EquipmentSlot;
@@ -17,7 +18,6 @@ import net.minecraft.loot.context.LootContext;
 import net.minecraft.loot.context.LootContextParameters;
 import net.minecraft.loot.context.LootContextTypes;
 import net.minecraft.server.world.ServerWorld;
-import net.minecraft.tag.BlockTags;
 import net.minecraft.util.ActionResult;
 import net.minecraft.util.Hand;
 import net.minecraft.util.hit.BlockHitResult;
@@ -25,7 +25,6 @@ import net.minecraft.util.math.BlockPos;
 import net.minecraft.util.math.Direction;
 import net.minecraft.util.math.Vec3d;
 
-import java.util.ArrayList;
 import java.util.List;
 import java.util.function.Predicate;
 
@@ -45,7 +44,7 @@ public class HarvestingTask extends AbstractChoreTask {
     private static final int ITEM_FOUND = 1;
     private static final int ITEM_MISSING = 2;
 
-    private final List<BlockPos> harvestable = new ArrayList<>();
+    private boolean foundHarvestable;
 
     private int lastCropScan = 0;
     private int lastActionTicks = 0;
@@ -89,35 +88,25 @@ public class HarvestingTask extends AbstractChoreTask {
         }
     }
 
-    private BlockPos searchCrop(int rangeX, int rangeY, boolean harvestableOnly) {
-        List<BlockPos> nearbyCrops = TaskUtils.getNearbyBlocks(villager.getBlockPos(), villager.world,
-                blockState -> blockState.isIn(BlockTags.CROPS) || blockState.getBlock() instanceof GourdBlock, rangeX, rangeY);
-        harvestable.clear();
-
-        if (harvestableOnly) {
-            harvestable.addAll(nearbyCrops.stream().filter(pos -> {
-                BlockState state = villager.world.getBlockState(pos);
-                return (state.getBlock() instanceof CropBlock crop && crop.isMature(state))
-                    || state.getBlock() instanceof GourdBlock;
-            }).toList());
-        }
+    private FarmIndex getFarmIndex() {
+        return VillageManager.get((ServerWorld)villager.world).getFarmIndex();
+    }
 
-        return TaskUtils.getNearestPoint(villager.getBlockPos(), harvestable.isEmpty() ? nearbyCrops : harvestable);
+    private BlockPos searchCrop(int rangeX, int rangeY, boolean harvestableOnly) {
+        FarmIndex farms = getFarmIndex();
+        BlockPos harvestable = harvestableOnly ? farms.findCrop(villager.getBlockPos(), rangeX, rangeY, true) : null;
+        foundHarvestable = harvestable != null;
 
+        return foundHarvestable ? harvestable : farms.findCrop(villager.getBlockPos(), rangeX, rangeY, false);
     }
 
     private BlockPos searchUnusedFarmLand(int rangeX, int rangeY) {
-        return TaskUtils.getNearestPoint(villager.getBlockPos(),
-                TaskUtils.getNearbyBlocks(villager.getBlockPos(), villager.world,
-                    blockState -> blockState.isOf(Blocks.FARMLAND), rangeX, rangeY)
-                .stream()
-                .filter(pos -> {
-                    BlockState state = villager.world.getBlockState(pos);
-                    return state.getBlock() instanceof FarmlandBlock
-                        && state.canPlaceAt(villager.world, pos)
-                        && villager.world.getBlockState(pos.up()).isAir();
-                })
-                .toList());
+        return getFarmIndex().findFarmland(villager.getBlockPos(), rangeX, rangeY, pos -> {
+            BlockState state = villager.world.getBlockState(pos);
+            return state.getBlock() instanceof FarmlandBlock
+                && state.canPlaceAt(villager.world, pos)
+                && villager.world.getBlockState(pos.up()).isAir();
+        });
     }
 
     @Override
@@ -161,7 +150,7 @@ public class HarvestingTask extends AbstractChoreTask {
             return;
         }
 
-        if (harvestable.isEmpty()) {
+        if (!foundHarvestable) {
             crops = searchCrop(16, 3, false);
         }
 
@@ -0,0 +1,352 @@
+package mca.entity.ai.relationship.family;
+
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.ints.IntArrays;
+import it.unimi.dsi.fastutil.longs.Long2BooleanLinkedOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Object2IntMap;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+import net.minecraft.nbt.NbtCompound;
+import net.minecraft.util.Util;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * An index of the family tree using primitive node ids and adjacency arrays, used to answer relative queries without walking streams.
+ * <p>
+ * Every referenced UUID gets a node, but only nodes with an entry in the family tree are expanded and reported, just like the tree itself does.
+ * Nodes are updated whenever the parents or children of an entry change, only actual changes drop the kinship cache.
+ * Entries without any links are left out until they get one, they can not be part of any result.
+ * The index is small and saved along with the tree, so queries never have to load the shards holding the entries.
+ */
+class FamilyGraph {
+    private static final int NONE = -1;
+    private static final int MAX_CACHED = 4096;
+
+    private final Object2IntMap<UUID> ids = new Object2IntOpenHashMap<>();
+    private final List<UUID> uuids = new ArrayList<>();
+    private final BitSet present = new BitSet();
+
+    private int[] fathers = new int[0];
+    private int[] mothers = new int[0];
+    private int[][] children = new int[0][];
+
+    private final Long2BooleanLinkedOpenHashMap kinship = new Long2BooleanLinkedOpenHashMap();
+    private int kinshipDepth = -1;
+
+    //reused traversal state
+    private int[] visited = new int[0];
+    private int visitStamp;
+    private final IntArrayList todo = new IntArrayList();
+    private final IntArrayList next = new IntArrayList();
+    private final IntArrayList reached = new IntArrayList();
+
+    private final Runnable onChanged;
+
+    FamilyGraph(Runnable onChanged) {
+        this.onChanged = onChanged;
+        ids.defaultReturnValue(NONE);
+    }
+
+    NbtCompound save() {
+        int size = uuids.size();
+        long[] packed = new long[size * 2];
+        int[] childCounts = new int[size];
+        IntArrayList allChildren = new IntArrayList();
+        for (int i = 0; i < size; i++) {
+            packed[i * 2] = uuids.get(i).getMostSignificantBits();
+            packed[i * 2 + 1] = uuids.get(i).getLeastSignificantBits();
+            childCounts[i] = children[i].length;
+            allChildren.addElements(allChildren.size(), children[i]);
+        }
+
+        NbtCompound nbt = new NbtCompound();
+        nbt.putLongArray("uuids", packed);
+        nbt.putLongArray("present", present.toLongArray());
+        nbt.putIntArray("fathers", Arrays.copyOf(fathers, size));
+        nbt.putIntArray("mothers", Arrays.copyOf(mothers, size));
+        nbt.putIntArray("childCounts", childCounts);
+        nbt.putIntArray("children", allChildren.toIntArray());
+        return nbt;
+    }
+
+    void load(NbtCompound nbt) {
+        long[] packed = nbt.getLongArray("uuids");
+        int size = packed.length / 2;
+        for (int i = 0; i < size; i++) {
+            getOrCreateId(new UUID(packed[i * 2], packed[i * 2 + 1]));
+        }
+
+        present.or(BitSet.valueOf(nbt.getLongArray("present")));
+        System.arraycopy(nbt.getIntArray("fathers"), 0, fathers, 0, size);
+        System.arraycopy(nbt.getIntArray("mothers"), 0, mothers, 0, size);
+
+        int[] childCounts = nbt.getIntArray("childCounts");
+        int[] allChildren = nbt.getIntArray("children");
+        int offset = 0;
+        for (int i = 0; i < size; i++) {
+            children[i] = Arrays.copyOfRange(allChildren, offset, offset + childCounts[i]);
+            offset += childCounts[i];
+        }
+    }
+
+    /**
+     * Updates the parents and children of the given entry.
+     */
+    void update(FamilyTreeNode node) {
+        //unknown entries without links, e.g. freshly spawned villagers, change nothing
+        if (ids.getInt(node.id()) == NONE && !isValid(node.father()) && !isValid(node.mother()) && node.children().isEmpty()) {
+            return;
+        }
+
+        int id = getOrCreateId(node.id());
+        int father = getOrCreateId(node.father());
+        int mother = getOrCreateId(node.mother());
+
+        int[] c = new int[node.children().size()];
+        int i = 0;
+        for (UUID child : node.children()) {
+            int childId = getOrCreateId(child);
+            if (childId != NONE) {
+                c[i++] = childId;
+            }
+        }
+        c = i == c.length ? c : IntArrays.trim(c, i);
+
+        if (present.get(id) && fathers[id] == father && mothers[id] == mother && Arrays.equals(children[id], c)) {
+            return;
+        }
+
+        present.set(id);
+        fathers[id] = father;
+        mothers[id] = mother;
+        children[id] = c;
+
+        kinship.clear();
+        onChanged.run();
+    }
+
+    private static boolean isValid(@Nullable UUID uuid) {
+        return uuid != null && !Util.NIL_UUID.equals(uuid);
+    }
+
+    /**
+     * Returns true if both are related within the given amount of generations, see {@link #getRelatives(UUID, int)}.
+     */
+    boolean isRelative(UUID from, UUID with, int depth) {
+        int a = lookup(from);
+        int b = lookup(with);
+        if (a == NONE || b == NONE || a == b || !present.get(a) || !present.get(b)) {
+            return false;
+        }
+
+        if (kinshipDepth != depth) {
+            kinship.clear();
+            kinshipDepth = depth;
+        }
+
+        long key = (long)a << 32 | b & 0xFFFFFFFFL;
+        if (kinship.containsKey(key)) {
+            return kinship.getAndMoveToLast(key);
+        }
+
+        boolean related = walk(a, depth, b);
+        if (kinship.size() >= MAX_CACHED) {
+            kinship.removeFirstBoolean();
+        }
+        kinship.putAndMoveToLast(key, related);
+        return related;
+    }
+
+    /**
+     * All known persons reachable through parent and child links in less than depth steps, excluding the person itself.
+     */
+    Set<UUID> getRelatives(UUID from, int depth) {
+        Set<UUID> family = new HashSet<>();
+        int a = lookup(from);
+        if (a != NONE && present.get(a)) {
+            walk(a, depth, NONE);
+            for (int i = 0; i < reached.size(); i++) {
+                int node = reached.getInt(i);
+                if (node != a) {
+                    family.add(uuids.get(node));
+                }
+            }
+        }
+        return family;
+    }
+
+    /**
+     * Parents, grandparents, etc. up to the given amount of generations.
+     */
+    Set<UUID> getAncestors(UUID from, int depth) {
+        Set<UUID> family = new HashSet<>();
+        gather(lookup(from), depth, false, family);
+        return family;
+    }
+
+    /**
+     * Children, grandchildren, etc. up to the given amount of generations.
+     */
+    Set<UUID> getDescendants(UUID from, int depth) {
+        Set<UUID> family = new HashSet<>();
+        gather(lookup(from), depth, true, family);
+        return family;
+    }
+
+    /**
+     * All persons who share at least one common parent, including the person itself.
+     */
+    Set<UUID> getSiblings(UUID from) {
+        Set<UUID> siblings = new HashSet<>();
+        int a = lookup(from);
+        if (a != NONE) {
+            gather(fathers[a], 1, true, siblings);
+            gather(mothers[a], 1, true, siblings);
+        }
+        return siblings;
+    }
+
+    /**
+     * Whether the given person is a sibling of one of the parents (or one of the parents themselves).
+     */
+    boolean isUncle(UUID from, UUID uncle) {
+        int a = lookup(from);
+        if (a == NONE) {
+            return false;
+        }
+        return isChildOfParents(fathers[a], uncle) || isChildOfParents(mothers[a], uncle);
+    }
+
+    private boolean isChildOfParents(int parent, UUID child) {
+        if (parent == NONE || !isPresent(parent)) {
+            return false;
+        }
+        return isChildOf(fathers[parent], child) || isChildOf(mothers[parent], child);
+    }
+
+    private boolean isChildOf(int parent, UUID uuid) {
+        if (parent == NONE || !isPresent(parent)) {
+            return false;
+        }
+        int child = ids.getInt(uuid);
+        for (int c : children[parent]) {
+            if (c == child) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void gather(int node, int depth, boolean downwards, Set<UUID> output) {
+        if (node == NONE || depth <= 0 || !isPresent(node)) {
+            return;
+        }
+        if (downwards) {
+            for (int c : children[node]) {
+                output.add(uuids.get(c));
+                if (depth > 1) {
+                    gather(c, depth - 1, true, output);
+                }
+            }
+        } else {
+            gatherParent(fathers[node], depth, output);
+            gatherParent(mothers[node], depth, output);
+        }
+    }
+
+    private void gatherParent(int parent, int depth, Set<UUID> output) {
+        if (parent != NONE) {
+            output.add(uuids.get(parent));
+            if (depth > 1) {
+                gather(parent, depth - 1, false, output);
+            }
+        }
+    }
+
+    /**
+     * Breadth first walk over known persons, marking every visited node with the current stamp.
+     *
+     * @return true if the target has been reached
+     */
+    private boolean walk(int start, int depth, int target) {
+        if (++visitStamp == 0) {
+            IntArrays.fill(visited, 0);
+            visitStamp = 1;
+        }
+
+        reached.clear();
+        todo.clear();
+        todo.add(start);
+        for (int d = 0; d < depth && !todo.isEmpty(); d++) {
+            next.clear();
+            for (int i = 0; i < todo.size(); i++) {
+                int node = todo.getInt(i);
+                if (visited[node] == visitStamp || !isPresent(node)) {
+                    continue;
+                }
+                visited[node] = visitStamp;
+                reached.add(node);
+                if (node == target) {
+                    return true;
+                }
+
+                //add parents and children
+                if (fathers[node] != NONE) {
+                    next.add(fathers[node]);
+                }
+                if (mothers[node] != NONE) {
+                    next.add(mothers[node]);
+                }
+                for (int c : children[node]) {
+                    next.add(c);
+                }
+            }
+            todo.clear();
+            todo.addAll(next);
+        }
+        return false;
+    }
+
+    private int lookup(UUID uuid) {
+        return ids.getInt(uuid);
+    }
+
+    private boolean isPresent(int node) {
+        return present.get(node);
+    }
+
+    private int getOrCreateId(@Nullable UUID uuid) {
+        if (!isValid(uuid)) {
+            return NONE;
+        }
+
+        int id = ids.getInt(uuid);
+        if (id == NONE) {
+            id = uuids.size();
+            ids.put(uuid, id);
+            uuids.add(uuid);
+
+            if (id >= fathers.length) {
+                int size = Math.max(16, fathers.length * 2);
+                fathers = IntArrays.ensureCapacity(fathers, size);
+                mothers = IntArrays.ensureCapacity(mothers, size);
+                visited = IntArrays.ensureCapacity(visited, size);
+                int[][] grown = new int[size][];
+                System.arraycopy(children, 0, grown, 0, children.length);
+                children = grown;
+            }
+
+            fathers[id] = NONE;
+            mothers[id] = NONE;
+            children[id] = IntArrays.EMPTY_ARRAY;
+        }
+        return id;
+    }
+}
@@ -1,5 +1,6 @@
 package mca.entity.ai.relationship.family;
 
+import mca.MCA;
 import mca.entity.VillagerEntityMCA;
 import mca.entity.ai.relationship.Gender;
 import mca.util.NbtHelper;
@@ -13,55 +14,111 @@ import net.minecraft.world.PersistentState;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
-import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
+/**
+ * The genealogy of the world, split into {@link FamilyTreeShard shards} by the first byte of the UUID.
+ * <p>
+ * This state itself only holds the {@link FamilyGraph}, so relative queries never load shards, those are only loaded for the entries themselves.
+ * It is only saved when links between entries changed. Entries of the old single file format are moved into shards on load.
+ */
 public class FamilyTree extends PersistentState {
     private static final String DATA_ID = "MCA-FamilyTree";
+    private static final int VERSION = 2;
+    private static final int SHARDS = 256;
 
-    private final Map<UUID, FamilyTreeNode> entries;
+    private final ServerWorld world;
+
+    private final FamilyTreeShard[] shards = new FamilyTreeShard[SHARDS];
+
+    private final FamilyGraph graph = new FamilyGraph(this::markDirty);
 
     public static FamilyTree get(ServerWorld world) {
-        return WorldUtils.loadData(world.getServer().getOverworld(), FamilyTree::new, FamilyTree::new, DATA_ID);
+        ServerWorld overworld = world.getServer().getOverworld();
+        return WorldUtils.loadData(overworld, nbt -> new FamilyTree(overworld, nbt), FamilyTree::new, DATA_ID);
     }
 
     FamilyTree(ServerWorld world) {
-        entries = new HashMap<>();
+        this.world = world;
     }
 
-    FamilyTree(NbtCompound nbt) {
-        entries = NbtHelper.toMap(nbt, UUID::fromString, (id, element) -> new FamilyTreeNode(this, id, (NbtCompound)element));
+    FamilyTree(ServerWorld world, NbtCompound nbt) {
+        this.world = world;
+
+        if (nbt.getInt("version") < VERSION) {
+            //migrate the legacy format, a plain map of all entries
+            Map<UUID, FamilyTreeNode> legacy = NbtHelper.toMap(nbt, UUID::fromString, (id, element) -> new FamilyTreeNode(this, id, (NbtCompound)element));
+            legacy.forEach((id, node) -> {
+                FamilyTreeShard shard = getShard(id);
+                shard.entries.put(id, node);
+                shard.markDirty();
+            });
+            legacy.values().forEach(graph::update);
+            markDirty();
+
+            MCA.LOGGER.info("Migrated {} family tree entries to the sharded format", legacy.size());
+        } else {
+            graph.load(nbt.getCompound("graph"));
+        }
     }
 
     @Override
     public NbtCompound writeNbt(NbtCompound nbt) {
-        return NbtHelper.fromMap(nbt, entries, UUID::toString, FamilyTreeNode::save);
+        nbt.putInt("version", VERSION);
+        nbt.put("graph", graph.save());
+        return nbt;
+    }
+
+    FamilyGraph getGraph() {
+        return graph;
+    }
+
+    void markDirty(UUID id) {
+        getShard(id).markDirty();
+    }
+
+    private FamilyTreeShard getShard(UUID id) {
+        return getShard((int)(id.getMostSignificantBits() >>> 56));
+    }
+
+    private FamilyTreeShard getShard(int index) {
+        FamilyTreeShard shard = shards[index];
+        if (shard == null) {
+            shard = WorldUtils.loadData(world, nbt -> new FamilyTreeShard(this, nbt), w -> new FamilyTreeShard(), String.format("%s-%02x", DATA_ID, index));
+            shards[index] = shard;
+        }
+        return shard;
     }
 
     public Optional<FamilyTreeNode> getOrEmpty(@Nullable UUID id) {
-        return id == null ? Optional.empty() : Optional.ofNullable(entries.get(id));
+        return id == null ? Optional.empty() : Optional.ofNullable(getShard(id).entries.get(id));
     }
 
+    // loads every shard, avoid on hot paths
     public Stream<FamilyTreeNode> getAllWithName(String name) {
-        return entries.values().stream().filter(n -> n.getName().equals(name));
+        return IntStream.range(0, SHARDS)
+                .mapToObj(this::getShard)
+                .flatMap(shard -> shard.entries.values().stream())
+                .filter(n -> n.getName().equals(name));
     }
 
     @NotNull
     public FamilyTreeNode getOrCreate(Entity entity) {
-        return entries.computeIfAbsent(entity.getUuid(), uuid -> createEntry(entity, Util.NIL_UUID, Util.NIL_UUID));
+        return getShard(entity.getUuid()).entries.computeIfAbsent(entity.getUuid(), uuid -> createEntry(entity, Util.NIL_UUID, Util.NIL_UUID));
     }
 
     @NotNull
     public FamilyTreeNode getOrCreate(UUID id, String name, Gender gender) {
-        return entries.computeIfAbsent(id, uuid -> createEntry(uuid, name, gender));
+        return getShard(id).entries.computeIfAbsent(id, uuid -> createEntry(uuid, name, gender));
     }
 
     private FamilyTreeNode createEntry(UUID uuid, String name, Gender gender) {
-        markDirty();
-        return new FamilyTreeNode(this,
+        markDirty(uuid);
+        FamilyTreeNode node = new FamilyTreeNode(this,
                 uuid,
                 name,
                 false,
@@ -69,11 +126,13 @@ public class FamilyTree extends PersistentState {
                 Util.NIL_UUID,
                 Util.NIL_UUID
         );
+        graph.update(node);
+        return node;
     }
 
     private FamilyTreeNode createEntry(Entity entity, UUID father, UUID mother) {
-        markDirty();
-        return new FamilyTreeNode(this,
+        markDirty(entity.getUuid());
+        FamilyTreeNode node = new FamilyTreeNode(this,
                 entity.getUuid(),
                 entity.getName().getString(),
                 entity instanceof PlayerEntity,
@@ -81,5 +140,7 @@ public class FamilyTree extends PersistentState {
                 father,
                 mother
         );
+        graph.update(node);
+        return node;
     }
 }
@@ -19,7 +19,6 @@ import java.util.HashSet;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
-import java.util.function.Function;
 import java.util.stream.Stream;
 
 public final class FamilyTreeNode implements Serializable {
@@ -67,7 +66,18 @@ public final class FamilyTreeNode implements Serializable {
                 nbt.getUuid("father"),
                 nbt.getUuid("mother")
         );
-        children.addAll(NbtHelper.toList(nbt.getList("children", NbtElement.COMPOUND_TYPE), c -> ((NbtCompound)c).getUuid("uuid")));
+        if (nbt.contains("children", NbtElement.INT_ARRAY_TYPE)) {
+            int[] packed = nbt.getIntArray("children");
+            for (int i = 0; i + 3 < packed.length; i += 4) {
+                children.add(new UUID(
+                        (long)packed[i] << 32 | packed[i + 1] & 0xFFFFFFFFL,
+                        (long)packed[i + 2] << 32 | packed[i + 3] & 0xFFFFFFFFL
+                ));
+            }
+        } else {
+            //legacy format
+            children.addAll(NbtHelper.toList(nbt.getList("children", NbtElement.COMPOUND_TYPE), c -> ((NbtCompound)c).getUuid("uuid")));
+        }
         profession = nbt.getString("profession");
         deceased = nbt.getBoolean("isDeceased");
         if (nbt.containsUuid("spouse")) {
@@ -82,7 +92,13 @@ public final class FamilyTreeNode implements Serializable {
 
     private void markDirty() {
         if (rootNode != null) {
-            rootNode.markDirty();
+            rootNode.markDirty(id);
+        }
+    }
+
+    private void updateGraph(FamilyTreeNode node) {
+        if (rootNode != null) {
+            rootNode.getGraph().update(node);
         }
     }
 
@@ -193,11 +209,7 @@ public final class FamilyTreeNode implements Serializable {
      * All persons who share at least one common parent
      */
     public Set<UUID> siblings() {
-        Set<UUID> siblings = new HashSet<>();
-
-        streamParents().forEach(parent -> getRoot().getOrEmpty(parent).ifPresent(p -> gatherChildren(p, siblings, 1)));
-
-        return siblings;
+        return getRoot().getGraph().getSiblings(id);
     }
 
     public Stream<UUID> getChildren() {
@@ -207,40 +219,13 @@ public final class FamilyTreeNode implements Serializable {
     // returns indirect relatives like siblings and their respective family
     // potential slow for large families, getRelatives() is preferred if indirect family members are not relevant
     public Stream<UUID> getAllRelatives(int depth) {
-        Set<UUID> family = new HashSet<>();
-
-        //recursive family fetching
-        Set<UUID> todo = new HashSet<>();
-        todo.add(id);
-        for (int d = 0; d < depth; d++) {
-            Set<UUID> nextTodo = new HashSet<>();
-            for (UUID uuid : todo) {
-                if (!family.contains(uuid)) {
-                    rootNode.getOrEmpty(uuid).ifPresent(node -> {
-                        family.add(uuid);
-
-                        //add parents and children
-                        node.streamParents().forEach(nextTodo::add);
-                        node.streamChildren().forEach(nextTodo::add);
-                    });
-                }
-            }
-            todo = nextTodo;
-        }
-
-        //the caller is not meant
-        family.remove(id);
-
-        return family.stream();
+        return getRoot().getGraph().getRelatives(id, depth).stream();
     }
 
     // returns all direct relatives (parents, grandparents, children, grandchildren)
     public Stream<UUID> getRelatives(int parentDepth, int childrenDepth) {
-        Set<UUID> family = new HashSet<>();
-
-        //fetch parents and children
-        gatherParents(this, family, parentDepth);
-        gatherChildren(this, family, childrenDepth);
+        Set<UUID> family = getRoot().getGraph().getAncestors(id, parentDepth);
+        family.addAll(getRoot().getGraph().getDescendants(id, childrenDepth));
 
         //and the caller is not meant either
         family.remove(id);
@@ -249,7 +234,7 @@ public final class FamilyTreeNode implements Serializable {
     }
 
     public boolean isRelative(UUID with) {
-        return getAllRelatives(9).anyMatch(with::equals);
+        return getRoot().getGraph().isRelative(id, with, 9);
     }
 
     public Stream<FamilyTreeNode> getParents() {
@@ -276,11 +261,12 @@ public final class FamilyTreeNode implements Serializable {
     }
 
     public boolean isUncle(UUID id) {
-        return getParents().flatMap(parent -> parent.siblings().stream()).distinct().anyMatch(id::equals);
+        return getRoot().getGraph().isUncle(this.id, id);
     }
 
     public void addChild(UUID child) {
         children.add(child);
+        updateGraph(this);
     }
 
     public FamilyTree getRoot() {
@@ -311,6 +297,9 @@ public final class FamilyTreeNode implements Serializable {
     public boolean setFather(FamilyTreeNode parent) {
         father = parent.id();
         parent.children().add(id);
+        updateGraph(this);
+        updateGraph(parent);
+        parent.markDirty();
         markDirty();
         return true;
     }
@@ -318,14 +307,22 @@ public final class FamilyTreeNode implements Serializable {
     public boolean setMother(FamilyTreeNode parent) {
         mother = parent.id();
         parent.children().add(id);
+        updateGraph(this);
+        updateGraph(parent);
+        parent.markDirty();
         markDirty();
         return true;
     }
 
     public boolean removeFather() {
         if (isValid(father)) {
-            rootNode.getOrEmpty(father).ifPresent(e -> e.children.remove(this.id));
+            rootNode.getOrEmpty(father).ifPresent(e -> {
+                e.children.remove(this.id);
+                updateGraph(e);
+                e.markDirty();
+            });
             father = Util.NIL_UUID;
+            updateGraph(this);
             markDirty();
             return true;
         } else {
@@ -335,8 +332,13 @@ public final class FamilyTreeNode implements Serializable {
 
     public boolean removeMother() {
         if (isValid(mother)) {
-            rootNode.getOrEmpty(mother).ifPresent(e -> e.children.remove(this.id));
+            rootNode.getOrEmpty(mother).ifPresent(e -> {
+                e.children.remove(this.id);
+                updateGraph(e);
+                e.markDirty();
+            });
             mother = Util.NIL_UUID;
+            updateGraph(this);
             markDirty();
             return true;
         } else {
@@ -353,28 +355,6 @@ public final class FamilyTreeNode implements Serializable {
         return uuid != null && !Util.NIL_UUID.equals(uuid);
     }
 
-    private static void gatherParents(FamilyTreeNode current, Set<UUID> family, int depth) {
-        gather(current, family, depth, FamilyTreeNode::streamParents);
-    }
-
-    private static void gatherChildren(FamilyTreeNode current, Set<UUID> family, int depth) {
-        gather(current, family, depth, FamilyTreeNode::streamChildren);
-    }
-
-    private static void gather(@Nullable FamilyTreeNode entry, Set<UUID> output, int depth, Function<FamilyTreeNode, Stream<UUID>> walker) {
-        if (entry == null || depth <= 0) {
-            return;
-        }
-        walker.apply(entry).forEach(id -> {
-            if (!Util.NIL_UUID.equals(id)) {
-                output.add(id); //zero UUIDs are no real members
-            }
-            if (depth > 1) {
-                entry.getRoot().getOrEmpty(id).ifPresent(e -> gather(e, output, depth - 1, walker));
-            }
-        });
-    }
-
     public NbtCompound save() {
         NbtCompound nbt = new NbtCompound();
         nbt.putString("name", name);
@@ -385,11 +365,17 @@ public final class FamilyTreeNode implements Serializable {
         nbt.putUuid("mother", mother);
         nbt.putUuid("spouse", spouse);
         nbt.putInt("marriageState", marriageState.ordinal());
-        nbt.put("children", NbtHelper.fromList(children, child -> {
-            NbtCompound n = new NbtCompound();
-            n.putUuid("uuid", child);
-            return n;
-        }));
+
+        //children are stored as four ints per uuid
+        int[] packed = new int[children.size() * 4];
+        int i = 0;
+        for (UUID child : children) {
+            packed[i++] = (int)(child.getMostSignificantBits() >> 32);
+            packed[i++] = (int)child.getMostSignificantBits();
+            packed[i++] = (int)(child.getLeastSignificantBits() >> 32);
+            packed[i++] = (int)child.getLeastSignificantBits();
+        }
+        nbt.putIntArray("children", packed);
         return nbt;
     }
 }
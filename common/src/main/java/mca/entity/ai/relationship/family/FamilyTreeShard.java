@@ -0,0 +1,30 @@
+package mca.entity.ai.relationship.family;
+
+import mca.util.NbtHelper;
+import net.minecraft.nbt.NbtCompound;
+import net.minecraft.world.PersistentState;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * One bucket of the family tree, holding all entries whose UUID starts with the same byte.
+ * Shards are stored separately and loaded on first access, so only modified shards are written on save.
+ */
+class FamilyTreeShard extends PersistentState {
+    final Map<UUID, FamilyTreeNode> entries;
+
+    FamilyTreeShard() {
+        entries = new HashMap<>();
+    }
+
+    FamilyTreeShard(FamilyTree tree, NbtCompound nbt) {
+        entries = NbtHelper.toMap(nbt, UUID::fromString, (id, element) -> new FamilyTreeNode(tree, id, (NbtCompound)element));
+    }
+
+    @Override
+    public NbtCompound writeNbt(NbtCompound nbt) {
+        return NbtHelper.fromMap(nbt, entries, UUID::toString, FamilyTreeNode::save);
+    }
+}
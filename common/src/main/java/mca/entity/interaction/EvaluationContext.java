@@ -0,0 +1,96 @@
+package mca.entity.interaction;
+
+import mca.entity.VillagerEntityMCA;
+import mca.entity.ai.Memories;
+import mca.entity.ai.Mood;
+import mca.resources.Rank;
+import mca.resources.Tasks;
+import mca.server.world.data.Village;
+import net.minecraft.item.ItemStack;
+import net.minecraft.server.network.ServerPlayerEntity;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Optional;
+
+/**
+ * The subject of a single gift or dialogue evaluation, shared by all of its conditions.
+ * <p>
+ * Values several conditions derive from the villager are computed on first use and kept for the rest of the evaluation.
+ * A context must not outlive the evaluation it was created for.
+ */
+public final class EvaluationContext {
+    private final VillagerEntityMCA villager;
+    private final ItemStack stack;
+    @Nullable
+    private final ServerPlayerEntity player;
+
+    @Nullable
+    private Memories memories;
+    @Nullable
+    private Mood mood;
+
+    private boolean villageResolved;
+    @Nullable
+    private Village homeVillage;
+    @Nullable
+    private Rank rank;
+
+    public EvaluationContext(VillagerEntityMCA villager, ItemStack stack, @Nullable ServerPlayerEntity player) {
+        this.villager = villager;
+        this.stack = stack;
+        this.player = player;
+    }
+
+    public EvaluationContext(VillagerEntityMCA villager, @Nullable ServerPlayerEntity player) {
+        this(villager, ItemStack.EMPTY, player);
+    }
+
+    public VillagerEntityMCA getVillager() {
+        return villager;
+    }
+
+    public ItemStack getStack() {
+        return stack;
+    }
+
+    @Nullable
+    public ServerPlayerEntity getPlayer() {
+        return player;
+    }
+
+    /**
+     * The memories of the villager about the player, only available if there is a player.
+     */
+    public Memories getMemories() {
+        assert player != null;
+        if (memories == null) {
+            memories = villager.getVillagerBrain().getMemoriesForPlayer(player);
+        }
+        return memories;
+    }
+
+    public Mood getMood() {
+        if (mood == null) {
+            mood = villager.getVillagerBrain().getMood();
+        }
+        return mood;
+    }
+
+    public Optional<Village> getHomeVillage() {
+        if (!villageResolved) {
+            villageResolved = true;
+            homeVillage = villager.getResidency().getHomeVillage().orElse(null);
+        }
+        return Optional.ofNullable(homeVillage);
+    }
+
+    /**
+     * The rank of the player in the home village of the villager.
+     */
+    public Optional<Rank> getRank() {
+        if (rank == null && player != null) {
+            rank = getHomeVillage().map(v -> Tasks.getRank(v, player)).orElse(null);
+        }
+        return Optional.ofNullable(rank);
+    }
+}
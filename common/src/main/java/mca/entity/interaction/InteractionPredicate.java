@@ -3,10 +3,7 @@ package mca.entity.interaction;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 import mca.MCA;
-import mca.entity.VillagerEntityMCA;
 import mca.entity.interaction.gifts.GiftPredicate;
-import net.minecraft.item.ItemStack;
-import net.minecraft.server.network.ServerPlayerEntity;
 import net.minecraft.util.JsonHelper;
 import org.jetbrains.annotations.Nullable;
 
@@ -55,8 +52,8 @@ public class InteractionPredicate {
         this.conditionKeys = conditionKeys;
     }
 
-    public float test(VillagerEntityMCA villager, ServerPlayerEntity player) {
-        return condition != null ? condition.test(villager, ItemStack.EMPTY, player) : 0.0f;
+    public float test(EvaluationContext context) {
+        return condition != null ? condition.test(context) : 0.0f;
     }
 
     public int getChance() {
@@ -22,22 +22,21 @@ public class GiftLoader extends JsonDataLoader {
     @Override
     protected void apply(Map<Identifier, JsonElement> data, ResourceManager manager, Profiler profiler) {
         GiftType.REGISTRY.clear();
+        GiftType.invalidateIndex();
         data.forEach((id, json) -> {
             try {
-                GiftType.REGISTRY.add(GiftType.fromJson(id, JsonHelper.asObject(json, "root")));
+                GiftType.REGISTRY.put(id, GiftType.fromJson(id, JsonHelper.asObject(json, "root")));
             } catch (JsonParseException e) {
                 MCA.LOGGER.error("Could not load gift type for id {}", id, e);
             }
         });
 
         //extend from mca entries to avoid copy pasta commonly used stuff
-        for (GiftType type : GiftType.REGISTRY) {
+        for (GiftType type : GiftType.REGISTRY.values()) {
             if (!type.getId().getNamespace().equals("mca") && type.getConditions().isEmpty()) {
-                for (GiftType extendingType : GiftType.REGISTRY) {
-                    if (extendingType.getId().getNamespace().equals("mca") && extendingType.getId().getPath().equals(type.getId().getPath())) {
-                        type.extendFrom(extendingType);
-                        break;
-                    }
+                GiftType extendingType = GiftType.REGISTRY.get(new Identifier("mca", type.getId().getPath()));
+                if (extendingType != null) {
+                    type.extendFrom(extendingType);
                 }
             }
         }
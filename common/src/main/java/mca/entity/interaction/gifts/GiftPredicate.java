@@ -3,7 +3,6 @@ package mca.entity.interaction.gifts;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonSyntaxException;
-import mca.entity.VillagerEntityMCA;
 import mca.entity.ai.Chore;
 import mca.entity.ai.LongTermMemory;
 import mca.entity.ai.MoodGroup;
@@ -11,8 +10,8 @@ import mca.entity.ai.Traits;
 import mca.entity.ai.relationship.AgeState;
 import mca.entity.ai.relationship.Gender;
 import mca.entity.ai.relationship.Personality;
+import mca.entity.interaction.EvaluationContext;
 import mca.resources.Rank;
-import mca.resources.Tasks;
 import net.minecraft.advancement.Advancement;
 import net.minecraft.item.Item;
 import net.minecraft.item.ItemStack;
@@ -43,16 +42,16 @@ public class GiftPredicate {
 
     static {
         register("profession", (json, name) ->
-                new Identifier(JsonHelper.asString(json, name)), profession -> (villager, stack, player) -> Registry.VILLAGER_PROFESSION.getId(villager.getProfession()).equals(profession) ? 1.0f : 0.0f);
+                new Identifier(JsonHelper.asString(json, name)), profession -> context -> Registry.VILLAGER_PROFESSION.getId(context.getVillager().getProfession()).equals(profession) ? 1.0f : 0.0f);
         register("age_group", (json, name) ->
-                AgeState.valueOf(JsonHelper.asString(json, name).toUpperCase(Locale.ENGLISH)), group -> (villager, stack, player) -> villager.getAgeState() == group ? 1.0f : 0.0f);
+                AgeState.valueOf(JsonHelper.asString(json, name).toUpperCase(Locale.ENGLISH)), group -> context -> context.getVillager().getAgeState() == group ? 1.0f : 0.0f);
         register("gender", (json, name) ->
-                Gender.valueOf(JsonHelper.asString(json, name).toUpperCase(Locale.ENGLISH)), gender -> (villager, stack, player) -> villager.getGenetics().getGender() == gender ? 1.0f : 0.0f);
+                Gender.valueOf(JsonHelper.asString(json, name).toUpperCase(Locale.ENGLISH)), gender -> context -> context.getVillager().getGenetics().getGender() == gender ? 1.0f : 0.0f);
         register("has_item", (json, name) ->
                 Ingredient.fromJson(json), item ->
-                (villager, stack, player) -> {
-                    for (int i = 0; i < villager.getInventory().size(); i++) {
-                        if (item.test(villager.getInventory().getStack(i))) {
+                context -> {
+                    for (int i = 0; i < context.getVillager().getInventory().size(); i++) {
+                        if (item.test(context.getVillager().getInventory().getStack(i))) {
                             return 1.0f;
                         }
                     }
@@ -60,63 +59,63 @@ public class GiftPredicate {
                 }
         );
         register("min_health", JsonHelper::asFloat, health ->
-                (villager, stack, player) ->
-                        villager.getHealth() > health ? 1.0f : 0.0f
+                context ->
+                        context.getVillager().getHealth() > health ? 1.0f : 0.0f
         );
         register("is_married", JsonHelper::asBoolean, married ->
-                (villager, stack, player) ->
-                        villager.getRelationships().isMarried() == married ? 1.0f : 0.0f
+                context ->
+                        context.getVillager().getRelationships().isMarried() == married ? 1.0f : 0.0f
         );
         register("has_home", JsonHelper::asBoolean, hasHome ->
-                (villager, stack, player) ->
-                        villager.getResidency().getHome().isPresent() == hasHome ? 1.0f : 0.0f
+                context ->
+                        context.getVillager().getResidency().getHome().isPresent() == hasHome ? 1.0f : 0.0f
         );
         register("has_village", JsonHelper::asBoolean, hasVillage ->
-                (villager, stack, player) ->
-                        villager.getResidency().getHomeVillage().isPresent() == hasVillage ? 1.0f : 0.0f
+                context ->
+                        context.getHomeVillage().isPresent() == hasVillage ? 1.0f : 0.0f
         );
         register("min_infection_progress", JsonHelper::asFloat, progress ->
-                (villager, stack, player) ->
-                        villager.getInfectionProgress() > progress ? 1.0f : 0.0f
+                context ->
+                        context.getVillager().getInfectionProgress() > progress ? 1.0f : 0.0f
         );
         register("mood", (json, name) ->
                 JsonHelper.asString(json, name).toLowerCase(Locale.ENGLISH), mood ->
-                (villager, stack, player) ->
-                        villager.getVillagerBrain().getMood().getName().equals(mood) ? 1.0f : 0.0f
+                context ->
+                        context.getMood().getName().equals(mood) ? 1.0f : 0.0f
         );
         register("mood_group", (json, name) ->
                 MoodGroup.valueOf(JsonHelper.asString(json, name).toUpperCase(Locale.ENGLISH)), moodGroup ->
-                (villager, stack, player) ->
-                        villager.getVillagerBrain().getPersonality().getMoodGroup() == moodGroup ? 1.0f : 0.0f
+                context ->
+                        context.getVillager().getVillagerBrain().getPersonality().getMoodGroup() == moodGroup ? 1.0f : 0.0f
         );
         register("personality", (json, name) ->
                 Personality.valueOf(JsonHelper.asString(json, name).toUpperCase(Locale.ENGLISH)), personality ->
-                (villager, stack, player) ->
-                        villager.getVillagerBrain().getPersonality() == personality ? 1.0f : 0.0f
+                context ->
+                        context.getVillager().getVillagerBrain().getPersonality() == personality ? 1.0f : 0.0f
         );
         register("is_pregnant", JsonHelper::asBoolean, pregnant ->
-                (villager, stack, player) ->
-                        villager.getRelationships().getPregnancy().isPregnant() == pregnant ? 1.0f : 0.0f
+                context ->
+                        context.getVillager().getRelationships().getPregnancy().isPregnant() == pregnant ? 1.0f : 0.0f
         );
         register("min_pregnancy_progress", JsonHelper::asInt, progress ->
-                (villager, stack, player) ->
-                        villager.getRelationships().getPregnancy().getBabyAge() > progress ? 1.0f : 0.0f
+                context ->
+                        context.getVillager().getRelationships().getPregnancy().getBabyAge() > progress ? 1.0f : 0.0f
         );
         register("pregnancy_child_gender", (json, name) ->
                 Gender.valueOf(JsonHelper.asString(json, name).toUpperCase(Locale.ENGLISH)), gender ->
-                (villager, stack, player) ->
-                        villager.getRelationships().getPregnancy().getGender() == gender ? 1.0f : 0.0f
+                context ->
+                        context.getVillager().getRelationships().getPregnancy().getGender() == gender ? 1.0f : 0.0f
         );
         register("current_chore", (json, name) ->
                 Chore.valueOf(JsonHelper.asString(json, name).toUpperCase(Locale.ENGLISH)), chore ->
-                (villager, stack, player) ->
-                        villager.getVillagerBrain().getCurrentJob() == chore ? 1.0f : 0.0f
+                context ->
+                        context.getVillager().getVillagerBrain().getCurrentJob() == chore ? 1.0f : 0.0f
         );
         register("item", (json, name) -> {
             Identifier id = new Identifier(JsonHelper.asString(json, name));
             Item item = Registry.ITEM.getOrEmpty(id).orElseThrow(() -> new JsonSyntaxException("Unknown item '" + id + "'"));
             return Ingredient.ofStacks(new ItemStack(item));
-        }, (Ingredient ingredient) -> (villager, stack, player) -> ingredient.test(stack) ? 1.0f : 0.0f);
+        }, (Ingredient ingredient) -> context -> ingredient.test(context.getStack()) ? 1.0f : 0.0f);
         register("tag", (json, name) -> {
             Identifier id = new Identifier(JsonHelper.asString(json, name));
             TagKey<Item> tag = TagKey.of(Registry.ITEM_KEY, id);
@@ -125,51 +124,49 @@ public class GiftPredicate {
             }
 
             return Ingredient.fromTag(tag);
-        }, (Ingredient ingredient) -> (villager, stack, player) -> ingredient.test(stack) ? 1.0f : 0.0f);
+        }, (Ingredient ingredient) -> context -> ingredient.test(context.getStack()) ? 1.0f : 0.0f);
         register("trait", (json, name) ->
                 Traits.Trait.valueOf(JsonHelper.asString(json, name).toUpperCase(Locale.ENGLISH)), trait ->
-                (villager, stack, player) ->
-                        villager.getTraits().hasTrait(trait) ? 1.0f : 0.0f
+                context ->
+                        context.getVillager().getTraits().hasTrait(trait) ? 1.0f : 0.0f
         );
-        register("hearts_min", JsonHelper::asInt, hearts -> (villager, stack, player) -> {
-            assert player != null;
-            int h = villager.getVillagerBrain().getMemoriesForPlayer(player).getHearts();
+        register("hearts_min", JsonHelper::asInt, hearts -> context -> {
+            int h = context.getMemories().getHearts();
             return h >= hearts ? 1.0f : 0.0f;
         });
-        register("hearts_max", JsonHelper::asInt, hearts -> (villager, stack, player) -> {
-            assert player != null;
-            int h = villager.getVillagerBrain().getMemoriesForPlayer(player).getHearts();
+        register("hearts_max", JsonHelper::asInt, hearts -> context -> {
+            int h = context.getMemories().getHearts();
             return h <= hearts ? 1.0f : 0.0f;
         });
-        register("hearts", JsonHelper::asObject, json -> (villager, stack, player) -> {
-            assert player != null;
-            int h = villager.getVillagerBrain().getMemoriesForPlayer(player).getHearts();
+        register("hearts", JsonHelper::asObject, json -> context -> {
+            int h = context.getMemories().getHearts();
             return divideAndAdd(json, h);
         });
-        register("memory", JsonHelper::asObject, json -> (villager, stack, player) -> {
-            String id = LongTermMemory.parseId(json, player);
-            long ticks = villager.getLongTermMemory().getMemory(id);
+        register("memory", JsonHelper::asObject, json -> context -> {
+            String id = LongTermMemory.parseId(json, context.getPlayer());
+            long ticks = context.getVillager().getLongTermMemory().getMemory(id);
             return divideAndAdd(json, ticks);
         });
         register("village_has_building", JsonHelper::asString, name ->
-                (villager, stack, player) ->
-                        villager.getResidency().getHomeVillage().filter(v -> v.hasBuilding(name)).isPresent() ? 1.0f : 0.0f
+                context ->
+                        context.getHomeVillage().filter(v -> v.hasBuilding(name)).isPresent() ? 1.0f : 0.0f
         );
         register("rank", JsonHelper::asString, name ->
-                (villager, stack, player) ->
-                        villager.getResidency().getHomeVillage().filter(v -> Tasks.getRank(v, player) == Rank.fromName(name)).isPresent() ? 1.0f : 0.0f
+                context ->
+                        context.getRank().filter(r -> r == Rank.fromName(name)).isPresent() ? 1.0f : 0.0f
         );
         register("time_min", JsonHelper::asLong, time ->
-                (villager, stack, player) -> villager.getWorld().getTimeOfDay() % 24000L >= time ? 1.0f : 0.0f);
+                context -> context.getVillager().getWorld().getTimeOfDay() % 24000L >= time ? 1.0f : 0.0f);
         register("time_max", JsonHelper::asLong, time ->
-                (villager, stack, player) -> villager.getWorld().getTimeOfDay() % 24000L <= time ? 1.0f : 0.0f);
+                context -> context.getVillager().getWorld().getTimeOfDay() % 24000L <= time ? 1.0f : 0.0f);
         register("biome", (json, name) ->
                 new Identifier(JsonHelper.asString(json, name)), biome ->
-                (villager, stack, player) ->
-                        villager.getWorld().getBiome(villager.getBlockPos())
+                context ->
+                        context.getVillager().getWorld().getBiome(context.getVillager().getBlockPos())
                                 .getKeyOrValue().left().filter(b -> b.getValue().equals(biome)).isPresent() ? 1.0f : 0.0f
         );
-        register("advancement", (json, name) -> new Identifier(JsonHelper.asString(json, name)), id -> (villager, stack, player) -> {
+        register("advancement", (json, name) -> new Identifier(JsonHelper.asString(json, name)), id -> context -> {
+            ServerPlayerEntity player = context.getPlayer();
             assert player != null;
             Advancement advancement = Objects.requireNonNull(player.getServer()).getAdvancementLoader().get(id);
             return player.getAdvancementTracker().getProgress(advancement).isDone() ? 1.0f : 0.0f;
@@ -215,12 +212,12 @@ public class GiftPredicate {
         this.conditionKeys = conditionKeys;
     }
 
-    public float test(VillagerEntityMCA recipient, ItemStack stack, @Nullable ServerPlayerEntity player) {
-        return condition != null ? condition.test(recipient, stack, player) : 0.0f;
+    public float test(EvaluationContext context) {
+        return condition != null ? condition.test(context) : 0.0f;
     }
 
-    public int getSatisfactionFor(VillagerEntityMCA recipient, ItemStack stack, @Nullable ServerPlayerEntity player) {
-        return (int)(test(recipient, stack, player) * satisfactionBoost);
+    public int getSatisfactionBoost() {
+        return satisfactionBoost;
     }
 
     public interface Factory<T> {
@@ -228,11 +225,11 @@ public class GiftPredicate {
     }
 
     public interface Condition {
-        float test(VillagerEntityMCA villager, ItemStack stack, @Nullable ServerPlayerEntity player);
+        float test(EvaluationContext context);
 
         default Condition and(Condition b) {
             final Condition a = this;
-            return (villager, stack, player) -> a.test(villager, stack, player) * b.test(villager, stack, player);
+            return context -> a.test(context) * b.test(context);
         }
     }
 
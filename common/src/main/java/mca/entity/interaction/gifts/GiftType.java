@@ -3,15 +3,18 @@ package mca.entity.interaction.gifts;
 import com.google.gson.JsonArray;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonSyntaxException;
-import mca.entity.VillagerEntityMCA;
+import it.unimi.dsi.fastutil.objects.Object2IntMap;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+import mca.entity.interaction.EvaluationContext;
 import mca.resources.data.analysis.IntAnalysis;
 import net.minecraft.item.Item;
 import net.minecraft.item.ItemStack;
-import net.minecraft.server.network.ServerPlayerEntity;
 import net.minecraft.tag.TagKey;
 import net.minecraft.util.Identifier;
 import net.minecraft.util.JsonHelper;
 import net.minecraft.util.registry.Registry;
+import net.minecraft.util.registry.RegistryEntry;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.*;
 import java.util.function.Function;
@@ -19,7 +22,27 @@ import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 public class GiftType {
-    static final List<GiftType> REGISTRY = new ArrayList<>();
+    static final Map<Identifier, GiftType> REGISTRY = new LinkedHashMap<>();
+
+    //gift types by the items they accept, built on first use since tags are bound only once the reload completed
+    @Nullable
+    private static Map<Item, List<GiftType>> index;
+
+    static void invalidateIndex() {
+        index = null;
+    }
+
+    private static Map<Item, List<GiftType>> getIndex() {
+        if (index == null) {
+            index = new HashMap<>();
+            for (GiftType type : REGISTRY.values()) {
+                for (Item item : type.getResolvedItems().keySet()) {
+                    index.computeIfAbsent(item, i -> new ArrayList<>()).add(type);
+                }
+            }
+        }
+        return index;
+    }
 
     public static GiftType fromJson(Identifier id, JsonObject json) {
         List<GiftPredicate> conditions = new ArrayList<>();
@@ -70,31 +93,43 @@ public class GiftType {
     }
 
     public static Stream<GiftType> allMatching(ItemStack stack) {
-        return REGISTRY.stream().filter(type -> type.matches(stack));
+        return getIndex().getOrDefault(stack.getItem(), Collections.emptyList()).stream();
     }
 
     /**
      * returns the giftType with the highest priority
      * if at least one gift fails, it chooses only from the failed gifts
      */
-    public static Optional<GiftType> bestMatching(VillagerEntityMCA recipient, ItemStack stack, ServerPlayerEntity player) {
-        int max = GiftType.allMatching(stack).mapToInt(a -> a.priority).max().orElse(0);
-        Optional<GiftType> worst = GiftType.allMatching(stack)
-                .filter(a -> a.priority == max)
-                .filter(a -> a.getResponse(a.getSatisfactionFor(recipient, stack, player).getTotal()) == Response.FAIL)
-                .max(Comparator.comparingDouble(a -> a.getSatisfactionFor(recipient, stack, player).getTotal()));
-
-        if (worst.isPresent()) {
-            return worst;
-        } else {
-            return GiftType.allMatching(stack)
-                    .filter(a -> a.priority == max)
-                    .max(Comparator.comparingDouble(a -> a.getSatisfactionFor(recipient, stack, player).getTotal()));
+    public static Optional<GiftType> bestMatching(EvaluationContext context) {
+        List<GiftType> matching = getIndex().getOrDefault(context.getStack().getItem(), Collections.emptyList());
+        int max = matching.stream().mapToInt(a -> a.priority).max().orElse(0);
+
+        //evaluate each candidate only once, sharing the context between them
+        GiftType best = null;
+        GiftType worst = null;
+        int bestSatisfaction = 0;
+        int worstSatisfaction = 0;
+        for (GiftType type : matching) {
+            if (type.priority != max) {
+                continue;
+            }
+
+            int satisfaction = type.getSatisfactionFor(context).getTotal();
+            if (best == null || satisfaction > bestSatisfaction) {
+                best = type;
+                bestSatisfaction = satisfaction;
+            }
+            if (type.getResponse(satisfaction) == Response.FAIL && (worst == null || satisfaction > worstSatisfaction)) {
+                worst = type;
+                worstSatisfaction = satisfaction;
+            }
         }
+
+        return Optional.ofNullable(worst != null ? worst : best);
     }
 
     public static Optional<GiftType> getGiftType(Identifier id) {
-        return REGISTRY.stream().filter(p -> p.id.equals(id)).findFirst();
+        return Optional.ofNullable(REGISTRY.get(id));
     }
 
     private final Identifier id;
@@ -105,6 +140,9 @@ public class GiftType {
     private final Map<Item, Integer> items;
     private final Map<TagKey<Item>, Integer> tags;
 
+    @Nullable
+    private Object2IntMap<Item> resolvedItems;
+
     private int fail;
     private int good;
     private int better;
@@ -161,7 +199,24 @@ public class GiftType {
      * Checks whether the given item counts for this type of gift.
      */
     public boolean matches(ItemStack stack) {
-        return items.keySet().stream().anyMatch(i -> i == stack.getItem()) || tags.keySet().stream().anyMatch(stack::isIn);
+        return getResolvedItems().containsKey(stack.getItem());
+    }
+
+    /**
+     * The base satisfaction of every accepted item, with the tags resolved to their items.
+     * Explicitly listed items take precedence over tags.
+     */
+    private Object2IntMap<Item> getResolvedItems() {
+        if (resolvedItems == null) {
+            resolvedItems = new Object2IntOpenHashMap<>();
+            tags.forEach((tag, satisfaction) -> {
+                for (RegistryEntry<Item> entry : Registry.ITEM.iterateEntries(tag)) {
+                    resolvedItems.putIfAbsent(entry.value(), (int)satisfaction);
+                }
+            });
+            items.forEach((item, satisfaction) -> resolvedItems.put(item, (int)satisfaction));
+        }
+        return resolvedItems;
     }
 
     /**
@@ -169,19 +224,16 @@ public class GiftType {
      *
      * @return An analysis object of all summands
      */
-    public IntAnalysis getSatisfactionFor(VillagerEntityMCA recipient, ItemStack stack, ServerPlayerEntity player) {
+    public IntAnalysis getSatisfactionFor(EvaluationContext context) {
         IntAnalysis analysis = new IntAnalysis();
 
-        Optional<Integer> value = items.entrySet().stream().filter(i -> i.getKey() == stack.getItem()).findFirst().map(Map.Entry::getValue);
-        int base = value.orElseGet(() -> tags.entrySet().stream().filter(i -> stack.isIn(i.getKey())).findFirst().map(Map.Entry::getValue).orElse(0));
-
-        analysis.add("base", base);
+        analysis.add("base", getResolvedItems().getInt(context.getStack().getItem()));
 
         // condition chance
         for (GiftPredicate c : conditions) {
-            int val = c.getSatisfactionFor(recipient, stack, player);
-            if (c.test(recipient, stack, player) > 0.0f) {
-                analysis.add(c.getConditionKeys().get(0), val);
+            float test = c.test(context);
+            if (test > 0.0f) {
+                analysis.add(c.getConditionKeys().get(0), (int)(test * c.getSatisfactionBoost()));
             }
         }
 
@@ -0,0 +1,31 @@
+package mca.mixin;
+
+import mca.server.world.data.VillageRanks;
+import net.minecraft.advancement.Advancement;
+import net.minecraft.advancement.PlayerAdvancementTracker;
+import net.minecraft.server.network.ServerPlayerEntity;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Shadow;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
+
+@Mixin(PlayerAdvancementTracker.class)
+abstract class MixinPlayerAdvancementTracker {
+    @Shadow
+    private ServerPlayerEntity owner;
+
+    @Inject(method = "grantCriterion(Lnet/minecraft/advancement/Advancement;Ljava/lang/String;)Z", at = @At("RETURN"))
+    private void onGrantCriterion(Advancement advancement, String criterionName, CallbackInfoReturnable<Boolean> info) {
+        if (info.getReturnValueZ()) {
+            VillageRanks.onAdvancementsChanged(owner.getUuid());
+        }
+    }
+
+    @Inject(method = "revokeCriterion(Lnet/minecraft/advancement/Advancement;Ljava/lang/String;)Z", at = @At("RETURN"))
+    private void onRevokeCriterion(Advancement advancement, String criterionName, CallbackInfoReturnable<Boolean> info) {
+        if (info.getReturnValueZ()) {
+            VillageRanks.onAdvancementsChanged(owner.getUuid());
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package mca.mixin;
 
 import mca.server.SpawnQueue;
+import mca.server.world.data.FarmIndex;
 import mca.server.world.data.VillageManager;
 import net.minecraft.block.BlockState;
 import net.minecraft.entity.Entity;
@@ -10,6 +11,7 @@ import net.minecraft.world.StructureWorldAccess;
 import net.minecraft.world.World;
 import net.minecraft.world.chunk.Chunk;
 import net.minecraft.world.chunk.ProtoChunk;
+import net.minecraft.world.chunk.WorldChunk;
 import org.spongepowered.asm.mixin.Mixin;
 import org.spongepowered.asm.mixin.injection.At;
 import org.spongepowered.asm.mixin.injection.Inject;
@@ -33,13 +35,18 @@ abstract class MixinServerWorld extends World implements StructureWorldAccess {
             at = @At("HEAD")
     )
     public void onOnBlockChanged(BlockPos pos, BlockState oldBlock, BlockState newBlock, CallbackInfo info) {
-        if (oldBlock.getBlock() != newBlock.getBlock()) {
-            final ServerWorld self = (ServerWorld)(Object)this;
-            self.getServer().execute(() ->
-                    VillageManager.get(self).getReaperSpawner().trySpawnReaper(self, newBlock, pos)
-            );
+        //crops growing only change their state
+        if (oldBlock.getBlock() != newBlock.getBlock() || FarmIndex.isCrop(newBlock)) {
+            VillageManager.get((ServerWorld)(Object)this).getBlockChanges().onBlockChanged(pos, oldBlock, newBlock);
         }
     }
+
+    @Inject(method = "unloadEntities(Lnet/minecraft/world/chunk/WorldChunk;)V",
+            at = @At("HEAD")
+    )
+    private void onUnloadEntities(WorldChunk chunk, CallbackInfo info) {
+        VillageManager.get((ServerWorld)(Object)this).getFarmIndex().onChunkUnloaded(chunk.getPos());
+    }
 }
 
 @Mixin(ProtoChunk.class)
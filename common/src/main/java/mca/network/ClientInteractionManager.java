@@ -34,4 +34,12 @@ public interface ClientInteractionManager {
     void handlePlayerDataMessage(PlayerDataMessage response);
 
     void handleAnalysisResults(SkinListResponse response);
+
+    void handleVillagerMemoriesMessage(VillagerMemoriesMessage message);
+
+    void handleStaticDataVersions(StaticDataVersionsMessage message);
+
+    void handleVillageDelta(VillageDeltaMessage message);
+
+    void handleBuildingDetail(BuildingDetailResponse message);
 }
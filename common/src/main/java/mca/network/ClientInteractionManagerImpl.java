@@ -3,6 +3,7 @@ package mca.network;
 import mca.client.book.Book;
 import mca.client.gui.*;
 import mca.client.render.PlayerEntityMCARenderer;
+import mca.client.resources.StaticDataCache;
 import mca.entity.EntitiesMCA;
 import mca.entity.VillagerEntityMCA;
 import mca.entity.VillagerLike;
@@ -10,6 +11,7 @@ import mca.item.BabyItem;
 import mca.item.ExtendedWrittenBookItem;
 import mca.network.s2c.*;
 import mca.server.world.data.BabyTracker;
+import mca.server.world.data.Building;
 import mca.server.world.data.Village;
 import net.minecraft.client.MinecraftClient;
 import net.minecraft.client.gui.screen.Screen;
@@ -99,8 +101,12 @@ public class ClientInteractionManagerImpl implements ClientInteractionManager {
             Village village = new Village();
             village.load(message.getData());
 
+            if (message.tasks != null && message.buildingTypes != null) {
+                StaticDataCache.setVillageTables(message.tablesVersion, message.tasks, message.buildingTypes);
+            }
+
             gui.setVillage(village);
-            gui.setRank(message.rank, message.reputation, message.ids, message.tasks, message.buildingTypes);
+            gui.setRank(message.rank, message.reputation, message.ids, StaticDataCache.getTasks(), StaticDataCache.getBuildingTypes());
         }
     }
 
@@ -189,9 +195,49 @@ public class ClientInteractionManagerImpl implements ClientInteractionManager {
 
     @Override
     public void handleAnalysisResults(SkinListResponse message) {
+        if (message.getClothing() != null && message.getHair() != null) {
+            StaticDataCache.setSkins(message.getVersion(), message.getClothing(), message.getHair());
+        }
+
         Screen screen = client.currentScreen;
         if (screen instanceof VillagerEditorScreen gui) {
-            gui.setSkinList(message.getClothing(), message.getHair());
+            gui.onSkinListChanged();
+        }
+    }
+
+    @Override
+    public void handleVillagerMemoriesMessage(VillagerMemoriesMessage message) {
+        if (client.world != null && client.world.getEntityById(message.entityId) instanceof VillagerLike<?> villager) {
+            villager.getVillagerBrain().readMemories(message.getData());
+        }
+    }
+
+    @Override
+    public void handleStaticDataVersions(StaticDataVersionsMessage message) {
+        if (StaticDataCache.retain(message.versions)) {
+            //refresh open screens, the outdated data is fetched along with it
+            Screen screen = client.currentScreen;
+            if (screen instanceof BlueprintScreen gui) {
+                gui.requestVillageData();
+            } else if (screen instanceof VillagerEditorScreen gui) {
+                gui.requestSkinList();
+            }
+        }
+    }
+
+    @Override
+    public void handleVillageDelta(VillageDeltaMessage message) {
+        Screen screen = client.currentScreen;
+        if (screen instanceof BlueprintScreen gui) {
+            gui.updateVillage(message.village, message.getData());
+        }
+    }
+
+    @Override
+    public void handleBuildingDetail(BuildingDetailResponse message) {
+        Screen screen = client.currentScreen;
+        if (screen instanceof BlueprintScreen gui) {
+            gui.setBuildingDetail(message.village, new Building(message.getData()));
         }
     }
 }
@@ -0,0 +1,148 @@
+package mca.network;
+
+import io.netty.buffer.Unpooled;
+import mca.cobalt.network.Message;
+import mca.cobalt.network.NetworkHandler;
+import mca.entity.ai.relationship.Gender;
+import mca.network.c2s.*;
+import mca.network.s2c.*;
+import mca.resources.Rank;
+import mca.server.world.data.BabyTracker;
+import mca.server.world.data.Village;
+import net.minecraft.nbt.NbtCompound;
+import net.minecraft.nbt.NbtList;
+import net.minecraft.nbt.NbtString;
+import net.minecraft.network.PacketByteBuf;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Sends a sample of every message with an explicit codec through its encoder and decoder, to catch codecs which do not read what they wrote.
+ * <p>
+ * Decoded copies are encoded again and compared byte by byte, except for responses carrying a cached payload, which only the server can encode.
+ */
+public final class MessageCodecCheck {
+    private final List<String> failures = new ArrayList<>();
+    private final Set<Class<? extends Message>> unchecked = new LinkedHashSet<>(NetworkHandler.getCodecMessages());
+
+    private MessageCodecCheck() {
+    }
+
+    public static MessageCodecCheck run() {
+        MessageCodecCheck check = new MessageCodecCheck();
+        check.samples();
+        return check;
+    }
+
+    /**
+     * Describes every message whose codec failed.
+     */
+    public List<String> getFailures() {
+        return failures;
+    }
+
+    /**
+     * The message types there is no sample for.
+     */
+    public Set<Class<? extends Message>> getUnchecked() {
+        return unchecked;
+    }
+
+    private void samples() {
+        UUID uuid = UUID.randomUUID();
+        NbtCompound nbt = new NbtCompound();
+        nbt.putString("name", "sample");
+        nbt.putInt("value", 42);
+        nbt.putUuid("uuid", uuid);
+
+        symmetric(new InteractionVillagerMessage("command", uuid));
+        symmetric(new BabyNamingVillagerMessage(3, "name"));
+        symmetric(new GetFamilyRequest());
+        symmetric(new GetFamilyResponse(nbt));
+        symmetric(new GetVillagerResponse(nbt));
+        symmetric(new CallToPlayerMessage(uuid));
+        symmetric(new GetVillageRequest(42L));
+        decodable(new GetVillageResponse(nbt, Rank.MERCHANT, 7, Set.of("a", "b"), 0L));
+        symmetric(new GetVillageFailedResponse());
+        symmetric(new OpenGuiRequest(OpenGuiRequest.Type.BLUEPRINT, 5));
+        symmetric(new ReportBuildingMessage(ReportBuildingMessage.Action.ADD, "data"));
+        symmetric(new ReportBuildingMessage(ReportBuildingMessage.Action.AUTO_SCAN));
+        symmetric(new SaveVillageMessage(new Village(3)));
+        symmetric(new GetFamilyTreeRequest(uuid));
+        symmetric(new GetInteractDataRequest(uuid));
+        symmetric(new InteractionDialogueMessage(uuid, "question", "answer"));
+        symmetric(new InteractionDialogueInitMessage(uuid));
+        symmetric(new GetChildDataRequest(uuid));
+        symmetric(new GetChildDataResponse(childSample()));
+        symmetric(new GetVillagerRequest(uuid));
+        symmetric(new VillagerEditorSyncRequest("command", uuid, nbt));
+        symmetric(new InteractionCloseRequest(uuid));
+        symmetric(new ShowToastRequest("title", "message"));
+        symmetric(new BabyNameRequest(Gender.FEMALE));
+        symmetric(new BabyNameResponse("name"));
+        symmetric(new VillagerNameRequest(Gender.MALE));
+        symmetric(new VillagerNameResponse("name"));
+        symmetric(new RenameVillageMessage(3, "name"));
+        symmetric(new FamilyTreeUUIDLookup("search"));
+        symmetric(new DestinyMessage("location"));
+        symmetric(new PlayerDataMessage(uuid, nbt));
+        symmetric(new PlayerDataRequest(uuid));
+        symmetric(new SkinListRequest(42L));
+        decodable(new SkinListResponse(StaticPayloads.get(StaticPayloads.Type.SKINS), 0L));
+        symmetric(new VillagerMemoriesMessage(5, nbt));
+        symmetric(new StaticDataVersionsMessage(StaticPayloads.getVersions()));
+        NbtList buildings = new NbtList();
+        buildings.add(nbt);
+        symmetric(new VillageDeltaMessage(3, nbt, buildings, new int[] {1, 2}));
+        symmetric(new VillageDeltaMessage(3, null, new NbtList(), new int[0]));
+        symmetric(new GetBuildingDetailRequest(3, 4));
+        symmetric(new BuildingDetailResponse(3, nbt));
+        symmetric(new CloseVillageViewMessage());
+    }
+
+    private static BabyTracker.ChildSaveState childSample() {
+        NbtList key = new NbtList();
+        key.add(NbtString.of(UUID.randomUUID().toString()));
+        key.add(NbtString.of(UUID.randomUUID().toString()));
+
+        NbtCompound nbt = new NbtCompound();
+        nbt.putUuid("id", UUID.randomUUID());
+        nbt.putString("gender", Gender.FEMALE.name());
+        nbt.putString("name", "name");
+        nbt.putLong("seed", 42L);
+        nbt.put("key", key);
+        return new BabyTracker.ChildSaveState(nbt);
+    }
+
+    private void symmetric(Message sample) {
+        Message copy = decodable(sample);
+        if (copy != null && !Arrays.equals(encode(sample), encode(copy))) {
+            failures.add(sample.getClass().getSimpleName() + ": the decoded copy encodes differently");
+        }
+    }
+
+    @Nullable
+    private Message decodable(Message sample) {
+        unchecked.remove(sample.getClass());
+        try {
+            return NetworkHandler.roundTrip(sample);
+        } catch (RuntimeException e) {
+            failures.add(sample.getClass().getSimpleName() + ": " + e);
+            return null;
+        }
+    }
+
+    private static byte[] encode(Message m) {
+        PacketByteBuf b = new PacketByteBuf(Unpooled.buffer());
+        m.encode(b);
+        byte[] bytes = new byte[b.readableBytes()];
+        b.readBytes(bytes);
+        return bytes;
+    }
+}
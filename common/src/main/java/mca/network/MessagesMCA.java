@@ -6,43 +6,49 @@ import mca.network.c2s.*;
 
 public interface MessagesMCA {
     static void bootstrap() {
-        NetworkHandler.registerMessage(InteractionVillagerMessage.class);
-        NetworkHandler.registerMessage(BabyNamingVillagerMessage.class);
-        NetworkHandler.registerMessage(GetFamilyRequest.class);
-        NetworkHandler.registerMessage(GetFamilyResponse.class);
-        NetworkHandler.registerMessage(GetVillagerResponse.class);
-        NetworkHandler.registerMessage(CallToPlayerMessage.class);
-        NetworkHandler.registerMessage(GetVillageRequest.class);
-        NetworkHandler.registerMessage(GetVillageResponse.class);
-        NetworkHandler.registerMessage(GetVillageFailedResponse.class);
-        NetworkHandler.registerMessage(OpenGuiRequest.class);
-        NetworkHandler.registerMessage(ReportBuildingMessage.class);
-        NetworkHandler.registerMessage(SaveVillageMessage.class);
-        NetworkHandler.registerMessage(GetFamilyTreeRequest.class);
+        NetworkHandler.registerMessage(InteractionVillagerMessage.class, InteractionVillagerMessage::new);
+        NetworkHandler.registerMessage(BabyNamingVillagerMessage.class, BabyNamingVillagerMessage::new);
+        NetworkHandler.registerMessage(GetFamilyRequest.class, b -> new GetFamilyRequest());
+        NetworkHandler.registerMessage(GetFamilyResponse.class, GetFamilyResponse::new);
+        NetworkHandler.registerMessage(GetVillagerResponse.class, GetVillagerResponse::new);
+        NetworkHandler.registerMessage(CallToPlayerMessage.class, CallToPlayerMessage::new);
+        NetworkHandler.registerMessage(GetVillageRequest.class, GetVillageRequest::new);
+        NetworkHandler.registerMessage(GetVillageResponse.class, GetVillageResponse::new);
+        NetworkHandler.registerMessage(GetVillageFailedResponse.class, b -> new GetVillageFailedResponse());
+        NetworkHandler.registerMessage(OpenGuiRequest.class, OpenGuiRequest::new);
+        NetworkHandler.registerMessage(ReportBuildingMessage.class, ReportBuildingMessage::new);
+        NetworkHandler.registerMessage(SaveVillageMessage.class, SaveVillageMessage::new);
+        NetworkHandler.registerMessage(GetFamilyTreeRequest.class, GetFamilyTreeRequest::new);
         NetworkHandler.registerMessage(GetFamilyTreeResponse.class);
-        NetworkHandler.registerMessage(GetInteractDataRequest.class);
+        NetworkHandler.registerMessage(GetInteractDataRequest.class, GetInteractDataRequest::new);
         NetworkHandler.registerMessage(GetInteractDataResponse.class);
-        NetworkHandler.registerMessage(InteractionDialogueMessage.class);
-        NetworkHandler.registerMessage(InteractionDialogueResponse.class);
-        NetworkHandler.registerMessage(InteractionDialogueInitMessage.class);
-        NetworkHandler.registerMessage(GetChildDataRequest.class);
-        NetworkHandler.registerMessage(GetChildDataResponse.class);
-        NetworkHandler.registerMessage(GetVillagerRequest.class);
-        NetworkHandler.registerMessage(VillagerEditorSyncRequest.class);
+        NetworkHandler.registerMessage(InteractionDialogueMessage.class, InteractionDialogueMessage::new);
+        NetworkHandler.registerMessage(InteractionDialogueResponse.class, InteractionDialogueResponse::new);
+        NetworkHandler.registerMessage(InteractionDialogueInitMessage.class, InteractionDialogueInitMessage::new);
+        NetworkHandler.registerMessage(GetChildDataRequest.class, GetChildDataRequest::new);
+        NetworkHandler.registerMessage(GetChildDataResponse.class, GetChildDataResponse::new);
+        NetworkHandler.registerMessage(GetVillagerRequest.class, GetVillagerRequest::new);
+        NetworkHandler.registerMessage(VillagerEditorSyncRequest.class, VillagerEditorSyncRequest::new);
         NetworkHandler.registerMessage(AnalysisResults.class);
-        NetworkHandler.registerMessage(InteractionCloseRequest.class);
-        NetworkHandler.registerMessage(ShowToastRequest.class);
-        NetworkHandler.registerMessage(BabyNameRequest.class);
-        NetworkHandler.registerMessage(BabyNameResponse.class);
-        NetworkHandler.registerMessage(VillagerNameRequest.class);
-        NetworkHandler.registerMessage(VillagerNameResponse.class);
-        NetworkHandler.registerMessage(RenameVillageMessage.class);
-        NetworkHandler.registerMessage(FamilyTreeUUIDLookup.class);
+        NetworkHandler.registerMessage(InteractionCloseRequest.class, InteractionCloseRequest::new);
+        NetworkHandler.registerMessage(ShowToastRequest.class, ShowToastRequest::new);
+        NetworkHandler.registerMessage(BabyNameRequest.class, BabyNameRequest::new);
+        NetworkHandler.registerMessage(BabyNameResponse.class, BabyNameResponse::new);
+        NetworkHandler.registerMessage(VillagerNameRequest.class, VillagerNameRequest::new);
+        NetworkHandler.registerMessage(VillagerNameResponse.class, VillagerNameResponse::new);
+        NetworkHandler.registerMessage(RenameVillageMessage.class, RenameVillageMessage::new);
+        NetworkHandler.registerMessage(FamilyTreeUUIDLookup.class, FamilyTreeUUIDLookup::new);
         NetworkHandler.registerMessage(FamilyTreeUUIDResponse.class);
-        NetworkHandler.registerMessage(DestinyMessage.class);
-        NetworkHandler.registerMessage(PlayerDataMessage.class);
-        NetworkHandler.registerMessage(PlayerDataRequest.class);
-        NetworkHandler.registerMessage(SkinListRequest.class);
-        NetworkHandler.registerMessage(SkinListResponse.class);
+        NetworkHandler.registerMessage(DestinyMessage.class, DestinyMessage::new);
+        NetworkHandler.registerMessage(PlayerDataMessage.class, PlayerDataMessage::new);
+        NetworkHandler.registerMessage(PlayerDataRequest.class, PlayerDataRequest::new);
+        NetworkHandler.registerMessage(SkinListRequest.class, SkinListRequest::new);
+        NetworkHandler.registerMessage(SkinListResponse.class, SkinListResponse::new);
+        NetworkHandler.registerMessage(VillagerMemoriesMessage.class, VillagerMemoriesMessage::new);
+        NetworkHandler.registerMessage(StaticDataVersionsMessage.class, StaticDataVersionsMessage::new);
+        NetworkHandler.registerMessage(VillageDeltaMessage.class, VillageDeltaMessage::new);
+        NetworkHandler.registerMessage(GetBuildingDetailRequest.class, GetBuildingDetailRequest::new);
+        NetworkHandler.registerMessage(BuildingDetailResponse.class, BuildingDetailResponse::new);
+        NetworkHandler.registerMessage(CloseVillageViewMessage.class, b -> new CloseVillageViewMessage());
     }
 }
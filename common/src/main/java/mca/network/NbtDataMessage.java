@@ -3,6 +3,7 @@ package mca.network;
 import mca.cobalt.network.Message;
 import net.minecraft.nbt.NbtCompound;
 import net.minecraft.nbt.NbtIo;
+import net.minecraft.network.PacketByteBuf;
 
 import java.io.*;
 
@@ -16,6 +17,26 @@ public abstract class NbtDataMessage implements Message {
         this.data = new Data(data);
     }
 
+    /**
+     * Decodes a message sent by the server, which is trusted to send data of any size.
+     */
+    protected NbtDataMessage(PacketByteBuf b) {
+        this.data = new Data(b.readUnlimitedNbt());
+    }
+
+    /**
+     * Reads the data of a message sent by a client, limited to the vanilla size.
+     */
+    protected static NbtCompound readLimitedNbt(PacketByteBuf b) {
+        NbtCompound nbt = b.readNbt();
+        return nbt == null ? new NbtCompound() : nbt;
+    }
+
+    @Override
+    public void encode(PacketByteBuf b) {
+        b.writeNbt(getData());
+    }
+
     public NbtCompound getData() {
         return data.nbt;
     }
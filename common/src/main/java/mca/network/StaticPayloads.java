@@ -0,0 +1,93 @@
+package mca.network;
+
+import com.google.common.hash.Hashing;
+import io.netty.buffer.Unpooled;
+import mca.cobalt.network.Message;
+import mca.resources.API;
+import mca.resources.ClothingList;
+import mca.resources.HairList;
+import mca.resources.Tasks;
+import net.minecraft.network.PacketByteBuf;
+
+import java.io.Serializable;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Resource tables which only change on reload, encoded once and versioned by a hash of their content.
+ * <p>
+ * Clients send the version of their cached copy along with their request, the body is only sent when it differs.
+ */
+public final class StaticPayloads {
+    private static final Map<Type, Payload> PAYLOADS = new EnumMap<>(Type.class);
+
+    private StaticPayloads() {
+    }
+
+    public static synchronized Payload get(Type type) {
+        return PAYLOADS.computeIfAbsent(type, Payload::new);
+    }
+
+    /**
+     * Drops all encoded payloads, called once the resources have been reloaded.
+     */
+    public static synchronized void invalidate() {
+        PAYLOADS.clear();
+    }
+
+    public static Map<Type, Long> getVersions() {
+        Map<Type, Long> versions = new EnumMap<>(Type.class);
+        for (Type type : Type.values()) {
+            versions.put(type, get(type).version());
+        }
+        return versions;
+    }
+
+    public enum Type {
+        VILLAGE(b -> {
+            Message.writeSerialized(b, (Serializable)Tasks.getInstance().tasks);
+            Message.writeSerialized(b, (Serializable)API.getVillagePool().getBuildingTypes());
+        }),
+        SKINS(b -> {
+            Message.writeSerialized(b, ClothingList.getInstance().clothing);
+            Message.writeSerialized(b, HairList.getInstance().hair);
+        });
+
+        private final Consumer<PacketByteBuf> writer;
+
+        Type(Consumer<PacketByteBuf> writer) {
+            this.writer = writer;
+        }
+    }
+
+    public record Payload(long version, byte[] body) {
+        private Payload(Type type) {
+            this(encode(type));
+        }
+
+        private Payload(byte[] body) {
+            //zero is reserved for an empty client cache
+            this(Math.max(1, Hashing.murmur3_128().hashBytes(body).asLong() & Long.MAX_VALUE), body);
+        }
+
+        private static byte[] encode(Type type) {
+            PacketByteBuf b = new PacketByteBuf(Unpooled.buffer());
+            type.writer.accept(b);
+            byte[] body = new byte[b.readableBytes()];
+            b.readBytes(body);
+            return body;
+        }
+
+        /**
+         * Writes the version, followed by the body if the client does not know this version yet.
+         */
+        public void write(PacketByteBuf b, long clientVersion) {
+            b.writeLong(version);
+            b.writeBoolean(clientVersion != version);
+            if (clientVersion != version) {
+                b.writeBytes(body);
+            }
+        }
+    }
+}
@@ -3,6 +3,7 @@ package mca.network.c2s;
 import mca.cobalt.network.Message;
 import mca.server.world.data.BabyTracker;
 import net.minecraft.item.ItemStack;
+import net.minecraft.network.PacketByteBuf;
 import net.minecraft.server.network.ServerPlayerEntity;
 
 import java.io.Serial;
@@ -19,6 +20,17 @@ public class BabyNamingVillagerMessage implements Message {
         this.name = name;
     }
 
+    public BabyNamingVillagerMessage(PacketByteBuf b) {
+        slot = b.readVarInt();
+        name = b.readString();
+    }
+
+    @Override
+    public void encode(PacketByteBuf b) {
+        b.writeVarInt(slot);
+        b.writeString(name);
+    }
+
     @Override
     public void receive(ServerPlayerEntity player) {
         ItemStack stack = player.getInventory().getStack(slot);
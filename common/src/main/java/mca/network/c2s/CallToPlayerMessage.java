@@ -3,6 +3,7 @@ package mca.network.c2s;
 import mca.cobalt.network.Message;
 import mca.entity.VillagerEntityMCA;
 import net.minecraft.entity.Entity;
+import net.minecraft.network.PacketByteBuf;
 import net.minecraft.server.network.ServerPlayerEntity;
 
 import java.io.Serial;
@@ -18,6 +19,15 @@ public class CallToPlayerMessage implements Message {
         this.uuid = uuid;
     }
 
+    public CallToPlayerMessage(PacketByteBuf b) {
+        uuid = b.readUuid();
+    }
+
+    @Override
+    public void encode(PacketByteBuf b) {
+        b.writeUuid(uuid);
+    }
+
     @Override
     public void receive(ServerPlayerEntity player) {
         Entity e = player.getWorld().getEntity(uuid);
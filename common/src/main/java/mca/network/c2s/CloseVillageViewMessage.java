@@ -0,0 +1,26 @@
+package mca.network.c2s;
+
+import mca.cobalt.network.Message;
+import mca.server.world.data.VillageManager;
+import net.minecraft.network.PacketByteBuf;
+import net.minecraft.server.network.ServerPlayerEntity;
+
+import java.io.Serial;
+
+/**
+ * Sent when the blueprint screen closes, to stop receiving village changes.
+ */
+public class CloseVillageViewMessage implements Message {
+    @Serial
+    private static final long serialVersionUID = -1843675920158463203L;
+
+    @Override
+    public void encode(PacketByteBuf b) {
+        // N/A
+    }
+
+    @Override
+    public void receive(ServerPlayerEntity player) {
+        VillageManager.get(player.getWorld()).getViewers().unsubscribe(player.getUuid());
+    }
+}
@@ -4,6 +4,7 @@ import mca.Config;
 import mca.cobalt.network.Message;
 import mca.util.WorldUtils;
 import mca.util.compat.FuzzyPositionsCompat;
+import net.minecraft.network.PacketByteBuf;
 import net.minecraft.server.network.ServerPlayerEntity;
 import net.minecraft.util.Identifier;
 import net.minecraft.util.math.BlockPos;
@@ -19,6 +20,18 @@ public class DestinyMessage implements Message {
         this.location = location;
     }
 
+    public DestinyMessage(PacketByteBuf b) {
+        location = b.readBoolean() ? b.readString() : null;
+    }
+
+    @Override
+    public void encode(PacketByteBuf b) {
+        b.writeBoolean(location != null);
+        if (location != null) {
+            b.writeString(location);
+        }
+    }
+
     @Override
     public void receive(ServerPlayerEntity player) {
         if (Config.getInstance().allowDestinyTeleportation && location != null) {
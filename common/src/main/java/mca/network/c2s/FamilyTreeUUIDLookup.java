@@ -6,6 +6,7 @@ import mca.entity.ai.relationship.family.FamilyTree;
 import mca.entity.ai.relationship.family.FamilyTreeNode;
 import mca.network.s2c.FamilyTreeUUIDResponse;
 import mca.resources.data.SerializablePair;
+import net.minecraft.network.PacketByteBuf;
 import net.minecraft.server.network.ServerPlayerEntity;
 
 import java.util.List;
@@ -19,6 +20,15 @@ public class FamilyTreeUUIDLookup implements Message {
         this.search = search;
     }
 
+    public FamilyTreeUUIDLookup(PacketByteBuf b) {
+        search = b.readString();
+    }
+
+    @Override
+    public void encode(PacketByteBuf b) {
+        b.writeString(search);
+    }
+
     @Override
     public void receive(ServerPlayerEntity player) {
         FamilyTree tree = FamilyTree.get(player.getWorld());
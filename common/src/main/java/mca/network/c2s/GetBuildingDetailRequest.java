@@ -0,0 +1,47 @@
+package mca.network.c2s;
+
+import mca.cobalt.network.Message;
+import mca.cobalt.network.NetworkHandler;
+import mca.network.s2c.BuildingDetailResponse;
+import mca.server.world.data.VillageManager;
+import net.minecraft.network.PacketByteBuf;
+import net.minecraft.server.network.ServerPlayerEntity;
+
+import java.io.Serial;
+
+public class GetBuildingDetailRequest implements Message {
+    @Serial
+    private static final long serialVersionUID = 8153096473219650734L;
+
+    private final int village;
+    private final int building;
+
+    public GetBuildingDetailRequest(int village, int building) {
+        this.village = village;
+        this.building = building;
+    }
+
+    public GetBuildingDetailRequest(PacketByteBuf b) {
+        village = b.readVarInt();
+        building = b.readVarInt();
+    }
+
+    @Override
+    public void encode(PacketByteBuf b) {
+        b.writeVarInt(village);
+        b.writeVarInt(building);
+    }
+
+    @Override
+    public void receive(ServerPlayerEntity player) {
+        //only the village the player is looking at
+        VillageManager manager = VillageManager.get(player.getWorld());
+        if (!manager.getViewers().isViewing(player.getUuid(), village)) {
+            return;
+        }
+
+        manager.getOrEmpty(village)
+                .flatMap(v -> v.getBuilding(building))
+                .ifPresent(b -> NetworkHandler.sendToPlayer(new BuildingDetailResponse(village, b.saveDetail()), player));
+    }
+}
@@ -4,6 +4,7 @@ import mca.cobalt.network.Message;
 import mca.cobalt.network.NetworkHandler;
 import mca.network.s2c.GetChildDataResponse;
 import mca.server.world.data.BabyTracker;
+import net.minecraft.network.PacketByteBuf;
 import net.minecraft.server.network.ServerPlayerEntity;
 
 import java.io.Serial;
@@ -19,6 +20,15 @@ public class GetChildDataRequest implements Message {
         this.id = id;
     }
 
+    public GetChildDataRequest(PacketByteBuf b) {
+        id = b.readUuid();
+    }
+
+    @Override
+    public void encode(PacketByteBuf b) {
+        b.writeUuid(id);
+    }
+
     @Override
     public void receive(ServerPlayerEntity player) {
         BabyTracker.get(player.getWorld()).getSaveState(id).ifPresent(
@@ -7,6 +7,7 @@ import mca.network.s2c.GetFamilyResponse;
 import mca.server.world.data.PlayerSaveData;
 import net.minecraft.entity.mob.MobEntity;
 import net.minecraft.nbt.NbtCompound;
+import net.minecraft.network.PacketByteBuf;
 import net.minecraft.server.network.ServerPlayerEntity;
 
 import java.io.Serial;
@@ -16,6 +17,11 @@ public class GetFamilyRequest implements Message {
     @Serial
     private static final long serialVersionUID = -4415670234855916259L;
 
+    @Override
+    public void encode(PacketByteBuf b) {
+        // N/A
+    }
+
     @Override
     public void receive(ServerPlayerEntity player) {
         NbtCompound familyData = new NbtCompound();
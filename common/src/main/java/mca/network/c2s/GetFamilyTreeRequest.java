@@ -5,6 +5,7 @@ import mca.cobalt.network.NetworkHandler;
 import mca.entity.ai.relationship.family.FamilyTree;
 import mca.entity.ai.relationship.family.FamilyTreeNode;
 import mca.network.s2c.GetFamilyTreeResponse;
+import net.minecraft.network.PacketByteBuf;
 import net.minecraft.server.network.ServerPlayerEntity;
 
 import java.io.Serial;
@@ -24,6 +25,15 @@ public class GetFamilyTreeRequest implements Message {
         this.uuid = uuid;
     }
 
+    public GetFamilyTreeRequest(PacketByteBuf b) {
+        uuid = b.readUuid();
+    }
+
+    @Override
+    public void encode(PacketByteBuf b) {
+        b.writeUuid(uuid);
+    }
+
     @Override
     public void receive(ServerPlayerEntity player) {
         FamilyTree.get(player.getWorld()).getOrEmpty(uuid).ifPresent(entry -> {
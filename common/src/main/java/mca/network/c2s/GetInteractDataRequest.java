@@ -10,6 +10,7 @@ import mca.entity.ai.relationship.MarriageState;
 import mca.entity.ai.relationship.family.FamilyTreeNode;
 import mca.network.s2c.GetInteractDataResponse;
 import net.minecraft.entity.Entity;
+import net.minecraft.network.PacketByteBuf;
 import net.minecraft.server.network.ServerPlayerEntity;
 
 import java.io.Serial;
@@ -26,6 +27,15 @@ public class GetInteractDataRequest implements Message {
         this.uuid = villager;
     }
 
+    public GetInteractDataRequest(PacketByteBuf b) {
+        uuid = b.readUuid();
+    }
+
+    @Override
+    public void encode(PacketByteBuf b) {
+        b.writeUuid(uuid);
+    }
+
     @Override
     public void receive(ServerPlayerEntity player) {
         Entity entity = player.getWorld().getEntity(uuid);
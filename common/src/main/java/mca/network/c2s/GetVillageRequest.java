@@ -7,6 +7,9 @@ import mca.network.s2c.GetVillageResponse;
 import mca.resources.Rank;
 import mca.resources.Tasks;
 import mca.server.world.data.Village;
+import mca.server.world.data.VillageManager;
+import net.minecraft.nbt.NbtCompound;
+import net.minecraft.network.PacketByteBuf;
 import net.minecraft.server.network.ServerPlayerEntity;
 
 import java.io.Serial;
@@ -17,6 +20,24 @@ public class GetVillageRequest implements Message {
     @Serial
     private static final long serialVersionUID = -1302412553466016247L;
 
+    private final long cachedVersion;
+
+    /**
+     * @param cachedVersion the version of the village tables the client already has
+     */
+    public GetVillageRequest(long cachedVersion) {
+        this.cachedVersion = cachedVersion;
+    }
+
+    public GetVillageRequest(PacketByteBuf b) {
+        cachedVersion = b.readLong();
+    }
+
+    @Override
+    public void encode(PacketByteBuf b) {
+        b.writeLong(cachedVersion);
+    }
+
     @Override
     public void receive(ServerPlayerEntity player) {
         Optional<Village> village = Village.findNearest(player);
@@ -24,7 +45,8 @@ public class GetVillageRequest implements Message {
             int reputation = village.get().getReputation(player);
             Rank rank = Tasks.getRank(village.get(), player);
             Set<String> ids = Tasks.getCompletedIds(village.get(), player);
-            NetworkHandler.sendToPlayer(new GetVillageResponse(village.get(), rank, reputation, ids), player);
+            NbtCompound summary = VillageManager.get(player.getWorld()).getViewers().subscribe(player, village.get());
+            NetworkHandler.sendToPlayer(new GetVillageResponse(summary, rank, reputation, ids, cachedVersion), player);
         } else {
             NetworkHandler.sendToPlayer(new GetVillageFailedResponse(), player);
         }
@@ -7,6 +7,7 @@ import mca.network.s2c.InteractionDialogueResponse;
 import mca.resources.Dialogues;
 import mca.resources.data.dialogue.Question;
 import net.minecraft.entity.Entity;
+import net.minecraft.network.PacketByteBuf;
 import net.minecraft.server.network.ServerPlayerEntity;
 
 import java.io.Serial;
@@ -22,6 +23,15 @@ public class InteractionDialogueInitMessage implements Message {
         villagerUUID = uuid;
     }
 
+    public InteractionDialogueInitMessage(PacketByteBuf b) {
+        villagerUUID = b.readUuid();
+    }
+
+    @Override
+    public void encode(PacketByteBuf b) {
+        b.writeUuid(villagerUUID);
+    }
+
     @Override
     public void receive(ServerPlayerEntity player) {
         Entity v = player.getWorld().getEntity(villagerUUID);
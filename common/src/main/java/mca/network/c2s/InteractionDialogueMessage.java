@@ -4,6 +4,7 @@ import mca.cobalt.network.Message;
 import mca.entity.VillagerEntityMCA;
 import mca.resources.Dialogues;
 import net.minecraft.entity.Entity;
+import net.minecraft.network.PacketByteBuf;
 import net.minecraft.server.network.ServerPlayerEntity;
 
 import java.io.Serial;
@@ -23,6 +24,19 @@ public class InteractionDialogueMessage implements Message {
         this.answer = answer;
     }
 
+    public InteractionDialogueMessage(PacketByteBuf b) {
+        villagerUUID = b.readUuid();
+        question = b.readString();
+        answer = b.readString();
+    }
+
+    @Override
+    public void encode(PacketByteBuf b) {
+        b.writeUuid(villagerUUID);
+        b.writeString(question);
+        b.writeString(answer);
+    }
+
     @Override
     public void receive(ServerPlayerEntity player) {
         Entity v = player.getWorld().getEntity(villagerUUID);
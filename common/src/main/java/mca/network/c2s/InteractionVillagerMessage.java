@@ -3,6 +3,7 @@ package mca.network.c2s;
 import mca.cobalt.network.Message;
 import mca.entity.VillagerLike;
 import net.minecraft.entity.Entity;
+import net.minecraft.network.PacketByteBuf;
 import net.minecraft.server.network.ServerPlayerEntity;
 
 import java.io.Serial;
@@ -20,6 +21,17 @@ public class InteractionVillagerMessage implements Message {
         this.villagerUUID = villagerUUID;
     }
 
+    public InteractionVillagerMessage(PacketByteBuf b) {
+        command = b.readString();
+        villagerUUID = b.readUuid();
+    }
+
+    @Override
+    public void encode(PacketByteBuf b) {
+        b.writeString(command);
+        b.writeUuid(villagerUUID);
+    }
+
     @Override
     public void receive(ServerPlayerEntity player) {
         Entity v = player.getWorld().getEntity(villagerUUID);
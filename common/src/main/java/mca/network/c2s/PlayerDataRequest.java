@@ -5,6 +5,7 @@ import mca.cobalt.network.NetworkHandler;
 import mca.network.s2c.PlayerDataMessage;
 import mca.server.world.data.PlayerSaveData;
 import net.minecraft.nbt.NbtCompound;
+import net.minecraft.network.PacketByteBuf;
 import net.minecraft.server.network.ServerPlayerEntity;
 
 import java.util.UUID;
@@ -16,6 +17,15 @@ public class PlayerDataRequest implements Message {
         this.uuid = uuid;
     }
 
+    public PlayerDataRequest(PacketByteBuf b) {
+        uuid = b.readUuid();
+    }
+
+    @Override
+    public void encode(PacketByteBuf b) {
+        b.writeUuid(uuid);
+    }
+
     @Override
     public void receive(ServerPlayerEntity player) {
         PlayerSaveData data = PlayerSaveData.get(player.getWorld(), uuid);
@@ -2,6 +2,7 @@ package mca.network.c2s;
 
 import mca.cobalt.network.Message;
 import mca.server.world.data.VillageManager;
+import net.minecraft.network.PacketByteBuf;
 import net.minecraft.server.network.ServerPlayerEntity;
 
 import java.io.Serial;
@@ -18,6 +19,17 @@ public class RenameVillageMessage implements Message {
         this.name = name;
     }
 
+    public RenameVillageMessage(PacketByteBuf b) {
+        id = b.readVarInt();
+        name = b.readString();
+    }
+
+    @Override
+    public void encode(PacketByteBuf b) {
+        b.writeVarInt(id);
+        b.writeString(name);
+    }
+
     @Override
     public void receive(ServerPlayerEntity player) {
         VillageManager.get(player.getWorld()).getOrEmpty(id).ifPresent(v -> v.setName(name));
@@ -5,6 +5,7 @@ import mca.server.world.data.Building;
 import mca.server.world.data.GraveyardManager;
 import mca.server.world.data.Village;
 import mca.server.world.data.VillageManager;
+import net.minecraft.network.PacketByteBuf;
 import net.minecraft.server.network.ServerPlayerEntity;
 import net.minecraft.text.TranslatableText;
 
@@ -28,6 +29,20 @@ public class ReportBuildingMessage implements Message {
         this(action, null);
     }
 
+    public ReportBuildingMessage(PacketByteBuf b) {
+        action = b.readEnumConstant(Action.class);
+        data = b.readBoolean() ? b.readString() : null;
+    }
+
+    @Override
+    public void encode(PacketByteBuf b) {
+        b.writeEnumConstant(action);
+        b.writeBoolean(data != null);
+        if (data != null) {
+            b.writeString(data);
+        }
+    }
+
     @Override
     public void receive(ServerPlayerEntity player) {
         VillageManager villages = VillageManager.get(player.getWorld());
@@ -57,8 +72,7 @@ public class ReportBuildingMessage implements Message {
                             building.get().setForcedType(data);
                         }
                     } else {
-                        village.get().removeBuilding(building.get().getId());
-                        village.get().markDirty(player.getWorld());
+                        villages.removeBuilding(village.get(), building.get().getId());
                     }
                 } else {
                     player.sendMessage(new TranslatableText("blueprint.noBuilding"), true);
@@ -3,6 +3,7 @@ package mca.network.c2s;
 import mca.cobalt.network.Message;
 import mca.server.world.data.Village;
 import mca.server.world.data.VillageManager;
+import net.minecraft.network.PacketByteBuf;
 import net.minecraft.server.network.ServerPlayerEntity;
 
 import java.io.Serial;
@@ -23,6 +24,21 @@ public class SaveVillageMessage implements Message {
         this.marriageThreshold = village.getMarriageThreshold();
     }
 
+    public SaveVillageMessage(PacketByteBuf b) {
+        id = b.readVarInt();
+        taxes = b.readVarInt();
+        populationThreshold = b.readVarInt();
+        marriageThreshold = b.readVarInt();
+    }
+
+    @Override
+    public void encode(PacketByteBuf b) {
+        b.writeVarInt(id);
+        b.writeVarInt(taxes);
+        b.writeVarInt(populationThreshold);
+        b.writeVarInt(marriageThreshold);
+    }
+
     @Override
     public void receive(ServerPlayerEntity player) {
         VillageManager.get(player.getWorld()).getOrEmpty(id).ifPresent(village -> {
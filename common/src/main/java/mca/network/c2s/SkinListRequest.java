@@ -2,14 +2,32 @@ package mca.network.c2s;
 
 import mca.cobalt.network.Message;
 import mca.cobalt.network.NetworkHandler;
+import mca.network.StaticPayloads;
 import mca.network.s2c.SkinListResponse;
-import mca.resources.ClothingList;
-import mca.resources.HairList;
+import net.minecraft.network.PacketByteBuf;
 import net.minecraft.server.network.ServerPlayerEntity;
 
 public class SkinListRequest implements Message {
+    private final long cachedVersion;
+
+    /**
+     * @param cachedVersion the version of the skin lists the client already has
+     */
+    public SkinListRequest(long cachedVersion) {
+        this.cachedVersion = cachedVersion;
+    }
+
+    public SkinListRequest(PacketByteBuf b) {
+        cachedVersion = b.readLong();
+    }
+
+    @Override
+    public void encode(PacketByteBuf b) {
+        b.writeLong(cachedVersion);
+    }
+
     @Override
     public void receive(ServerPlayerEntity player) {
-        NetworkHandler.sendToPlayer(new SkinListResponse(ClothingList.getInstance().clothing, HairList.getInstance().hair), player);
+        NetworkHandler.sendToPlayer(new SkinListResponse(StaticPayloads.get(StaticPayloads.Type.SKINS), cachedVersion), player);
     }
 }
@@ -16,6 +16,7 @@ import net.minecraft.entity.Entity;
 import net.minecraft.entity.LivingEntity;
 import net.minecraft.entity.player.PlayerEntity;
 import net.minecraft.nbt.NbtCompound;
+import net.minecraft.network.PacketByteBuf;
 import net.minecraft.server.network.ServerPlayerEntity;
 import net.minecraft.server.world.ServerWorld;
 import net.minecraft.text.TranslatableText;
@@ -43,6 +44,19 @@ public class VillagerEditorSyncRequest extends NbtDataMessage implements Message
         this.uuid = uuid;
     }
 
+    public VillagerEditorSyncRequest(PacketByteBuf b) {
+        super(readLimitedNbt(b));
+        command = b.readString();
+        uuid = b.readUuid();
+    }
+
+    @Override
+    public void encode(PacketByteBuf b) {
+        super.encode(b);
+        b.writeString(command);
+        b.writeUuid(uuid);
+    }
+
     @Override
     public void receive(ServerPlayerEntity player) {
         Entity entity = player.getWorld().getEntity(uuid);
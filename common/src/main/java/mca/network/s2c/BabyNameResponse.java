@@ -2,6 +2,7 @@ package mca.network.s2c;
 
 import mca.ClientProxy;
 import mca.cobalt.network.Message;
+import net.minecraft.network.PacketByteBuf;
 
 import java.io.Serial;
 
@@ -15,6 +16,15 @@ public class BabyNameResponse implements Message {
         this.name = name;
     }
 
+    public BabyNameResponse(PacketByteBuf b) {
+        name = b.readString();
+    }
+
+    @Override
+    public void encode(PacketByteBuf b) {
+        b.writeString(name);
+    }
+
     @Override
     public void receive() {
         ClientProxy.getNetworkHandler().handleBabyNameResponse(this);
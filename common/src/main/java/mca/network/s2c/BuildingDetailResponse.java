@@ -0,0 +1,36 @@
+package mca.network.s2c;
+
+import mca.ClientProxy;
+import mca.network.NbtDataMessage;
+import net.minecraft.nbt.NbtCompound;
+import net.minecraft.network.PacketByteBuf;
+
+import java.io.Serial;
+
+public class BuildingDetailResponse extends NbtDataMessage {
+    @Serial
+    private static final long serialVersionUID = -2586140447281436091L;
+
+    public final int village;
+
+    public BuildingDetailResponse(int village, NbtCompound building) {
+        super(building);
+        this.village = village;
+    }
+
+    public BuildingDetailResponse(PacketByteBuf b) {
+        super(b);
+        village = b.readVarInt();
+    }
+
+    @Override
+    public void encode(PacketByteBuf b) {
+        super.encode(b);
+        b.writeVarInt(village);
+    }
+
+    @Override
+    public void receive() {
+        ClientProxy.getNetworkHandler().handleBuildingDetail(this);
+    }
+}
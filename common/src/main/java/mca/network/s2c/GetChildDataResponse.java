@@ -4,6 +4,7 @@ import mca.ClientProxy;
 import mca.network.NbtDataMessage;
 import mca.server.world.data.BabyTracker.ChildSaveState;
 import net.minecraft.nbt.NbtCompound;
+import net.minecraft.network.PacketByteBuf;
 
 import java.io.Serial;
 import java.util.UUID;
@@ -19,6 +20,17 @@ public class GetChildDataResponse extends NbtDataMessage {
         this.id = data.getId();
     }
 
+    public GetChildDataResponse(PacketByteBuf b) {
+        super(b);
+        id = b.readUuid();
+    }
+
+    @Override
+    public void encode(PacketByteBuf b) {
+        super.encode(b);
+        b.writeUuid(id);
+    }
+
     @Override
     public void receive() {
         ClientProxy.getNetworkHandler().handleChildData(this);
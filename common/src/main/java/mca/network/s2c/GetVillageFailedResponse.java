@@ -2,6 +2,7 @@ package mca.network.s2c;
 
 import mca.ClientProxy;
 import mca.cobalt.network.Message;
+import net.minecraft.network.PacketByteBuf;
 
 import java.io.Serial;
 
@@ -9,6 +10,11 @@ public class GetVillageFailedResponse implements Message {
     @Serial
     private static final long serialVersionUID = 4021214184633955444L;
 
+    @Override
+    public void encode(PacketByteBuf b) {
+        // N/A
+    }
+
     @Override
     public void receive() {
         ClientProxy.getNetworkHandler().handleVillageDataFailedResponse(this);
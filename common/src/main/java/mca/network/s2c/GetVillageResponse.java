@@ -1,15 +1,18 @@
 package mca.network.s2c;
 
 import mca.ClientProxy;
+import mca.cobalt.network.Message;
 import mca.network.NbtDataMessage;
-import mca.resources.API;
+import mca.network.StaticPayloads;
 import mca.resources.Rank;
-import mca.resources.Tasks;
 import mca.resources.data.BuildingType;
 import mca.resources.data.tasks.Task;
-import mca.server.world.data.Village;
+import net.minecraft.nbt.NbtCompound;
+import net.minecraft.network.PacketByteBuf;
+import org.jetbrains.annotations.Nullable;
 
 import java.io.Serial;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -21,16 +24,56 @@ public class GetVillageResponse extends NbtDataMessage {
     public final Rank rank;
     public final int reputation;
     public final Set<String> ids;
+
+    public final long tablesVersion;
+    //only sent if the client's cached copy is outdated
+    @Nullable
     public final Map<Rank, List<Task>> tasks;
+    @Nullable
     public final Map<String, BuildingType> buildingTypes;
 
-    public GetVillageResponse(Village data, Rank rank, int reputation, Set<String> ids) {
-        super(data.save());
+    private final transient StaticPayloads.Payload tables;
+    private final long cachedVersion;
+
+    /**
+     * @param summary the village summary, see {@link mca.server.world.data.VillageViewers}
+     */
+    public GetVillageResponse(NbtCompound summary, Rank rank, int reputation, Set<String> ids, long cachedVersion) {
+        super(summary);
         this.rank = rank;
         this.reputation = reputation;
         this.ids = ids;
-        this.tasks = Tasks.getInstance().tasks;
-        this.buildingTypes = API.getVillagePool().getBuildingTypes();
+        this.tables = StaticPayloads.get(StaticPayloads.Type.VILLAGE);
+        this.tablesVersion = tables.version();
+        this.cachedVersion = cachedVersion;
+        this.tasks = null;
+        this.buildingTypes = null;
+    }
+
+    public GetVillageResponse(PacketByteBuf b) {
+        super(b);
+        rank = b.readEnumConstant(Rank.class);
+        reputation = b.readVarInt();
+        ids = b.readCollection(HashSet::new, PacketByteBuf::readString);
+        tablesVersion = b.readLong();
+        if (b.readBoolean()) {
+            tasks = Message.readSerialized(b);
+            buildingTypes = Message.readSerialized(b);
+        } else {
+            tasks = null;
+            buildingTypes = null;
+        }
+        tables = null;
+        cachedVersion = tablesVersion;
+    }
+
+    @Override
+    public void encode(PacketByteBuf b) {
+        super.encode(b);
+        b.writeEnumConstant(rank);
+        b.writeVarInt(reputation);
+        b.writeCollection(ids, PacketByteBuf::writeString);
+        tables.write(b, cachedVersion);
     }
 
     @Override
@@ -3,6 +3,7 @@ package mca.network.s2c;
 import mca.ClientProxy;
 import mca.network.NbtDataMessage;
 import net.minecraft.nbt.NbtCompound;
+import net.minecraft.network.PacketByteBuf;
 
 import java.io.Serial;
 
@@ -14,6 +15,10 @@ public class GetVillagerResponse extends NbtDataMessage {
         super(data);
     }
 
+    public GetVillagerResponse(PacketByteBuf b) {
+        super(b);
+    }
+
     @Override
     public void receive() {
         ClientProxy.getNetworkHandler().handleVillagerDataResponse(this);
@@ -5,6 +5,7 @@ import mca.cobalt.network.Message;
 import mca.entity.VillagerEntityMCA;
 import mca.resources.data.dialogue.Question;
 import net.minecraft.entity.player.PlayerEntity;
+import net.minecraft.network.PacketByteBuf;
 
 import java.io.Serial;
 import java.util.List;
@@ -23,6 +24,19 @@ public class InteractionDialogueResponse implements Message {
         this.silent = question.isSilent();
     }
 
+    public InteractionDialogueResponse(PacketByteBuf b) {
+        question = b.readString();
+        answers = b.readList(PacketByteBuf::readString);
+        silent = b.readBoolean();
+    }
+
+    @Override
+    public void encode(PacketByteBuf b) {
+        b.writeString(question);
+        b.writeCollection(answers, PacketByteBuf::writeString);
+        b.writeBoolean(silent);
+    }
+
     @Override
     public void receive() {
         ClientProxy.getNetworkHandler().handleDialogueResponse(this);
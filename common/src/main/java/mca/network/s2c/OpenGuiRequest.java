@@ -3,6 +3,7 @@ package mca.network.s2c;
 import mca.ClientProxy;
 import mca.cobalt.network.Message;
 import net.minecraft.entity.Entity;
+import net.minecraft.network.PacketByteBuf;
 
 import java.io.Serial;
 
@@ -27,6 +28,17 @@ public class OpenGuiRequest implements Message {
         this(gui, 0);
     }
 
+    public OpenGuiRequest(PacketByteBuf b) {
+        gui = b.readEnumConstant(Type.class);
+        villager = b.readVarInt();
+    }
+
+    @Override
+    public void encode(PacketByteBuf b) {
+        b.writeEnumConstant(gui);
+        b.writeVarInt(villager);
+    }
+
     @Override
     public void receive() {
         ClientProxy.getNetworkHandler().handleGuiRequest(this);
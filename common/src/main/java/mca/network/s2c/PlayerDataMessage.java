@@ -3,6 +3,7 @@ package mca.network.s2c;
 import mca.ClientProxy;
 import mca.network.NbtDataMessage;
 import net.minecraft.nbt.NbtCompound;
+import net.minecraft.network.PacketByteBuf;
 
 import java.util.UUID;
 
@@ -14,6 +15,17 @@ public class PlayerDataMessage extends NbtDataMessage {
         this.uuid = uuid;
     }
 
+    public PlayerDataMessage(PacketByteBuf b) {
+        super(b);
+        uuid = b.readUuid();
+    }
+
+    @Override
+    public void encode(PacketByteBuf b) {
+        super.encode(b);
+        b.writeUuid(uuid);
+    }
+
     @Override
     public void receive() {
         ClientProxy.getNetworkHandler().handlePlayerDataMessage(this);
@@ -2,6 +2,7 @@ package mca.network.s2c;
 
 import mca.ClientProxy;
 import mca.cobalt.network.Message;
+import net.minecraft.network.PacketByteBuf;
 import net.minecraft.text.Text;
 import net.minecraft.text.TranslatableText;
 
@@ -27,6 +28,17 @@ public class ShowToastRequest implements Message {
         return new TranslatableText(message);
     }
 
+    public ShowToastRequest(PacketByteBuf b) {
+        title = b.readString();
+        message = b.readString();
+    }
+
+    @Override
+    public void encode(PacketByteBuf b) {
+        b.writeString(title);
+        b.writeString(message);
+    }
+
     @Override
     public void receive() {
         ClientProxy.getNetworkHandler().handleToastMessage(this);
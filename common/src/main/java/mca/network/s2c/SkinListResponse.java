@@ -2,18 +2,49 @@ package mca.network.s2c;
 
 import mca.ClientProxy;
 import mca.cobalt.network.Message;
+import mca.network.StaticPayloads;
 import mca.resources.ClothingList;
 import mca.resources.HairList;
+import net.minecraft.network.PacketByteBuf;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.HashMap;
 
 public class SkinListResponse implements Message {
+    private final long version;
+    //only sent if the client's cached copy is outdated
+    @Nullable
     private final HashMap<String, ClothingList.Clothing> clothing;
+    @Nullable
     private final HashMap<String, HairList.Hair> hair;
 
-    public SkinListResponse(HashMap<String, ClothingList.Clothing> clothing, HashMap<String, HairList.Hair> hair) {
-        this.clothing = clothing;
-        this.hair = hair;
+    private final transient StaticPayloads.Payload skins;
+    private final long cachedVersion;
+
+    public SkinListResponse(StaticPayloads.Payload skins, long cachedVersion) {
+        this.skins = skins;
+        this.version = skins.version();
+        this.cachedVersion = cachedVersion;
+        this.clothing = null;
+        this.hair = null;
+    }
+
+    public SkinListResponse(PacketByteBuf b) {
+        version = b.readLong();
+        if (b.readBoolean()) {
+            clothing = Message.readSerialized(b);
+            hair = Message.readSerialized(b);
+        } else {
+            clothing = null;
+            hair = null;
+        }
+        skins = null;
+        cachedVersion = version;
+    }
+
+    @Override
+    public void encode(PacketByteBuf b) {
+        skins.write(b, cachedVersion);
     }
 
     @Override
@@ -21,10 +52,16 @@ public class SkinListResponse implements Message {
         ClientProxy.getNetworkHandler().handleAnalysisResults(this);
     }
 
+    public long getVersion() {
+        return version;
+    }
+
+    @Nullable
     public HashMap<String, ClothingList.Clothing> getClothing() {
         return clothing;
     }
 
+    @Nullable
     public HashMap<String, HairList.Hair> getHair() {
         return hair;
     }
@@ -0,0 +1,38 @@
+package mca.network.s2c;
+
+import mca.ClientProxy;
+import mca.cobalt.network.Message;
+import mca.network.StaticPayloads;
+import net.minecraft.network.PacketByteBuf;
+
+import java.io.Serial;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Announces the current versions of the static payloads, sent on join and after the resources have been reloaded.
+ */
+public class StaticDataVersionsMessage implements Message {
+    @Serial
+    private static final long serialVersionUID = -3017626318154718425L;
+
+    public final Map<StaticPayloads.Type, Long> versions;
+
+    public StaticDataVersionsMessage(Map<StaticPayloads.Type, Long> versions) {
+        this.versions = versions;
+    }
+
+    public StaticDataVersionsMessage(PacketByteBuf b) {
+        versions = b.readMap(i -> new EnumMap<>(StaticPayloads.Type.class), buf -> buf.readEnumConstant(StaticPayloads.Type.class), PacketByteBuf::readLong);
+    }
+
+    @Override
+    public void encode(PacketByteBuf b) {
+        b.writeMap(versions, PacketByteBuf::writeEnumConstant, PacketByteBuf::writeLong);
+    }
+
+    @Override
+    public void receive() {
+        ClientProxy.getNetworkHandler().handleStaticDataVersions(this);
+    }
+}
@@ -0,0 +1,51 @@
+package mca.network.s2c;
+
+import mca.ClientProxy;
+import mca.network.NbtDataMessage;
+import net.minecraft.nbt.NbtCompound;
+import net.minecraft.nbt.NbtList;
+import net.minecraft.network.PacketByteBuf;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.Serial;
+
+/**
+ * Changes of the village shown in the blueprint screen, containing the new settings if changed and the summaries of changed buildings.
+ */
+public class VillageDeltaMessage extends NbtDataMessage {
+    @Serial
+    private static final long serialVersionUID = 6270458317349522715L;
+
+    public final int village;
+
+    public VillageDeltaMessage(int village, @Nullable NbtCompound settings, NbtList buildings, int[] removed) {
+        super(createData(settings, buildings, removed));
+        this.village = village;
+    }
+
+    public VillageDeltaMessage(PacketByteBuf b) {
+        super(b);
+        village = b.readVarInt();
+    }
+
+    private static NbtCompound createData(@Nullable NbtCompound settings, NbtList buildings, int[] removed) {
+        NbtCompound nbt = new NbtCompound();
+        if (settings != null) {
+            nbt.put("settings", settings);
+        }
+        nbt.put("buildings", buildings);
+        nbt.putIntArray("removed", removed);
+        return nbt;
+    }
+
+    @Override
+    public void encode(PacketByteBuf b) {
+        super.encode(b);
+        b.writeVarInt(village);
+    }
+
+    @Override
+    public void receive() {
+        ClientProxy.getNetworkHandler().handleVillageDelta(this);
+    }
+}
@@ -0,0 +1,39 @@
+package mca.network.s2c;
+
+import mca.ClientProxy;
+import mca.network.NbtDataMessage;
+import net.minecraft.nbt.NbtCompound;
+import net.minecraft.network.PacketByteBuf;
+
+import java.io.Serial;
+
+/**
+ * The memories a villager has of the receiving player, sent to that player only.
+ */
+public class VillagerMemoriesMessage extends NbtDataMessage {
+    @Serial
+    private static final long serialVersionUID = 2917482367620384523L;
+
+    public final int entityId;
+
+    public VillagerMemoriesMessage(int entityId, NbtCompound memories) {
+        super(memories);
+        this.entityId = entityId;
+    }
+
+    public VillagerMemoriesMessage(PacketByteBuf b) {
+        super(b);
+        entityId = b.readVarInt();
+    }
+
+    @Override
+    public void encode(PacketByteBuf b) {
+        super.encode(b);
+        b.writeVarInt(entityId);
+    }
+
+    @Override
+    public void receive() {
+        ClientProxy.getNetworkHandler().handleVillagerMemoriesMessage(this);
+    }
+}
@@ -1,6 +1,7 @@
 package mca.resources;
 
 import mca.MCA;
+import mca.network.StaticPayloads;
 import net.minecraft.resource.ResourceManager;
 import net.minecraft.resource.SynchronousResourceReloader;
 import net.minecraft.util.Identifier;
@@ -12,5 +13,8 @@ public class ApiReloadListener implements SynchronousResourceReloader {
     public void reload(ResourceManager manager) {
         API.instance = new API.Data();
         API.instance.init(manager);
+
+        //a new server may use different data packs
+        StaticPayloads.invalidate();
     }
 }
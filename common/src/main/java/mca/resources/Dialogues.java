@@ -4,6 +4,7 @@ import com.google.gson.JsonElement;
 import mca.MCA;
 import mca.cobalt.network.NetworkHandler;
 import mca.entity.VillagerEntityMCA;
+import mca.entity.interaction.EvaluationContext;
 import mca.network.s2c.AnalysisResults;
 import mca.resources.data.SerializablePair;
 import mca.resources.data.analysis.ChanceAnalysis;
@@ -77,11 +78,12 @@ public class Dialogues extends JsonDataLoader {
         Question question = getQuestion(questionId);
         Answer answer = question.getAnswer(answerId);
 
-        //fetch chances for each result
+        //fetch chances for each result, sharing the context between them
+        EvaluationContext context = new EvaluationContext(villager, player);
         int total = 0;
         List<IntAnalysis> analysis = new LinkedList<>();
         for (Result r : answer.getResults()) {
-            IntAnalysis a = r.getChances(villager, player);
+            IntAnalysis a = r.getChances(context);
             analysis.add(a);
             total += Math.max(0, a.getTotal());
         }
@@ -14,13 +14,14 @@ import net.minecraft.util.profiler.Profiler;
 
 import java.util.*;
 import java.util.function.Function;
-import java.util.stream.Collectors;
 
 public class Tasks extends JsonDataLoader {
     protected static final Identifier ID = MCA.locate("tasks");
 
     private static Tasks INSTANCE;
 
+    private static int revision;
+
     public static Tasks getInstance() {
         return INSTANCE;
     }
@@ -32,6 +33,13 @@ public class Tasks extends JsonDataLoader {
         INSTANCE = this;
     }
 
+    /**
+     * Increased on every reload, invalidating the cached ranks.
+     */
+    public static int getRevision() {
+        return revision;
+    }
+
     public static final Map<String, Function<JsonObject, Task>> TASK_TYPES = new HashMap<>();
 
     static {
@@ -45,6 +53,7 @@ public class Tasks extends JsonDataLoader {
     @Override
     protected void apply(Map<Identifier, JsonElement> data, ResourceManager manager, Profiler profiler) {
         tasks.clear();
+        revision++;
         for (Rank r : Rank.values()) {
             tasks.put(r, new LinkedList<>());
         }
@@ -61,17 +70,10 @@ public class Tasks extends JsonDataLoader {
     }
 
     public static Set<String> getCompletedIds(Village village, ServerPlayerEntity player) {
-        return getInstance().tasks.values().stream().flatMap(Collection::stream)
-                .filter(t -> t.isCompleted(village, player)).map(Task::getId).collect(Collectors.toSet());
+        return village.getRanks().getCompletedIds(player);
     }
 
     public static Rank getRank(Village village, ServerPlayerEntity player) {
-        Rank[] ranks = Rank.values();
-        for (int i = ranks.length - 1; i >= 0; i--) {
-            if (getInstance().tasks.get(ranks[i]).stream().allMatch(t -> !t.isRequired() || t.isCompleted(village, player))) {
-                return ranks[i];
-            }
-        }
-        return Rank.OUTLAW;
+        return village.getRanks().getRank(player);
     }
 }
@@ -3,11 +3,10 @@ package mca.resources.data.dialogue;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 import mca.Config;
-import mca.entity.VillagerEntityMCA;
 import mca.entity.ai.Memories;
+import mca.entity.interaction.EvaluationContext;
 import mca.entity.interaction.InteractionPredicate;
 import mca.resources.data.analysis.IntAnalysis;
-import net.minecraft.server.network.ServerPlayerEntity;
 
 import java.util.Collections;
 import java.util.LinkedList;
@@ -60,9 +59,9 @@ public class Result {
         return Objects.requireNonNullElse(conditions, Collections.emptyList());
     }
 
-    public IntAnalysis getChances(VillagerEntityMCA villager, ServerPlayerEntity player) {
+    public IntAnalysis getChances(EvaluationContext context) {
         IntAnalysis analysis = new IntAnalysis();
-        Memories memory = villager.getVillagerBrain().getMemoriesForPlayer(player);
+        Memories memory = context.getMemories();
 
         // base chance
         if (getBaseChance() != 0) {
@@ -76,7 +75,7 @@ public class Result {
 
         // condition chance
         for (InteractionPredicate c : getConditions()) {
-            int chance = (int)(c.getChance() * c.test(villager, player));
+            int chance = (int)(c.getChance() * c.test(context));
             if (chance != 0) {
                 analysis.add(c.getConditionKeys().get(0), chance);
             }
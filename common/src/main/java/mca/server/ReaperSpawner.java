@@ -56,6 +56,13 @@ public class ReaperSpawner {
                 .ifPresent(p -> p.sendMessage(new TranslatableText(phrase).formatted(Formatting.RED), true));
     }
 
+    /**
+     * Whether the block is a fire placed on an emerald block, checked for every block change and therefore kept cheap.
+     */
+    public static boolean isAltarFire(World world, BlockPos pos, BlockState state) {
+        return state.isIn(BlockTags.FIRE) && world.getBlockState(pos.down()).isOf(Blocks.EMERALD_BLOCK);
+    }
+
     public void trySpawnReaper(ServerWorld world, BlockState state, BlockPos pos) {
         if (!state.isIn(BlockTags.FIRE)) {
             return;
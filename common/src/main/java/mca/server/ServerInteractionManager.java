@@ -6,12 +6,19 @@ import mca.cobalt.network.NetworkHandler;
 import mca.entity.ai.relationship.EntityRelationship;
 import mca.entity.ai.relationship.Gender;
 import mca.entity.ai.relationship.MarriageState;
+import mca.network.StaticPayloads;
 import mca.network.s2c.OpenGuiRequest;
 import mca.network.s2c.ShowToastRequest;
+import mca.network.s2c.StaticDataVersionsMessage;
 import mca.server.world.data.BabyTracker;
+import mca.server.world.data.PlayerDataStore;
 import mca.server.world.data.PlayerSaveData;
+import mca.server.world.data.Village;
+import mca.server.world.data.VillageManager;
 import net.minecraft.entity.player.PlayerEntity;
+import net.minecraft.server.MinecraftServer;
 import net.minecraft.server.network.ServerPlayerEntity;
+import net.minecraft.server.world.ServerWorld;
 import net.minecraft.text.BaseText;
 import net.minecraft.text.LiteralText;
 import net.minecraft.text.TranslatableText;
@@ -55,7 +62,32 @@ public class ServerInteractionManager {
         removals.forEach(procreateMap::removeLong);
     }
 
+    public void onPlayerLeave(ServerPlayerEntity player) {
+        if (Config.getInstance().useIndexedPlayerData) {
+            PlayerDataStore.get(player.getWorld()).onPlayerLeave(player.getUuid());
+        }
+    }
+
+    /**
+     * Called once all resources have been reloaded, recounts the beds and announces the new static payload versions.
+     */
+    public void onDataReload(MinecraftServer server) {
+        for (ServerWorld world : server.getWorlds()) {
+            for (Village village : VillageManager.get(world)) {
+                village.recountBeds();
+            }
+        }
+
+        StaticPayloads.invalidate();
+        StaticDataVersionsMessage message = new StaticDataVersionsMessage(StaticPayloads.getVersions());
+        for (ServerPlayerEntity player : server.getPlayerManager().getPlayerList()) {
+            NetworkHandler.sendToPlayer(message, player);
+        }
+    }
+
     public void onPlayerJoin(ServerPlayerEntity player) {
+        NetworkHandler.sendToPlayer(new StaticDataVersionsMessage(StaticPayloads.getVersions()), player);
+
         PlayerSaveData playerData = PlayerSaveData.get(player.getWorld(), player.getUuid());
         if (!playerData.isEntityDataSet()) {
             if (Config.getInstance().launchIntoDestiny) {
@@ -8,16 +8,21 @@ import com.mojang.brigadier.builder.ArgumentBuilder;
 import com.mojang.brigadier.context.CommandContext;
 import com.mojang.brigadier.exceptions.CommandSyntaxException;
 import mca.Config;
+import mca.cobalt.network.MessageStats;
 import mca.entity.EntitiesMCA;
 import mca.entity.VillagerEntityMCA;
 import mca.entity.ai.relationship.MarriageState;
 import mca.entity.ai.relationship.family.FamilyTree;
 import mca.entity.ai.relationship.family.FamilyTreeNode;
 import mca.item.BabyItem;
+import mca.network.MessageCodecCheck;
+import mca.server.world.data.BlockChangeDispatcher;
 import mca.server.world.data.Building;
+import mca.server.world.data.BuildingReportQueue;
 import mca.server.world.data.PlayerSaveData;
 import mca.server.world.data.Village;
 import mca.server.world.data.VillageManager;
+import mca.server.world.data.VillageRanks;
 import net.minecraft.command.argument.UuidArgumentType;
 import net.minecraft.entity.Entity;
 import net.minecraft.entity.EntityType;
@@ -36,6 +41,7 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import static net.minecraft.util.Formatting.*;
@@ -62,6 +68,11 @@ public class AdminCommand {
                 .then(register("removeVillageWithId").then(CommandManager.argument("id", IntegerArgumentType.integer()).executes(AdminCommand::removeVillageWithId)))
                 .then(register("removeVillage").then(CommandManager.argument("name", StringArgumentType.string()).executes(AdminCommand::removeVillage)))
                 .then(register("buildingProcessingRate").then(CommandManager.argument("cooldown", IntegerArgumentType.integer()).executes(AdminCommand::buildingProcessingRate)))
+                .then(register("buildingQueue", AdminCommand::buildingQueue))
+                .then(register("networkStats", AdminCommand::networkStats))
+                .then(register("checkNetworkCodecs", AdminCommand::checkNetworkCodecs))
+                .then(register("blockListeners", AdminCommand::blockListeners))
+                .then(register("rankCache", AdminCommand::rankCache))
                 .requires((serverCommandSource) -> serverCommandSource.hasPermissionLevel(2))
         );
     }
@@ -191,6 +202,54 @@ public class AdminCommand {
         return 0;
     }
 
+    private static int buildingQueue(CommandContext<ServerCommandSource> ctx) {
+        VillageManager villages = VillageManager.get(ctx.getSource().getWorld());
+        BuildingReportQueue queue = villages.getBuildingQueue();
+        success(String.format("%d queued, %d scanning, %d reported, %d skipped, %d dropped",
+                queue.size(),
+                villages.getPendingScans(),
+                queue.getReported(),
+                queue.getSkipped(),
+                queue.getDropped()
+        ), ctx);
+        return 0;
+    }
+
+    private static int networkStats(CommandContext<ServerCommandSource> ctx) {
+        if (!MessageStats.isEnabled()) {
+            fail("Network statistics are disabled, enable networkStats in the config.", ctx);
+            return 0;
+        }
+        for (MessageStats.Entry entry : MessageStats.getEntries()) {
+            success(entry.toString(), ctx);
+        }
+        return 0;
+    }
+
+    private static int checkNetworkCodecs(CommandContext<ServerCommandSource> ctx) {
+        MessageCodecCheck check = MessageCodecCheck.run();
+        for (String failure : check.getFailures()) {
+            fail(failure, ctx);
+        }
+        if (!check.getUnchecked().isEmpty()) {
+            success("No sample for: " + check.getUnchecked().stream().map(Class::getSimpleName).collect(Collectors.joining(", ")), ctx);
+        }
+        success(String.format("%d network codec(s) failed.", check.getFailures().size()), ctx);
+        return check.getFailures().isEmpty() ? 1 : 0;
+    }
+
+    private static int blockListeners(CommandContext<ServerCommandSource> ctx) {
+        for (BlockChangeDispatcher.Listener listener : VillageManager.get(ctx.getSource().getWorld()).getBlockChanges().getListeners()) {
+            success(listener.toString(), ctx);
+        }
+        return 0;
+    }
+
+    private static int rankCache(CommandContext<ServerCommandSource> ctx) {
+        success("Rank cache: " + VillageRanks.getStats(), ctx);
+        return 0;
+    }
+
     private static int resetPlayerData(CommandContext<ServerCommandSource> ctx) throws CommandSyntaxException {
         PlayerEntity player = ctx.getSource().getPlayer();
         PlayerSaveData playerData = PlayerSaveData.get(ctx.getSource().getWorld(), player.getUuid());
@@ -327,6 +386,11 @@ public class AdminCommand {
 
         sendMessage(player, WHITE + " /mca-admin listVillages " + GOLD + " - List all known villages.");
         sendMessage(player, WHITE + " /mca-admin removeVillage " + GOLD + " - Remove a given village.");
+        sendMessage(player, WHITE + " /mca-admin buildingQueue " + GOLD + " - Shows the state of the building processing queue.");
+        sendMessage(player, WHITE + " /mca-admin networkStats " + GOLD + " - Shows the size and timing of sent network messages.");
+        sendMessage(player, WHITE + " /mca-admin checkNetworkCodecs " + GOLD + " - Checks that every network message decodes what it encoded.");
+        sendMessage(player, WHITE + " /mca-admin blockListeners " + GOLD + " - Shows how many block changes each listener of this world received.");
+        sendMessage(player, WHITE + " /mca-admin rankCache " + GOLD + " - Shows how often village ranks were served from the cache.");
 
         sendMessage(player, DARK_RED + "--- " + GOLD + "GLOBAL COMMANDS" + DARK_RED + " ---");
         sendMessage(player, WHITE + " /mca-admin help " + GOLD + " - Shows this list of commands.");
@@ -0,0 +1,65 @@
+package mca.server.world.data;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import mca.Config;
+import mca.MCA;
+import net.minecraft.server.world.ServerWorld;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Runs the flood fill and type matching of a building on a worker thread, operating on a chunk snapshot and a detached copy of the building.
+ * <p>
+ * The result has to be committed on the server thread, after verifying that the snapshot is still current.
+ */
+public class AsyncBuildingScan {
+    private static final ExecutorService EXECUTOR = Executors.newFixedThreadPool(
+            Math.max(1, Config.getInstance().buildingScanThreads),
+            new ThreadFactoryBuilder().setNameFormat("MCA Building Scanner %d").setDaemon(true).build()
+    );
+
+    private final ChunkSnapshot snapshot;
+    private final Building candidate;
+    private final CompletableFuture<Building.validationResult> future;
+
+    public AsyncBuildingScan(ServerWorld world, Building candidate, BuildingScan scan) {
+        this.snapshot = ChunkSnapshot.capture(world, candidate.getSourceBlock(), Config.getInstance().buildingScanSnapshotRadius);
+        this.candidate = candidate;
+        this.future = CompletableFuture.supplyAsync(() -> {
+            scan.run(snapshot);
+            return candidate.applyScan(scan);
+        }, EXECUTOR);
+    }
+
+    public boolean isDone() {
+        return future.isDone();
+    }
+
+    /**
+     * @return the result, or null if the scan left the snapshot or failed otherwise
+     */
+    public Building.validationResult getResult() {
+        try {
+            return future.get();
+        } catch (InterruptedException | ExecutionException e) {
+            if (!(e.getCause() instanceof ChunkSnapshot.OutOfSnapshotException)) {
+                MCA.LOGGER.error("Building scan failed", e);
+            }
+            return null;
+        }
+    }
+
+    public ChunkSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    /**
+     * The detached building the result has been applied to.
+     */
+    public Building getCandidate() {
+        return candidate;
+    }
+}
@@ -0,0 +1,109 @@
+package mca.server.world.data;
+
+import net.minecraft.block.BlockState;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.util.math.BlockPos;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hands the block changes of a world to the listeners interested in them.
+ * <p>
+ * Filters run inline for every change and have to be cheap. Immediate listeners handle their hits right away,
+ * deferred ones receive them in a single batch once the server gets to its queued tasks.
+ */
+public class BlockChangeDispatcher {
+    private final ServerWorld world;
+
+    private final List<Listener> listeners = new ArrayList<>();
+
+    private final List<Hit> pending = new ArrayList<>();
+
+    public BlockChangeDispatcher(ServerWorld world) {
+        this.world = world;
+    }
+
+    /**
+     * Registers a listener handling its hits right away, still during the block change.
+     */
+    public void register(String name, Filter filter, Handler handler) {
+        listeners.add(new Listener(name, filter, handler, false));
+    }
+
+    /**
+     * Registers a listener whose hits are handled after the block change, when it is safe to modify the world.
+     */
+    public void registerDeferred(String name, Filter filter, Handler handler) {
+        listeners.add(new Listener(name, filter, handler, true));
+    }
+
+    public void onBlockChanged(BlockPos pos, BlockState oldState, BlockState newState) {
+        for (Listener listener : listeners) {
+            if (listener.filter.test(pos, oldState, newState)) {
+                listener.hits++;
+                if (listener.deferred) {
+                    if (pending.isEmpty()) {
+                        world.getServer().execute(this::flush);
+                    }
+                    pending.add(new Hit(listener, pos.toImmutable(), oldState, newState));
+                } else {
+                    listener.handler.accept(pos, oldState, newState);
+                }
+            }
+        }
+    }
+
+    private void flush() {
+        //handlers may cause further block changes, which start a new batch
+        List<Hit> hits = new ArrayList<>(pending);
+        pending.clear();
+        for (Hit hit : hits) {
+            hit.listener.handler.accept(hit.pos, hit.oldState, hit.newState);
+        }
+    }
+
+    public List<Listener> getListeners() {
+        return listeners;
+    }
+
+    public interface Filter {
+        boolean test(BlockPos pos, BlockState oldState, BlockState newState);
+    }
+
+    public interface Handler {
+        void accept(BlockPos pos, BlockState oldState, BlockState newState);
+    }
+
+    public static final class Listener {
+        private final String name;
+        private final Filter filter;
+        private final Handler handler;
+        private final boolean deferred;
+
+        private long hits;
+
+        Listener(String name, Filter filter, Handler handler, boolean deferred) {
+            this.name = name;
+            this.filter = filter;
+            this.handler = handler;
+            this.deferred = deferred;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public long getHits() {
+            return hits;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s: %d hits%s", name, hits, deferred ? " (deferred)" : "");
+        }
+    }
+
+    private record Hit(Listener listener, BlockPos pos, BlockState oldState, BlockState newState) {
+    }
+}
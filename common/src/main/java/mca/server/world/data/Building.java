@@ -1,14 +1,13 @@
 package mca.server.world.data;
 
-import mca.Config;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.longs.LongSet;
 import mca.resources.API;
 import mca.resources.data.BuildingType;
 import mca.util.NbtHelper;
 import net.minecraft.block.BedBlock;
 import net.minecraft.block.Block;
 import net.minecraft.block.BlockState;
-import net.minecraft.block.DoorBlock;
-import net.minecraft.block.enums.BedPart;
 import net.minecraft.entity.Entity;
 import net.minecraft.nbt.NbtCompound;
 import net.minecraft.nbt.NbtElement;
@@ -17,32 +16,32 @@ import net.minecraft.server.world.ServerWorld;
 import net.minecraft.tag.BlockTags;
 import net.minecraft.util.Identifier;
 import net.minecraft.util.math.BlockPos;
-import net.minecraft.util.math.Direction;
 import net.minecraft.util.math.Vec3i;
 import net.minecraft.util.registry.Registry;
 import net.minecraft.world.World;
 import net.minecraft.world.poi.PointOfInterest;
 import net.minecraft.world.poi.PointOfInterestStorage;
 import net.minecraft.world.poi.PointOfInterestType;
+import org.jetbrains.annotations.Nullable;
 
 import java.io.Serial;
 import java.io.Serializable;
 import java.util.*;
 import java.util.stream.Stream;
 
-import static net.minecraft.tag.BlockTags.LEAVES;
-
 public class Building implements Serializable, Iterable<UUID> {
     public static final long SCAN_COOLDOWN = 4800;
+    private static final Identifier BEDS = new Identifier("minecraft:beds");
     @Serial
     private static final long serialVersionUID = -1106627083469687307L;
-    private static final Direction[] directions = {
-            Direction.UP, Direction.DOWN, Direction.NORTH, Direction.EAST, Direction.SOUTH, Direction.WEST
-    };
 
     private final Map<UUID, String> residents = new HashMap<>();
     private final Map<Identifier, List<BlockPos>> blocks = new HashMap<>();
 
+    //packed positions of all blocks, built on first lookup and dropped whenever the blocks change
+    @Nullable
+    private transient LongSet positions;
+
     private String type = "building";
     private String forcedType = null;
 
@@ -54,6 +53,15 @@ public class Building implements Serializable, Iterable<UUID> {
     private boolean strictScan;
     private long lastScan;
 
+    //copies sent to the client carry the bed count, summaries also lack the block positions
+    private boolean detailed = true;
+    private boolean bedCountReceived;
+    private int bedCount;
+
+    //notified about changed residents, beds and everything else shown in the blueprint screen
+    @Nullable
+    private transient Village village;
+
     public Building() {
     }
 
@@ -109,15 +117,61 @@ public class Building implements Serializable, Iterable<UUID> {
             residents.put(c.getUuid("uuid"), c.getString("name"));
         }
 
+        if (v.contains("bedCount")) {
+            bedCountReceived = true;
+            bedCount = v.getInt("bedCount");
+            detailed = v.contains("blocks2");
+        }
+
         blocks.putAll(NbtHelper.toMap(v.getCompound("blocks2"),
                 Identifier::new,
                 l -> NbtHelper.toList(l, e -> {
                     NbtCompound c = (NbtCompound)e;
                     return new BlockPos(c.getInt("x"), c.getInt("y"), c.getInt("z"));
                 })));
+        updateBedCount();
     }
 
     public NbtCompound save() {
+        NbtCompound v = saveProperties();
+
+        NbtCompound b = new NbtCompound();
+        NbtHelper.fromMap(
+                b,
+                blocks,
+                Identifier::toString,
+                e -> NbtHelper.fromList(e, p -> {
+                    NbtCompound entry = new NbtCompound();
+                    entry.putInt("x", p.getX());
+                    entry.putInt("y", p.getY());
+                    entry.putInt("z", p.getZ());
+                    return entry;
+                })
+        );
+        v.put("blocks2", b);
+
+        return v;
+    }
+
+    /**
+     * The full building for the client, which can not count the beds itself.
+     */
+    public NbtCompound saveDetail() {
+        NbtCompound v = save();
+        v.putInt("bedCount", getBedCount());
+        return v;
+    }
+
+    /**
+     * Everything but the block positions, which the client requests on demand.
+     */
+    public NbtCompound saveSummary() {
+        NbtCompound v = saveProperties();
+        v.putInt("bedCount", getBedCount());
+        return v;
+    }
+
+    private NbtCompound saveProperties() {
         NbtCompound v = new NbtCompound();
         v.putInt("id", id);
         v.putInt("size", size);
@@ -142,31 +196,22 @@ public class Building implements Serializable, Iterable<UUID> {
             entry.putString("name", resident.getValue());
             return entry;
         }));
-
-        NbtCompound b = new NbtCompound();
-        NbtHelper.fromMap(
-                b,
-                blocks,
-                Identifier::toString,
-                e -> NbtHelper.fromList(e, p -> {
-                    NbtCompound entry = new NbtCompound();
-                    entry.putInt("x", p.getX());
-                    entry.putInt("y", p.getY());
-                    entry.putInt("z", p.getZ());
-                    return entry;
-                })
-        );
-        v.put("blocks2", b);
-
         return v;
     }
 
+    /**
+     * Whether the block positions are known, which is not the case for summaries.
+     */
+    public boolean isDetailed() {
+        return detailed;
+    }
+
     public boolean hasFreeSpace() {
-        return getBedCount() > getResidents().size();
+        return getBedCount() > residents.size();
     }
 
     public boolean isCrowded() {
-        return getBedCount() < getResidents().size();
+        return getBedCount() < residents.size();
     }
 
     public Stream<BlockPos> findEmptyBed(ServerWorld world) {
@@ -190,6 +235,27 @@ public class Building implements Serializable, Iterable<UUID> {
     public void addResident(Entity e) {
         if (!residents.containsKey(e.getUuid())) {
             residents.put(e.getUuid(), e.getName().getString());
+            if (village != null) {
+                village.onResidentsChanged(1);
+                village.onBuildingChanged(id);
+            }
+        }
+    }
+
+    public void removeResident(UUID uuid) {
+        if (residents.remove(uuid) != null && village != null) {
+            village.onResidentsChanged(-1);
+            village.onBuildingChanged(id);
+        }
+    }
+
+    void setVillage(@Nullable Village village) {
+        this.village = village;
+    }
+
+    private void markChanged() {
+        if (village != null) {
+            village.onBuildingChanged(id);
         }
     }
 
@@ -223,6 +289,9 @@ public class Building implements Serializable, Iterable<UUID> {
                     .toList();
             positions.getValue().removeAll(mask);
         }
+        this.positions = null;
+        updateBedCount();
+        markChanged();
     }
 
     public Stream<BlockPos> getBlockPosStream() {
@@ -248,6 +317,7 @@ public class Building implements Serializable, Iterable<UUID> {
             pos1Y = pos0Y;
             pos1Z = pos0Z;
         }
+        markChanged();
     }
 
     public enum validationResult {
@@ -261,162 +331,95 @@ public class Building implements Serializable, Iterable<UUID> {
         INVALID_TYPE
     }
 
-    public validationResult validateBuilding(World world, Set<BlockPos> blocked) {
-        //clear old building
-        blocks.clear();
-        size = 0;
+    public validationResult validateBuilding(World world, LongSet blocked, RoofCache roofs) {
+        BuildingScan scan = startScan(world, blocked, roofs);
+        scan.run(world);
+        return applyScan(scan);
+    }
 
+    /**
+     * Starts a new scan of this building, which may be advanced gradually before being applied using {@link #applyScan(BuildingScan)}.
+     */
+    public BuildingScan startScan(World world, LongSet blocked, RoofCache roofs) {
         setLastScan(world.getTime());
+        return new BuildingScan(getSourceBlock(), strictScan, blocked, roofs);
+    }
 
-        //temp data for flood fill
-        Set<BlockPos> done = new HashSet<>();
-        LinkedList<BlockPos> queue = new LinkedList<>();
-
-        //start point
-        BlockPos center = getSourceBlock();
-        queue.add(center);
-        done.add(center);
-
-        //const
-        final int maxSize = Config.getInstance().maxBuildingSize;
-        final int maxRadius = Config.getInstance().maxBuildingRadius;
-
-        //fill the building
-        int scanSize = 0;
-        int interiorSize = 0;
-        boolean hasDoor = false;
-        Map<BlockPos, Boolean> roofCache = new HashMap<>();
-        while (!queue.isEmpty() && scanSize < maxSize) {
-            BlockPos p = queue.removeLast();
-
-            //this block is marked as blocked, indicating an overlap
-            if (blocked.contains(p) && scanSize > 0) {
-                return validationResult.OVERLAP;
-            }
+    /**
+     * Creates a detached copy of this building, which can be scanned without affecting this one and applied later using {@link #applyScan(Building)}.
+     */
+    public Building copyForScan() {
+        Building building = new Building(getSourceBlock(), strictScan);
+        building.id = id;
+        building.type = type;
+        building.forcedType = forcedType;
+        return building;
+    }
 
-            //as long the max radius is not reached
-            if (p.getManhattanDistance(center) < maxRadius) {
-                for (Direction d : directions) {
-                    BlockPos n = p.offset(d);
-
-                    //and the block is not already checked
-                    if (!done.contains(n)) {
-                        BlockState state = world.getBlockState(n);
-
-                        //mark it
-                        done.add(n);
-
-                        //if not solid, continue
-                        if (state.isAir()) {
-                            if (!roofCache.containsKey(n)) {
-                                BlockPos n2 = n;
-                                int maxScanHeight = 16;
-                                for (int i = 0; i < maxScanHeight; i++) {
-                                    roofCache.put(n2, false);
-                                    n2 = n2.up();
-
-                                    //found valid block
-                                    BlockState block = world.getBlockState(n2);
-                                    if (!block.isAir() || roofCache.containsKey(n2)) {
-                                        if (!(roofCache.containsKey(n2) && !roofCache.get(n2)) && !block.isIn(LEAVES)) {
-                                            for (int i2 = i; i2 >= 0; i2--) {
-                                                n2 = n2.down();
-                                                roofCache.put(n2, true);
-                                            }
-                                        }
-                                        break;
-                                    }
-                                }
-                            }
-                            if (roofCache.get(n)) {
-                                interiorSize++;
-                                queue.add(n);
-                            }
-                        } else if (state.getBlock() instanceof DoorBlock) {
-                            //skip door and start a new room
-                            if (!strictScan) {
-                                queue.add(n);
-                            }
-                            hasDoor = true;
-                        }
-                    }
-                }
-            } else {
-                return validationResult.SIZE_LIMIT;
-            }
+    public void applyScan(Building scanned) {
+        blocks.clear();
+        blocks.putAll(scanned.blocks);
+        positions = null;
+        updateBedCount();
+        size = scanned.size;
+        updateType(scanned.type);
 
-            scanSize++;
-        }
+        pos0X = scanned.pos0X;
+        pos0Y = scanned.pos0Y;
+        pos0Z = scanned.pos0Z;
 
-        // min size is 32, which equals an 8 block big cube with 6 times 4 sides
-        if (!queue.isEmpty()) {
-            return validationResult.BLOCK_LIMIT;
-        } else if (done.size() <= 32) {
-            return validationResult.TOO_SMALL;
-        } else if (!hasDoor) {
-            return validationResult.NO_DOOR;
-        } else {
-            //fetch all interesting block types
-            Set<Identifier> blockTypes = new HashSet<>();
-            for (BuildingType bt : API.getVillagePool()) {
-                blockTypes.addAll(bt.getBlockToGroup().keySet());
-            }
+        pos1X = scanned.pos1X;
+        pos1Y = scanned.pos1Y;
+        pos1Z = scanned.pos1Z;
+        markChanged();
+    }
 
-            //dimensions
-            int sx = center.getX();
-            int sy = center.getY();
-            int sz = center.getZ();
-            int ex = sx;
-            int ey = sy;
-            int ez = sz;
-
-            for (BlockPos p : done) {
-                sx = Math.min(sx, p.getX());
-                sy = Math.min(sy, p.getY());
-                sz = Math.min(sz, p.getZ());
-                ex = Math.max(ex, p.getX());
-                ey = Math.max(ey, p.getY());
-                ez = Math.max(ez, p.getZ());
-
-                //count blocks types
-                BlockState blockState = world.getBlockState(p);
-                Block block = blockState.getBlock();
-                if (blockTypes.contains(Registry.BLOCK.getId(block))) {
-                    if (block instanceof BedBlock) {
-                        // TODO: look for better solution for 7.3.0
-                        if (blockState.get(BedBlock.PART) == BedPart.HEAD) {
-                            addBlock(block, p);
-                        }
-                    } else {
-                        addBlock(block, p);
-                    }
-                }
-            }
+    public validationResult applyScan(BuildingScan scan) {
+        markChanged();
 
-            //adjust building dimensions
-            pos0X = sx;
-            pos0Y = sy;
-            pos0Z = sz;
+        //clear old building
+        blocks.clear();
+        positions = null;
+        size = 0;
+        updateBedCount();
 
-            pos1X = ex;
-            pos1Y = ey;
-            pos1Z = ez;
+        validationResult result = scan.getResult();
+        if (result != validationResult.SUCCESS) {
+            return result;
+        }
 
-            size = interiorSize;
+        //count blocks types
+        scan.getFoundBlocks().long2ObjectEntrySet().forEach(entry ->
+                putBlock(entry.getValue(), BlockPos.fromLong(entry.getLongKey()))
+        );
+        updateBedCount();
 
-            //determine type
-            boolean assignedType = false;
-            if (!type.equals("blocked")) {
-                assignedType = determineType();
-            }
+        //adjust building dimensions
+        BlockPos min = scan.getMin();
+        pos0X = min.getX();
+        pos0Y = min.getY();
+        pos0Z = min.getZ();
 
-            return assignedType ? validationResult.SUCCESS : validationResult.INVALID_TYPE;
+        BlockPos max = scan.getMax();
+        pos1X = max.getX();
+        pos1Y = max.getY();
+        pos1Z = max.getZ();
+
+        size = scan.getInteriorSize();
+
+        //determine type
+        boolean assignedType = false;
+        if (!type.equals("blocked")) {
+            assignedType = determineType();
         }
+
+        return assignedType ? validationResult.SUCCESS : validationResult.INVALID_TYPE;
     }
 
     public boolean determineType() {
         int bestPriority = -1;
         boolean assignedType = false;
+        String bestType = type;
 
         for (BuildingType bt : API.getVillagePool()) {
             final boolean checkingForcedType = forcedType != null && forcedType.equalsIgnoreCase(bt.name());
@@ -426,7 +429,7 @@ public class Building implements Serializable, Iterable<UUID> {
                 boolean valid = bt.getGroups().entrySet().stream().noneMatch(e -> !available.containsKey(e.getKey()) || available.get(e.getKey()).size() < e.getValue());
                 if (valid) {
                     bestPriority = bt.priority();
-                    type = bt.name();
+                    bestType = bt.name();
                     assignedType = true;
 
                     if (checkingForcedType) {
@@ -437,6 +440,7 @@ public class Building implements Serializable, Iterable<UUID> {
                 }
             }
         }
+        updateType(bestType);
         return assignedType;
     }
 
@@ -453,13 +457,27 @@ public class Building implements Serializable, Iterable<UUID> {
     }
 
     public void setType(String type) {
+        updateType(type);
+    }
+
+    private void updateType(String type) {
+        if (village != null && !this.type.equals(type)) {
+            village.onTypeChanged();
+            village.onBuildingChanged(id);
+        }
         this.type = type;
     }
 
-    public void setForcedType(String type) { this.forcedType = type; }
+    public void setForcedType(String type) {
+        this.forcedType = type;
+        markChanged();
+    }
 
+    /**
+     * The residents by uuid and name, modified using {@link #addResident(Entity)} and {@link #removeResident(UUID)} only.
+     */
     public Map<UUID, String> getResidents() {
-        return residents;
+        return Collections.unmodifiableMap(residents);
     }
 
     @Override
@@ -476,17 +494,27 @@ public class Building implements Serializable, Iterable<UUID> {
     }
 
     public void addBlock(Block block, BlockPos p) {
+        putBlock(block, p);
+        updateBedCount();
+        markChanged();
+    }
+
+    private void putBlock(Block block, BlockPos p) {
         Identifier key = Registry.BLOCK.getId(block);
         if (!blocks.containsKey(key)) {
             blocks.put(key, new ArrayList<>());
         }
         blocks.get(key).add(p);
+        positions = null;
     }
 
     public void removeBlock(Block block, BlockPos p) {
         Identifier key = Registry.BLOCK.getId(block);
         if (blocks.containsKey(key)) {
             blocks.get(key).remove(p);
+            positions = null;
+            updateBedCount();
+            markChanged();
         }
     }
 
@@ -502,6 +530,17 @@ public class Building implements Serializable, Iterable<UUID> {
         return pos1X > b.pos0X && pos0X < b.pos1X && pos1Y > b.pos0Y && pos0Y < b.pos1Y && pos1Z > b.pos0Z && pos0Z < b.pos1Z;
     }
 
+    /**
+     * Whether the given position is one of the blocks of this building, used for grouped buildings which have no meaningful bounds.
+     */
+    public boolean containsBlock(BlockPos pos) {
+        if (positions == null) {
+            positions = new LongOpenHashSet();
+            blocks.values().forEach(list -> list.forEach(p -> positions.add(p.asLong())));
+        }
+        return positions.contains(pos.asLong());
+    }
+
     public boolean containsPos(Vec3i pos) {
         return pos.getX() >= pos0X && pos.getX() <= pos1X
                 && pos.getY() >= pos0Y && pos.getY() <= pos1Y
@@ -513,7 +552,28 @@ public class Building implements Serializable, Iterable<UUID> {
     }
 
     public int getBedCount() {
-        return getBlocksOfGroup(new Identifier("minecraft:beds")).size();
+        return bedCount;
+    }
+
+    //recounts the beds after the blocks or the building types changed, client copies keep the received count
+    void updateBedCount() {
+        if (bedCountReceived) {
+            return;
+        }
+
+        Map<Identifier, Identifier> groups = API.getVillagePool().getBuildingType("?").getBlockToGroup();
+        int beds = 0;
+        for (Map.Entry<Identifier, List<BlockPos>> entry : blocks.entrySet()) {
+            if (BEDS.equals(groups.get(entry.getKey()))) {
+                beds += entry.getValue().size();
+            }
+        }
+
+        if (village != null && beds != bedCount) {
+            village.onBedsChanged(beds - bedCount);
+            village.onBuildingChanged(id);
+        }
+        bedCount = beds;
     }
 
     @Deprecated
@@ -0,0 +1,124 @@
+package mca.server.world.data;
+
+import it.unimi.dsi.fastutil.longs.Long2LongMap;
+import it.unimi.dsi.fastutil.longs.Long2LongOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.longs.LongSet;
+import mca.Config;
+import net.minecraft.util.math.BlockPos;
+
+import java.util.Comparator;
+import java.util.TreeSet;
+
+/**
+ * Bounded queue of positions which might be part of a building, the ones closest to a player are processed first.
+ * <p>
+ * Positions are deduplicated while queued and remembered for a while after being processed, so villagers reporting
+ * the same points of interest again and again do not cause repeated scans.
+ */
+public class BuildingReportQueue {
+    private final TreeSet<Report> queue = new TreeSet<>(Comparator.comparingDouble(Report::distance).thenComparingLong(Report::pos));
+    private final LongSet queued = new LongOpenHashSet();
+    private final Long2LongMap processed = new Long2LongOpenHashMap();
+
+    private long reported;
+    private long skipped;
+    private long dropped;
+
+    /**
+     * @param pos      the reported position
+     * @param distance squared distance to the closest player, used as priority
+     * @param time     current world time
+     *
+     * @return false if the position has been skipped or dropped
+     */
+    public boolean offer(BlockPos pos, double distance, long time) {
+        long l = pos.asLong();
+        if (isKnown(l, time)) {
+            skipped++;
+            return false;
+        }
+
+        reported++;
+        queue.add(new Report(l, distance));
+        queued.add(l);
+
+        //drop the least important one
+        if (queue.size() > Config.getInstance().buildingQueueCapacity) {
+            Report last = queue.pollLast();
+            if (last != null) {
+                queued.remove(last.pos());
+                dropped++;
+                return last.pos() != l;
+            }
+        }
+
+        return true;
+    }
+
+    public void skip() {
+        skipped++;
+    }
+
+    public BlockPos poll(long time) {
+        Report report = queue.pollFirst();
+        if (report == null) {
+            return null;
+        }
+        queued.remove(report.pos());
+        processed.put(report.pos(), time);
+        return BlockPos.fromLong(report.pos());
+    }
+
+    /**
+     * Whether the position is already queued or has been processed recently.
+     */
+    public boolean isKnown(BlockPos pos, long time) {
+        return isKnown(pos.asLong(), time);
+    }
+
+    private boolean isKnown(long pos, long time) {
+        if (queued.contains(pos)) {
+            return true;
+        }
+        long processedAt = processed.getOrDefault(pos, Long.MIN_VALUE);
+        return processedAt != Long.MIN_VALUE && time - processedAt <= Building.SCAN_COOLDOWN;
+    }
+
+    /**
+     * Forgets about processed positions whose cooldown has passed.
+     */
+    public void purge(long time) {
+        processed.long2LongEntrySet().removeIf(e -> time - e.getLongValue() > Building.SCAN_COOLDOWN);
+    }
+
+    /**
+     * Forgets about all processed positions, pending reports stay queued.
+     */
+    public void resetCooldowns() {
+        processed.clear();
+    }
+
+    public boolean isEmpty() {
+        return queue.isEmpty();
+    }
+
+    public int size() {
+        return queue.size();
+    }
+
+    public long getReported() {
+        return reported;
+    }
+
+    public long getSkipped() {
+        return skipped;
+    }
+
+    public long getDropped() {
+        return dropped;
+    }
+
+    private record Report(long pos, double distance) {
+    }
+}
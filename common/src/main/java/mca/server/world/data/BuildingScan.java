@@ -0,0 +1,228 @@
+package mca.server.world.data;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.longs.LongSet;
+import mca.Config;
+import mca.resources.API;
+import mca.resources.data.BuildingType;
+import net.minecraft.block.BedBlock;
+import net.minecraft.block.Block;
+import net.minecraft.block.BlockState;
+import net.minecraft.block.DoorBlock;
+import net.minecraft.block.enums.BedPart;
+import net.minecraft.util.Identifier;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.Direction;
+import net.minecraft.util.registry.Registry;
+import net.minecraft.world.BlockView;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * A resumable flood fill over the interior of a building.
+ * <p>
+ * The scan can be advanced a limited amount of block visits at a time, so large buildings can be spread across several ticks.
+ * Positions are stored as packed longs to avoid creating BlockPos instances for every visited block.
+ */
+public class BuildingScan {
+    private static final Direction[] directions = {
+            Direction.UP, Direction.DOWN, Direction.NORTH, Direction.EAST, Direction.SOUTH, Direction.WEST
+    };
+
+    private final long center;
+    private final boolean strictScan;
+    private final LongSet blocked;
+    private final RoofCache roofs;
+
+    private final int maxSize = Config.getInstance().maxBuildingSize;
+    private final int maxRadius = Config.getInstance().maxBuildingRadius;
+    private final Set<Identifier> blockTypes = new HashSet<>();
+
+    //temp data for flood fill
+    private final LongSet done = new LongOpenHashSet();
+    private final LongArrayList queue = new LongArrayList();
+    private final Long2ObjectMap<Block> foundBlocks = new Long2ObjectOpenHashMap<>();
+
+    private final BlockPos.Mutable pos = new BlockPos.Mutable();
+
+    private int scanSize;
+    private int interiorSize;
+    private boolean hasDoor;
+
+    private int minX, minY, minZ;
+    private int maxX, maxY, maxZ;
+
+    private boolean started;
+    private Building.validationResult result;
+
+    public BuildingScan(BlockPos center, boolean strictScan, LongSet blocked, RoofCache roofs) {
+        this.center = center.asLong();
+        this.strictScan = strictScan;
+        this.blocked = blocked;
+        this.roofs = roofs;
+
+        minX = maxX = center.getX();
+        minY = maxY = center.getY();
+        minZ = maxZ = center.getZ();
+
+        //fetch all interesting block types
+        for (BuildingType bt : API.getVillagePool()) {
+            blockTypes.addAll(bt.getBlockToGroup().keySet());
+        }
+    }
+
+    /**
+     * Continues the scan.
+     *
+     * @param world  the world, or a snapshot of it, to scan in
+     * @param visits the maximum amount of positions to expand in this step
+     *
+     * @return true if the scan has finished
+     */
+    public boolean step(BlockView world, int visits) {
+        if (result != null) {
+            return true;
+        }
+
+        if (!started) {
+            started = true;
+            queue.add(center);
+            markDone(center, world.getBlockState(pos.set(center)));
+        }
+
+        int centerX = BlockPos.unpackLongX(center);
+        int centerY = BlockPos.unpackLongY(center);
+        int centerZ = BlockPos.unpackLongZ(center);
+
+        while (!queue.isEmpty() && scanSize < maxSize) {
+            if (visits-- <= 0) {
+                return false;
+            }
+
+            long p = queue.removeLong(queue.size() - 1);
+
+            //this block is marked as blocked, indicating an overlap
+            if (blocked.contains(p) && scanSize > 0) {
+                return finish(Building.validationResult.OVERLAP);
+            }
+
+            //as long the max radius is not reached
+            int px = BlockPos.unpackLongX(p);
+            int py = BlockPos.unpackLongY(p);
+            int pz = BlockPos.unpackLongZ(p);
+            if (Math.abs(px - centerX) + Math.abs(py - centerY) + Math.abs(pz - centerZ) >= maxRadius) {
+                return finish(Building.validationResult.SIZE_LIMIT);
+            }
+
+            for (Direction d : directions) {
+                long n = BlockPos.offset(p, d);
+
+                //and the block is not already checked
+                if (!done.contains(n)) {
+                    BlockState state = world.getBlockState(pos.set(n));
+
+                    //mark it
+                    markDone(n, state);
+
+                    //if not solid, continue
+                    if (state.isAir()) {
+                        if (roofs.hasRoof(world, pos.getX(), pos.getY(), pos.getZ())) {
+                            interiorSize++;
+                            queue.add(n);
+                        }
+                    } else if (state.getBlock() instanceof DoorBlock) {
+                        //skip door and start a new room
+                        if (!strictScan) {
+                            queue.add(n);
+                        }
+                        hasDoor = true;
+                    }
+                }
+            }
+
+            scanSize++;
+        }
+
+        // min size is 32, which equals an 8 block big cube with 6 times 4 sides
+        if (!queue.isEmpty()) {
+            return finish(Building.validationResult.BLOCK_LIMIT);
+        } else if (done.size() <= 32) {
+            return finish(Building.validationResult.TOO_SMALL);
+        } else if (!hasDoor) {
+            return finish(Building.validationResult.NO_DOOR);
+        } else {
+            return finish(Building.validationResult.SUCCESS);
+        }
+    }
+
+    /**
+     * Runs the scan until it finishes.
+     */
+    public Building.validationResult run(BlockView world) {
+        step(world, Integer.MAX_VALUE);
+        return result;
+    }
+
+    private boolean finish(Building.validationResult result) {
+        this.result = result;
+        queue.clear();
+        return true;
+    }
+
+    private void markDone(long p, BlockState state) {
+        done.add(p);
+
+        int x = BlockPos.unpackLongX(p);
+        int y = BlockPos.unpackLongY(p);
+        int z = BlockPos.unpackLongZ(p);
+        minX = Math.min(minX, x);
+        minY = Math.min(minY, y);
+        minZ = Math.min(minZ, z);
+        maxX = Math.max(maxX, x);
+        maxY = Math.max(maxY, y);
+        maxZ = Math.max(maxZ, z);
+
+        //remember blocks types relevant for building types
+        if (!state.isAir()) {
+            Block block = state.getBlock();
+            if (blockTypes.contains(Registry.BLOCK.getId(block))) {
+                // TODO: look for better solution for 7.3.0
+                if (!(block instanceof BedBlock) || state.get(BedBlock.PART) == BedPart.HEAD) {
+                    foundBlocks.put(p, block);
+                }
+            }
+        }
+    }
+
+    public LongSet getBlocked() {
+        return blocked;
+    }
+
+    public boolean isFinished() {
+        return result != null;
+    }
+
+    public Building.validationResult getResult() {
+        return result;
+    }
+
+    public Long2ObjectMap<Block> getFoundBlocks() {
+        return foundBlocks;
+    }
+
+    public int getInteriorSize() {
+        return interiorSize;
+    }
+
+    public BlockPos getMin() {
+        return new BlockPos(minX, minY, minZ);
+    }
+
+    public BlockPos getMax() {
+        return new BlockPos(maxX, maxY, maxZ);
+    }
+}
@@ -0,0 +1,157 @@
+package mca.server.world.data;
+
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import it.unimi.dsi.fastutil.longs.LongList;
+import net.minecraft.block.BlockState;
+import net.minecraft.block.Blocks;
+import net.minecraft.block.entity.BlockEntity;
+import net.minecraft.fluid.FluidState;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.util.math.ChunkSectionPos;
+import net.minecraft.world.BlockView;
+import net.minecraft.world.chunk.Chunk;
+import net.minecraft.world.chunk.ChunkSection;
+import net.minecraft.world.chunk.ChunkStatus;
+import net.minecraft.world.chunk.PalettedContainer;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * A read-only copy of the block states of the chunk sections around a position, safe to be read from other threads.
+ * <p>
+ * Reading outside the captured area throws an {@link OutOfSnapshotException}.
+ */
+public class ChunkSnapshot implements BlockView {
+    private static final BlockState AIR = Blocks.AIR.getDefaultState();
+
+    private final int minChunkX, minChunkZ;
+    private final int minSection;
+    private final int sizeX, sizeY, sizeZ;
+
+    private final int bottomY;
+    private final int height;
+
+    private final long time;
+    private final LongList chunks = new LongArrayList();
+
+    private final boolean[] captured;
+    private final PalettedContainer<BlockState>[] sections;
+
+    @SuppressWarnings("unchecked")
+    private ChunkSnapshot(ServerWorld world, BlockPos center, int radius) {
+        int chunkX = ChunkSectionPos.getSectionCoord(center.getX());
+        int chunkZ = ChunkSectionPos.getSectionCoord(center.getZ());
+
+        minChunkX = chunkX - radius;
+        minChunkZ = chunkZ - radius;
+        minSection = Math.max(world.getBottomSectionCoord(), ChunkSectionPos.getSectionCoord(center.getY()) - radius);
+        int maxSection = Math.min(world.getTopSectionCoord() - 1, ChunkSectionPos.getSectionCoord(center.getY()) + radius);
+
+        sizeX = radius * 2 + 1;
+        sizeZ = radius * 2 + 1;
+        sizeY = maxSection - minSection + 1;
+
+        bottomY = world.getBottomY();
+        height = world.getHeight();
+        time = world.getTime();
+
+        captured = new boolean[sizeX * sizeZ];
+        sections = new PalettedContainer[sizeX * sizeY * sizeZ];
+
+        for (int x = 0; x < sizeX; x++) {
+            for (int z = 0; z < sizeZ; z++) {
+                //only loaded chunks are captured
+                Chunk chunk = world.getChunk(minChunkX + x, minChunkZ + z, ChunkStatus.FULL, false);
+                if (chunk == null) {
+                    continue;
+                }
+
+                captured[x * sizeZ + z] = true;
+                chunks.add(ChunkPos.toLong(minChunkX + x, minChunkZ + z));
+
+                ChunkSection[] array = chunk.getSectionArray();
+                for (int y = 0; y < sizeY; y++) {
+                    ChunkSection section = array[chunk.sectionCoordToIndex(minSection + y)];
+                    if (section != null && !section.isEmpty()) {
+                        sections[(x * sizeZ + z) * sizeY + y] = section.getBlockStateContainer().copy();
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Captures all loaded chunk sections within the given radius, in sections, around the center.
+     */
+    public static ChunkSnapshot capture(ServerWorld world, BlockPos center, int radius) {
+        return new ChunkSnapshot(world, center, radius);
+    }
+
+    @Override
+    public BlockState getBlockState(BlockPos pos) {
+        int x = ChunkSectionPos.getSectionCoord(pos.getX()) - minChunkX;
+        int y = ChunkSectionPos.getSectionCoord(pos.getY()) - minSection;
+        int z = ChunkSectionPos.getSectionCoord(pos.getZ()) - minChunkZ;
+
+        if (x < 0 || x >= sizeX || z < 0 || z >= sizeZ || !captured[x * sizeZ + z]) {
+            throw new OutOfSnapshotException();
+        }
+
+        //outside the vertical world limits
+        if (pos.getY() < bottomY || pos.getY() >= bottomY + height) {
+            return AIR;
+        }
+
+        if (y < 0 || y >= sizeY) {
+            throw new OutOfSnapshotException();
+        }
+
+        PalettedContainer<BlockState> section = sections[(x * sizeZ + z) * sizeY + y];
+        if (section == null) {
+            return AIR;
+        }
+        return section.get(pos.getX() & 15, pos.getY() & 15, pos.getZ() & 15);
+    }
+
+    @Override
+    public FluidState getFluidState(BlockPos pos) {
+        return getBlockState(pos).getFluidState();
+    }
+
+    @Nullable
+    @Override
+    public BlockEntity getBlockEntity(BlockPos pos) {
+        return null;
+    }
+
+    @Override
+    public int getHeight() {
+        return height;
+    }
+
+    @Override
+    public int getBottomY() {
+        return bottomY;
+    }
+
+    /**
+     * The world time at which this snapshot has been taken.
+     */
+    public long getTime() {
+        return time;
+    }
+
+    /**
+     * The packed positions of all captured chunks.
+     */
+    public LongList getChunks() {
+        return chunks;
+    }
+
+    public static class OutOfSnapshotException extends RuntimeException {
+        public OutOfSnapshotException() {
+            super("Position is outside of the captured chunk sections", null, false, false);
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package mca.server.world.data;
+
+import mca.entity.EntitiesMCA;
+import mca.entity.VillagerEntityMCA;
+import net.minecraft.entity.mob.MobEntity;
+import net.minecraft.nbt.NbtCompound;
+import net.minecraft.server.world.ServerWorld;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Generates random default entity data for players, reusing one villager instead of building a new one each time.
+ * <p>
+ * Owned by the world the villager lives in, so it is released together with the world.
+ */
+public class EntityDataTemplate {
+    private final ServerWorld world;
+
+    @Nullable
+    private VillagerEntityMCA villager;
+    //the data of the villager right after creation
+    private NbtCompound initialData;
+
+    public EntityDataTemplate(ServerWorld world) {
+        this.world = world;
+    }
+
+    public NbtCompound create() {
+        if (villager == null) {
+            villager = EntitiesMCA.MALE_VILLAGER.get().create(world);
+            assert villager != null;
+            initialData = new NbtCompound();
+            ((MobEntity)villager).writeCustomDataToNbt(initialData);
+        } else {
+            //reset whatever the last randomization changed
+            ((MobEntity)villager).readCustomDataFromNbt(initialData.copy());
+        }
+
+        villager.initializeSkin();
+        villager.getGenetics().randomize();
+        villager.getTraits().randomize();
+        villager.getVillagerBrain().randomize();
+
+        NbtCompound nbt = new NbtCompound();
+        ((MobEntity)villager).writeCustomDataToNbt(nbt);
+        return nbt;
+    }
+}
@@ -0,0 +1,208 @@
+package mca.server.world.data;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectLinkedOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongIterator;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.longs.LongSet;
+import net.minecraft.block.BlockState;
+import net.minecraft.block.Blocks;
+import net.minecraft.block.CropBlock;
+import net.minecraft.block.GourdBlock;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.tag.BlockTags;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.util.math.ChunkSectionPos;
+import net.minecraft.world.chunk.Chunk;
+import net.minecraft.world.chunk.ChunkSection;
+import net.minecraft.world.chunk.ChunkStatus;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.function.Predicate;
+
+/**
+ * Tracks crop, gourd and farmland positions per chunk, so harvesters can look up the nearest one instead of scanning the area around them.
+ * <p>
+ * Chunks are indexed on first query, skipping sections without any farm blocks, and are kept up to date by block changes afterwards.
+ * Unloaded chunks are dropped and indexed again once queried after loading, as they may have changed on disk in the meantime.
+ * The amount of indexed chunks is limited, the least recently queried ones are dropped first.
+ */
+public class FarmIndex {
+    private static final int MAX_CHUNKS = 4096;
+
+    private final ServerWorld world;
+
+    private final Long2ObjectLinkedOpenHashMap<ChunkFarms> chunks = new Long2ObjectLinkedOpenHashMap<>();
+
+    public FarmIndex(ServerWorld world) {
+        this.world = world;
+    }
+
+    public static boolean isCrop(BlockState state) {
+        return state.isIn(BlockTags.CROPS) || state.getBlock() instanceof GourdBlock;
+    }
+
+    public static boolean isMature(BlockState state) {
+        return (state.getBlock() instanceof CropBlock crop && crop.isMature(state)) || state.getBlock() instanceof GourdBlock;
+    }
+
+    public static boolean isFarmland(BlockState state) {
+        return state.isOf(Blocks.FARMLAND);
+    }
+
+    public static boolean isIndexed(BlockState state) {
+        return isCrop(state) || isFarmland(state);
+    }
+
+    public void onBlockChanged(BlockPos pos, BlockState oldState, BlockState newState) {
+        //not indexed chunks will be scanned once needed
+        ChunkFarms farms = chunks.get(ChunkPos.toLong(ChunkSectionPos.getSectionCoord(pos.getX()), ChunkSectionPos.getSectionCoord(pos.getZ())));
+        if (farms != null) {
+            farms.update(pos.asLong(), newState);
+        }
+    }
+
+    public void onChunkUnloaded(ChunkPos pos) {
+        chunks.remove(pos.toLong());
+    }
+
+    public void clear() {
+        chunks.clear();
+    }
+
+    /**
+     * Returns the nearest crop or gourd within range, excluding the origin itself.
+     */
+    @Nullable
+    public BlockPos findCrop(BlockPos origin, int rangeXZ, int rangeY, boolean matureOnly) {
+        return findNearest(origin, rangeXZ, rangeY, matureOnly ? Type.MATURE : Type.CROP, null);
+    }
+
+    /**
+     * Returns the nearest farmland within range which matches the filter, excluding the origin itself.
+     */
+    @Nullable
+    public BlockPos findFarmland(BlockPos origin, int rangeXZ, int rangeY, Predicate<BlockPos> filter) {
+        return findNearest(origin, rangeXZ, rangeY, Type.FARMLAND, filter);
+    }
+
+    @Nullable
+    private BlockPos findNearest(BlockPos origin, int rangeXZ, int rangeY, Type type, @Nullable Predicate<BlockPos> filter) {
+        long originPos = origin.asLong();
+        long nearest = 0;
+        long nearestDistance = Long.MAX_VALUE;
+        BlockPos.Mutable mutable = new BlockPos.Mutable();
+
+        int minChunkX = ChunkSectionPos.getSectionCoord(origin.getX() - rangeXZ);
+        int maxChunkX = ChunkSectionPos.getSectionCoord(origin.getX() + rangeXZ);
+        int minChunkZ = ChunkSectionPos.getSectionCoord(origin.getZ() - rangeXZ);
+        int maxChunkZ = ChunkSectionPos.getSectionCoord(origin.getZ() + rangeXZ);
+
+        for (int cx = minChunkX; cx <= maxChunkX; cx++) {
+            for (int cz = minChunkZ; cz <= maxChunkZ; cz++) {
+                ChunkFarms farms = getFarms(cx, cz);
+                if (farms == null) {
+                    continue;
+                }
+
+                LongIterator iterator = farms.get(type).iterator();
+                while (iterator.hasNext()) {
+                    long pos = iterator.nextLong();
+                    int dx = BlockPos.unpackLongX(pos) - origin.getX();
+                    int dy = BlockPos.unpackLongY(pos) - origin.getY();
+                    int dz = BlockPos.unpackLongZ(pos) - origin.getZ();
+                    if (pos == originPos || Math.abs(dx) > rangeXZ || Math.abs(dy) > rangeY || Math.abs(dz) > rangeXZ) {
+                        continue;
+                    }
+
+                    long distance = (long)dx * dx + (long)dy * dy + (long)dz * dz;
+                    if (distance < nearestDistance && (filter == null || filter.test(mutable.set(pos)))) {
+                        nearest = pos;
+                        nearestDistance = distance;
+                    }
+                }
+            }
+        }
+
+        return nearestDistance == Long.MAX_VALUE ? null : BlockPos.fromLong(nearest);
+    }
+
+    @Nullable
+    private ChunkFarms getFarms(int chunkX, int chunkZ) {
+        long key = ChunkPos.toLong(chunkX, chunkZ);
+        ChunkFarms farms = chunks.getAndMoveToLast(key);
+        if (farms == null) {
+            //only loaded chunks are indexed
+            Chunk chunk = world.getChunk(chunkX, chunkZ, ChunkStatus.FULL, false);
+            if (chunk == null) {
+                return null;
+            }
+
+            if (chunks.size() >= MAX_CHUNKS) {
+                chunks.removeFirst();
+            }
+            farms = new ChunkFarms(chunk);
+            chunks.putAndMoveToLast(key, farms);
+        }
+        return farms;
+    }
+
+    private enum Type {
+        CROP,
+        MATURE,
+        FARMLAND
+    }
+
+    private static class ChunkFarms {
+        private final LongSet crops = new LongOpenHashSet();
+        private final LongSet mature = new LongOpenHashSet();
+        private final LongSet farmland = new LongOpenHashSet();
+
+        ChunkFarms(Chunk chunk) {
+            ChunkSection[] sections = chunk.getSectionArray();
+            int startX = chunk.getPos().getStartX();
+            int startZ = chunk.getPos().getStartZ();
+            for (int i = 0; i < sections.length; i++) {
+                ChunkSection section = sections[i];
+                if (section == null || section.isEmpty() || !section.hasAny(FarmIndex::isIndexed)) {
+                    continue;
+                }
+
+                int startY = ChunkSectionPos.getBlockCoord(chunk.sectionIndexToCoord(i));
+                for (int y = 0; y < 16; y++) {
+                    for (int z = 0; z < 16; z++) {
+                        for (int x = 0; x < 16; x++) {
+                            BlockState state = section.getBlockState(x, y, z);
+                            if (isIndexed(state)) {
+                                update(BlockPos.asLong(startX + x, startY + y, startZ + z), state);
+                            }
+                        }
+                    }
+                }
+            }
+        }
+
+        void update(long pos, BlockState state) {
+            crops.remove(pos);
+            mature.remove(pos);
+            farmland.remove(pos);
+
+            if (isCrop(state)) {
+                crops.add(pos);
+                if (isMature(state)) {
+                    mature.add(pos);
+                }
+            } else if (isFarmland(state)) {
+                farmland.add(pos);
+            }
+        }
+
+        LongSet get(Type type) {
+            return switch (type) {
+                case CROP -> crops;
+                case MATURE -> mature;
+                case FARMLAND -> farmland;
+            };
+        }
+    }
+}
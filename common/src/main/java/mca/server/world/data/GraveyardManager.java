@@ -158,7 +158,7 @@ public class GraveyardManager extends PersistentState {
         GraveyardManager.get((ServerWorld)entity.world)
                 .findAll(entity.getBoundingBox().expand(24D), true, true)
                 .stream()
-                .filter(p -> !manager.cache.contains(p))
+                .filter(manager::shouldReport)
                 .forEach(manager::processBuilding);
     }
 
@@ -0,0 +1,306 @@
+package mca.server.world.data;
+
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import it.unimi.dsi.fastutil.longs.LongList;
+import it.unimi.dsi.fastutil.objects.Object2LongMap;
+import it.unimi.dsi.fastutil.objects.Object2LongOpenHashMap;
+import mca.Config;
+import mca.MCA;
+import mca.util.WorldUtils;
+import net.minecraft.SharedConstants;
+import net.minecraft.nbt.NbtCompound;
+import net.minecraft.nbt.NbtIo;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.util.WorldSavePath;
+import net.minecraft.world.PersistentState;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.BitSet;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Stores all {@link PlayerSaveData} records in one region file, addressed by an index of sector offsets.
+ * <p>
+ * Records are loaded on demand and kept in a small LRU, records of players who logged off are evicted first.
+ * Records handed out since the last save are never evicted, as their holders may still modify them.
+ * Only dirty records are written on save, into free sectors, so a crash never leaves the index pointing to a half written record.
+ * The old one file per player layout is converted when the store is created.
+ */
+public class PlayerDataStore extends PersistentState {
+    private static final String DATA_ID = "mca_players";
+    private static final String REGION_FILE = "mca_players.region";
+    private static final String LEGACY_PREFIX = "mca_player_";
+
+    private static final int SECTOR_SIZE = 1024;
+
+    private final ServerWorld world;
+    private final File directory;
+
+    //packed sector offset and count
+    private final Object2LongMap<UUID> index = new Object2LongOpenHashMap<>();
+    private final BitSet usedSectors = new BitSet();
+    private final LongList released = new LongArrayList();
+
+    private final LinkedHashMap<UUID, PlayerSaveData> loaded = new LinkedHashMap<>(16, 0.75f, true);
+    private final Set<UUID> pinned = new HashSet<>();
+
+    public static PlayerDataStore get(ServerWorld world) {
+        ServerWorld overworld = world.getServer().getOverworld();
+        return WorldUtils.loadData(overworld, nbt -> new PlayerDataStore(overworld, nbt), PlayerDataStore::new, DATA_ID);
+    }
+
+    PlayerDataStore(ServerWorld world) {
+        this.world = world;
+        this.directory = world.getServer().getSavePath(WorldSavePath.ROOT).resolve("data").toFile();
+        convertLegacy();
+    }
+
+    PlayerDataStore(ServerWorld world, NbtCompound nbt) {
+        this.world = world;
+        this.directory = world.getServer().getSavePath(WorldSavePath.ROOT).resolve("data").toFile();
+
+        NbtCompound records = nbt.getCompound("records");
+        for (String key : records.getKeys()) {
+            int[] entry = records.getIntArray(key);
+            if (entry.length == 2) {
+                index.put(UUID.fromString(key), pack(entry[0], entry[1]));
+                usedSectors.set(entry[0], entry[0] + entry[1]);
+            }
+        }
+    }
+
+    /**
+     * Returns the record of the given player, loading it from the region file or creating a new one.
+     */
+    public PlayerSaveData get(UUID uuid) {
+        PlayerSaveData data = loaded.get(uuid);
+        if (data == null) {
+            trim(null);
+            NbtCompound nbt = read(uuid);
+            data = nbt == null ? new PlayerSaveData(world, uuid) : new PlayerSaveData(world, nbt);
+            loaded.put(uuid, data);
+        }
+        pinned.add(uuid);
+        return data;
+    }
+
+    /**
+     * Evicts records exceeding the cache size, the player just logged off and may be evicted too.
+     */
+    public void onPlayerLeave(UUID uuid) {
+        trim(uuid);
+    }
+
+    private void trim(@Nullable UUID leaving) {
+        int capacity = Math.max(1, Config.getInstance().playerDataCacheSize);
+        if (loaded.size() <= capacity) {
+            return;
+        }
+
+        Iterator<Map.Entry<UUID, PlayerSaveData>> iterator = loaded.entrySet().iterator();
+        while (loaded.size() > capacity && iterator.hasNext()) {
+            Map.Entry<UUID, PlayerSaveData> entry = iterator.next();
+
+            //online players and records which may still be modified stay loaded
+            if (pinned.contains(entry.getKey()) || !entry.getKey().equals(leaving) && world.getServer().getPlayerManager().getPlayer(entry.getKey()) != null) {
+                continue;
+            }
+
+            if (entry.getValue().isDirty() && !write(entry.getKey(), entry.getValue())) {
+                continue;
+            }
+            iterator.remove();
+        }
+    }
+
+    public int getLoadedCount() {
+        return loaded.size();
+    }
+
+    public int getRecordCount() {
+        return index.size();
+    }
+
+    @Override
+    public boolean isDirty() {
+        if (super.isDirty()) {
+            return true;
+        }
+        for (PlayerSaveData data : loaded.values()) {
+            if (data.isDirty()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public NbtCompound writeNbt(NbtCompound nbt) {
+        //records go first, the index written below has to point to them
+        loaded.forEach((uuid, data) -> {
+            if (data.isDirty()) {
+                write(uuid, data);
+            }
+        });
+        pinned.clear();
+        trim(null);
+
+        NbtCompound records = new NbtCompound();
+        index.forEach((uuid, entry) -> records.putIntArray(uuid.toString(), new int[] {getOffset(entry), getCount(entry)}));
+        nbt.put("records", records);
+        return nbt;
+    }
+
+    @Nullable
+    private NbtCompound read(UUID uuid) {
+        long entry = index.getOrDefault(uuid, -1);
+        if (entry == -1) {
+            return null;
+        }
+
+        try (RandomAccessFile file = new RandomAccessFile(getRegionFile(), "r")) {
+            file.seek((long)getOffset(entry) * SECTOR_SIZE);
+            byte[] bytes = new byte[file.readInt()];
+            file.readFully(bytes);
+            return NbtIo.readCompressed(new ByteArrayInputStream(bytes));
+        } catch (IOException e) {
+            MCA.LOGGER.error("Failed to read player data of " + uuid, e);
+            return null;
+        }
+    }
+
+    private boolean write(UUID uuid, PlayerSaveData data) {
+        if (!write(uuid, data.writeNbt(new NbtCompound()))) {
+            return false;
+        }
+        data.setDirty(false);
+        return true;
+    }
+
+    private boolean write(UUID uuid, NbtCompound nbt) {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            NbtIo.writeCompressed(nbt, bytes);
+
+            int count = (bytes.size() + Integer.BYTES + SECTOR_SIZE - 1) / SECTOR_SIZE;
+            int offset = allocate(count);
+
+            try (RandomAccessFile file = new RandomAccessFile(getRegionFile(), "rw")) {
+                file.seek((long)offset * SECTOR_SIZE);
+                file.writeInt(bytes.size());
+                file.write(bytes.toByteArray());
+            }
+
+            //the old sectors stay reserved until the index has been saved
+            if (index.containsKey(uuid)) {
+                released.add(index.getLong(uuid));
+            }
+            index.put(uuid, pack(offset, count));
+            markDirty();
+            return true;
+        } catch (IOException e) {
+            MCA.LOGGER.error("Failed to write player data of " + uuid, e);
+            return false;
+        }
+    }
+
+    @Override
+    public void save(File file) {
+        if (isDirty()) {
+            saveIndex(file);
+        }
+    }
+
+    /**
+     * Writes the index, the sectors it no longer points to are only freed once the write succeeded.
+     */
+    private boolean saveIndex(File file) {
+        NbtCompound nbt = new NbtCompound();
+        nbt.put("data", writeNbt(new NbtCompound()));
+        nbt.putInt("DataVersion", SharedConstants.getGameVersion().getWorldVersion());
+        try {
+            NbtIo.writeCompressed(nbt, file);
+        } catch (IOException e) {
+            MCA.LOGGER.error("Failed to save player data index", e);
+            return false;
+        }
+        setDirty(false);
+
+        for (int i = 0; i < released.size(); i++) {
+            long entry = released.getLong(i);
+            usedSectors.clear(getOffset(entry), getOffset(entry) + getCount(entry));
+        }
+        released.clear();
+        return true;
+    }
+
+    private int allocate(int count) {
+        int start = usedSectors.nextClearBit(0);
+        while (true) {
+            int end = usedSectors.nextSetBit(start);
+            if (end == -1 || end - start >= count) {
+                usedSectors.set(start, start + count);
+                return start;
+            }
+            start = usedSectors.nextClearBit(end);
+        }
+    }
+
+    private File getRegionFile() {
+        return new File(directory, REGION_FILE);
+    }
+
+    /**
+     * Moves all records of the per player file layout into the region file, the old files are deleted once the index has been saved.
+     */
+    private void convertLegacy() {
+        File[] files = directory.listFiles((dir, name) -> name.startsWith(LEGACY_PREFIX) && name.endsWith(".dat"));
+        if (files == null || files.length == 0) {
+            return;
+        }
+
+        Map<File, UUID> converted = new LinkedHashMap<>();
+        for (File f : files) {
+            String name = f.getName();
+            try {
+                UUID uuid = UUID.fromString(name.substring(LEGACY_PREFIX.length(), name.length() - 4));
+                if (write(uuid, NbtIo.readCompressed(f).getCompound("data"))) {
+                    converted.put(f, uuid);
+                }
+            } catch (IOException | IllegalArgumentException e) {
+                MCA.LOGGER.error("Failed to convert player data " + name, e);
+            }
+        }
+
+        //the old files are the only copy until the index points to the converted records
+        if (!saveIndex(new File(directory, DATA_ID + ".dat"))) {
+            MCA.LOGGER.error("Keeping {} player data files, they will be converted again on the next load", converted.size());
+            return;
+        }
+        converted.keySet().forEach(File::delete);
+
+        MCA.LOGGER.info("Converted {} player data files into {}", converted.size(), REGION_FILE);
+    }
+
+    private static long pack(int offset, int count) {
+        return (long)offset << 32 | count & 0xFFFFFFFFL;
+    }
+
+    private static int getOffset(long entry) {
+        return (int)(entry >> 32);
+    }
+
+    private static int getCount(long entry) {
+        return (int)entry;
+    }
+}
@@ -3,7 +3,6 @@ package mca.server.world.data;
 import mca.Config;
 import mca.advancement.criterion.CriterionMCA;
 import mca.cobalt.network.NetworkHandler;
-import mca.entity.EntitiesMCA;
 import mca.entity.VillagerEntityMCA;
 import mca.entity.ai.relationship.EntityRelationship;
 import mca.entity.ai.relationship.MarriageState;
@@ -19,7 +18,6 @@ import mca.util.NbtHelper;
 import mca.util.WorldUtils;
 import net.minecraft.entity.Entity;
 import net.minecraft.entity.damage.DamageSource;
-import net.minecraft.entity.mob.MobEntity;
 import net.minecraft.entity.player.PlayerEntity;
 import net.minecraft.item.ItemStack;
 import net.minecraft.nbt.NbtCompound;
@@ -54,11 +52,15 @@ public class PlayerSaveData extends PersistentState implements EntityRelationshi
     private Optional<Integer> lastSeenVillage = Optional.empty();
 
     private boolean entityDataSet;
+    @Nullable
     private NbtCompound entityData;
 
     private final List<NbtCompound> inbox = new LinkedList<>();
 
     public static PlayerSaveData get(ServerWorld world, UUID uuid) {
+        if (Config.getInstance().useIndexedPlayerData) {
+            return PlayerDataStore.get(world).get(uuid);
+        }
         return WorldUtils.loadData(world.getServer().getOverworld(), nbt -> new PlayerSaveData(world, nbt), w -> new PlayerSaveData(w, uuid), "mca_player_" + uuid.toString());
     }
 
@@ -67,7 +69,6 @@ public class PlayerSaveData extends PersistentState implements EntityRelationshi
         this.world = world;
         this.playerId = playerId;
         this.marriageState = MarriageState.SINGLE;
-        resetEntityData();
     }
 
     PlayerSaveData(ServerWorld world, NbtCompound nbt) {
@@ -81,8 +82,6 @@ public class PlayerSaveData extends PersistentState implements EntityRelationshi
 
         if (nbt.contains("entityData")) {
             entityData = nbt.getCompound("entityData");
-        } else {
-            resetEntityData();
         }
 
         NbtList inbox = nbt.getList("inbox", NbtElement.COMPOUND_TYPE);
@@ -94,23 +93,16 @@ public class PlayerSaveData extends PersistentState implements EntityRelationshi
         }
     }
 
-    private void resetEntityData() {
-        entityData = new NbtCompound();
-
-        VillagerEntityMCA villager = EntitiesMCA.MALE_VILLAGER.get().create(world);
-        assert villager != null;
-        villager.initializeSkin();
-        villager.getGenetics().randomize();
-        villager.getTraits().randomize();
-        villager.getVillagerBrain().randomize();
-        ((MobEntity)villager).writeCustomDataToNbt(entityData);
-    }
-
     public boolean isEntityDataSet() {
         return entityDataSet;
     }
 
     public NbtCompound getEntityData() {
+        //generated on first use only, most players never need it
+        if (entityData == null) {
+            entityData = VillageManager.get(world).getEntityTemplate().create();
+            markDirty();
+        }
         return entityData;
     }
 
@@ -272,7 +264,9 @@ public class PlayerSaveData extends PersistentState implements EntityRelationshi
         spouseUUID.ifPresent(id -> nbt.putUuid("spouseUUID", id));
         lastSeenVillage.ifPresent(id -> nbt.putInt("lastSeenVillage", id));
         spouseName.ifPresent(n -> nbt.putString("spouseName", n.getString()));
-        nbt.put("entityData", entityData);
+        if (entityData != null) {
+            nbt.put("entityData", entityData);
+        }
         nbt.putBoolean("entityDataSet", entityDataSet);
         nbt.put("inbox", NbtHelper.fromList(inbox, v -> v));
         nbt.putInt("marriageState", marriageState.ordinal());
@@ -0,0 +1,91 @@
+package mca.server.world.data;
+
+import it.unimi.dsi.fastutil.ints.Int2IntMap;
+import it.unimi.dsi.fastutil.ints.Int2IntOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectLinkedOpenHashMap;
+import net.minecraft.block.BlockState;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.world.BlockView;
+
+import static net.minecraft.tag.BlockTags.LEAVES;
+
+/**
+ * Remembers the roof above air blocks, shared by all building scans of a world.
+ * <p>
+ * Entries are grouped by column, a block change drops the whole column since it may affect every air block below it.
+ * The amount of remembered columns is limited, the least recently used ones are dropped first.
+ */
+public class RoofCache {
+    public static final int MAX_ROOF_HEIGHT = 16;
+
+    private static final int MAX_COLUMNS = 65536;
+    private static final int UNKNOWN = Integer.MIN_VALUE;
+    private static final int NO_ROOF = Integer.MAX_VALUE;
+
+    private final Long2ObjectLinkedOpenHashMap<Int2IntMap> columns = new Long2ObjectLinkedOpenHashMap<>();
+
+    private final BlockPos.Mutable mutable = new BlockPos.Mutable();
+
+    /**
+     * Returns whether the given air block has a solid, non leaves block above it within {@link #MAX_ROOF_HEIGHT} blocks.
+     */
+    public boolean hasRoof(BlockView world, int x, int y, int z) {
+        Int2IntMap column = getColumn(x, z);
+
+        int roof = column.get(y);
+        if (roof == UNKNOWN) {
+            roof = NO_ROOF;
+            for (int i = 1; i <= MAX_ROOF_HEIGHT; i++) {
+                //another air block above has been probed already, its roof is ours too
+                int cached = column.get(y + i);
+                if (cached != UNKNOWN) {
+                    if (cached != NO_ROOF && (cached >> 1) - y <= MAX_ROOF_HEIGHT) {
+                        roof = cached;
+                    }
+                    break;
+                }
+
+                //found the first non air block
+                BlockState state = world.getBlockState(mutable.set(x, y + i, z));
+                if (!state.isAir()) {
+                    roof = (y + i) << 1 | (state.isIn(LEAVES) ? 1 : 0);
+                    break;
+                }
+            }
+
+            //every air block in between shares the same roof
+            if (roof != NO_ROOF) {
+                for (int y2 = y; y2 < roof >> 1; y2++) {
+                    column.put(y2, roof);
+                }
+            } else {
+                column.put(y, roof);
+            }
+        }
+
+        return roof != NO_ROOF && (roof & 1) == 0;
+    }
+
+    public void invalidate(BlockPos pos) {
+        columns.remove(ChunkPos.toLong(pos.getX(), pos.getZ()));
+    }
+
+    public void clear() {
+        columns.clear();
+    }
+
+    private Int2IntMap getColumn(int x, int z) {
+        long key = ChunkPos.toLong(x, z);
+        Int2IntMap column = columns.getAndMoveToLast(key);
+        if (column == null) {
+            if (columns.size() >= MAX_COLUMNS) {
+                columns.removeFirst();
+            }
+            column = new Int2IntOpenHashMap();
+            column.defaultReturnValue(UNKNOWN);
+            columns.putAndMoveToLast(key, column);
+        }
+        return column;
+    }
+}
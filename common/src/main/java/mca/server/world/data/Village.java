@@ -1,5 +1,7 @@
 package mca.server.world.data;
 
+import it.unimi.dsi.fastutil.ints.IntOpenHashSet;
+import it.unimi.dsi.fastutil.ints.IntSet;
 import mca.Config;
 import mca.entity.EquipmentSet;
 import mca.entity.VillagerEntityMCA;
@@ -8,7 +10,6 @@ import mca.entity.ai.ProfessionsMCA;
 import mca.entity.ai.relationship.Gender;
 import mca.entity.ai.relationship.family.FamilyTree;
 import mca.resources.API;
-import mca.resources.PoolUtil;
 import mca.resources.Rank;
 import mca.resources.Tasks;
 import mca.util.BlockBoxExtended;
@@ -35,8 +36,10 @@ import net.minecraft.util.math.BlockPos;
 import net.minecraft.util.math.MathHelper;
 import net.minecraft.util.math.Vec3i;
 import net.minecraft.village.VillagerProfession;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.*;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -65,8 +68,21 @@ public class Village implements Iterable<Building> {
 
     private boolean autoScan = true;
 
+    private final VillageResidents residents = new VillageResidents();
+
+    private final VillageRanks ranks = new VillageRanks(this);
+
+    //sums over all buildings, kept up to date by the buildings themselves
+    private int population;
+    private int maxPopulation;
+
     private BlockBoxExtended box = new BlockBoxExtended(0, 0, 0, 0, 0, 0);
 
+    //changes not yet sent to the viewers of the blueprint screen
+    private boolean settingsChanged;
+    private final IntSet changedBuildings = new IntOpenHashSet();
+    private final IntSet removedBuildings = new IntOpenHashSet();
+
     public Village() {
     }
 
@@ -87,7 +103,7 @@ public class Village implements Iterable<Building> {
     }
 
     public boolean isWithinBorder(BlockPos pos, int margin) {
-        return box.expand(margin).contains(pos);
+        return box.contains(pos, margin, margin, margin);
     }
 
     @Override
@@ -95,13 +111,86 @@ public class Village implements Iterable<Building> {
         return buildings.values().iterator();
     }
 
+    public void putBuilding(Building building) {
+        Building old = buildings.put(building.getId(), building);
+        if (old != null) {
+            detach(old);
+        }
+
+        building.setVillage(this);
+        population += building.getResidents().size();
+        maxPopulation += building.getBedCount();
+        ranks.invalidate();
+        onBuildingChanged(building.getId());
+    }
+
     public void removeBuilding(int id) {
-        buildings.remove(id);
+        Building building = buildings.remove(id);
+        if (building != null) {
+            detach(building);
+            building.getResidents().keySet().forEach(residents::leave);
+            ranks.invalidate();
+            changedBuildings.remove(id);
+            removedBuildings.add(id);
+        }
         if (!buildings.isEmpty()) {
             calculateDimensions();
         }
     }
 
+    private void detach(Building building) {
+        building.setVillage(null);
+        population -= building.getResidents().size();
+        maxPopulation -= building.getBedCount();
+    }
+
+    void onResidentsChanged(int delta) {
+        population += delta;
+        ranks.invalidate();
+    }
+
+    void onBedsChanged(int delta) {
+        maxPopulation += delta;
+    }
+
+    /**
+     * Recounts the beds of all buildings, since reloaded building types may count other blocks as beds.
+     */
+    public void recountBeds() {
+        buildings.values().forEach(Building::updateBedCount);
+    }
+
+    void onTypeChanged() {
+        ranks.invalidate();
+    }
+
+    void onBuildingChanged(int id) {
+        changedBuildings.add(id);
+        removedBuildings.remove(id);
+    }
+
+    boolean hasChanges() {
+        return settingsChanged || !changedBuildings.isEmpty() || !removedBuildings.isEmpty();
+    }
+
+    boolean isSettingsChanged() {
+        return settingsChanged;
+    }
+
+    IntSet getChangedBuildings() {
+        return changedBuildings;
+    }
+
+    IntSet getRemovedBuildings() {
+        return removedBuildings;
+    }
+
+    void clearChanges() {
+        settingsChanged = false;
+        changedBuildings.clear();
+        removedBuildings.clear();
+    }
+
     public Stream<Building> getBuildingsOfType(String type) {
         return getBuildings().values().stream().filter(b -> b.getType().equals(type));
     }
@@ -146,6 +235,7 @@ public class Village implements Iterable<Building> {
 
     public void setTaxes(int taxes) {
         this.taxes = taxes;
+        settingsChanged = true;
     }
 
     public int getPopulationThreshold() {
@@ -154,6 +244,7 @@ public class Village implements Iterable<Building> {
 
     public void setPopulationThreshold(int populationThreshold) {
         this.populationThreshold = populationThreshold;
+        settingsChanged = true;
     }
 
     public int getMarriageThreshold() {
@@ -162,6 +253,7 @@ public class Village implements Iterable<Building> {
 
     public void setMarriageThreshold(int marriageThreshold) {
         this.marriageThreshold = marriageThreshold;
+        settingsChanged = true;
     }
 
     public boolean isAutoScan() {
@@ -170,6 +262,7 @@ public class Village implements Iterable<Building> {
 
     public void setAutoScan(boolean autoScan) {
         this.autoScan = autoScan;
+        settingsChanged = true;
     }
 
     public void toggleAutoScan() {
@@ -182,10 +275,14 @@ public class Village implements Iterable<Building> {
 
     public void setName(String name) {
         this.name = name;
+        settingsChanged = true;
     }
 
+    /**
+     * The buildings by id, modified using {@link #putBuilding(Building)} and {@link #removeBuilding(int)} only.
+     */
     public Map<Integer, Building> getBuildings() {
-        return buildings;
+        return Collections.unmodifiableMap(buildings);
     }
 
     public Optional<Building> getBuilding(int id) {
@@ -197,11 +294,7 @@ public class Village implements Iterable<Building> {
     }
 
     public int getPopulation() {
-        int residents = 0;
-        for (Building b : this) {
-            residents += b.getResidents().size();
-        }
-        return residents;
+        return population;
     }
 
     public Stream<UUID> getResidentsUUIDs() {
@@ -210,20 +303,22 @@ public class Village implements Iterable<Building> {
                 .flatMap(building -> building.getResidents().keySet().stream());
     }
 
-    public List<VillagerEntityMCA> getResidents(ServerWorld world) {
-        return getResidentsUUIDs()
-                .map(world::getEntity)
-                .filter(v -> v instanceof VillagerEntityMCA)
-                .map(VillagerEntityMCA.class::cast)
-                .collect(Collectors.toList());
+    /**
+     * The currently loaded residents.
+     */
+    public VillageResidents getResidents() {
+        return residents;
+    }
+
+    /**
+     * The cached ranks and completed tasks of the players, see {@link Tasks#getRank}.
+     */
+    public VillageRanks getRanks() {
+        return ranks;
     }
 
     public int getMaxPopulation() {
-        int residents = 0;
-        for (Building b : this) {
-            residents += b.getBedCount();
-        }
-        return residents;
+        return maxPopulation;
     }
 
     public boolean hasStoredResource() {
@@ -295,6 +390,7 @@ public class Village implements Iterable<Building> {
         }
 
         if (isVillageUpdateTime && lastMoveIn + MOVE_IN_COOLDOWN < time) {
+            residents.update();
             spawnGuards(world);
             procreate(world);
             marry(world);
@@ -373,29 +469,29 @@ public class Village implements Iterable<Building> {
         int guardCapacity = getPopulation() / Config.getInstance().guardSpawnRate;
 
         // Count up the guards
-        int guards = 0;
-        int citizen = 0;
-        List<VillagerEntityMCA> villagers = getResidents(world);
-        List<VillagerEntityMCA> nonGuards = new LinkedList<>();
-        for (VillagerEntityMCA villager : villagers) {
-            if (villager.isGuard()) {
-                guards++;
-            } else {
-                if (!villager.isBaby() && !villager.isProfessionImportant() && villager.getExperience() == 0 && villager.getVillagerData().getLevel() <= 1) {
-                    nonGuards.add(villager);
-                }
-                citizen++;
-            }
-        }
+        int guards = residents.getGuards();
+        int citizen = residents.size() - guards;
 
         // Count all unloaded villagers against the guard limit
         // This is statistical and may not be accurate, but it's better than nothing
         guards += Math.ceil((getPopulation() - guards - citizen) / (float)Config.getInstance().guardSpawnRate);
 
-        // Spawn a new guard if we don't have enough
-        if (nonGuards.size() > 0 && guards < guardCapacity) {
-            VillagerEntityMCA villager = nonGuards.get(world.random.nextInt(nonGuards.size()));
-            villager.setProfession(guards % 2 == 0 ? ProfessionsMCA.GUARD.get() : ProfessionsMCA.ARCHER.get());
+        if (guards >= guardCapacity) {
+            return;
+        }
+
+        // Spawn a new guard if we don't have enough, picking a random citizen on the way
+        VillagerEntityMCA candidate = null;
+        int candidates = 0;
+        for (VillagerEntityMCA villager : residents) {
+            if (!villager.isGuard() && !villager.isBaby() && !villager.isProfessionImportant() && villager.getExperience() == 0 && villager.getVillagerData().getLevel() <= 1) {
+                if (world.random.nextInt(++candidates) == 0) {
+                    candidate = villager;
+                }
+            }
+        }
+        if (candidate != null) {
+            candidate.setProfession(guards % 2 == 0 ? ProfessionsMCA.GUARD.get() : ProfessionsMCA.ARCHER.get());
         }
     }
 
@@ -412,7 +508,7 @@ public class Village implements Iterable<Building> {
         }
 
         // look for married women without baby
-        PoolUtil.pick(getResidents(world), world.random)
+        residents.pick(world.random)
                 .filter(villager -> villager.getGenetics().getGender() == Gender.FEMALE)
                 .filter(villager -> world.random.nextFloat () < 1.0 / (FamilyTree.get(world).getOrCreate(villager).getChildren().count() + 0.1))
                 .filter(villager -> villager.getRelationships().getPregnancy().tryStartGestation())
@@ -429,33 +525,55 @@ public class Village implements Iterable<Building> {
             return;
         }
 
-        //list all and lonely villagers
-        List<VillagerEntityMCA> allVillagers = getResidents(world);
-        List<VillagerEntityMCA> availableVillagers = allVillagers.stream()
-                .filter(v -> !v.getRelationships().isMarried() && !v.isBaby())
-                .collect(Collectors.toList());
-
-        if (availableVillagers.size() <= 1 || availableVillagers.size() < allVillagers.size() * getMarriageThreshold() / 100f) {
+        //count all and lonely villagers
+        int available = residents.size() - residents.getBabies() - residents.getMarriedAdults();
+        if (available <= 1 || available < residents.size() * getMarriageThreshold() / 100f) {
             return; // The village is too small.
         }
 
         //use the one with the least max hearts
         //this feels random yet respects relationships
-        availableVillagers.sort(Comparator.comparingInt(a -> a.getVillagerBrain().getMemories().values().stream().map(Memories::getHearts).max(Integer::compare).orElse(0)));
-
-        VillagerEntityMCA suitor = availableVillagers.remove(0);
+        VillagerEntityMCA suitor = findLonely(v -> true);
+        if (suitor == null) {
+            return;
+        }
 
         // Find a potential mate
-        availableVillagers.stream()
-                .filter(i -> suitor.getGenetics().getGender().isMutuallyAttracted(i.getGenetics().getGender()))
-                .filter(i -> !suitor.getRelationships().getFamilyEntry().isRelative(i.getUuid()))
-                .findFirst().ifPresent(mate -> {
-                    suitor.getRelationships().marry(mate);
-                    mate.getRelationships().marry(suitor);
+        VillagerEntityMCA mate = findLonely(i -> i != suitor
+                && suitor.getGenetics().getGender().isMutuallyAttracted(i.getGenetics().getGender())
+                && !suitor.getRelationships().getFamilyEntry().isRelative(i.getUuid()));
+        if (mate != null) {
+            suitor.getRelationships().marry(mate);
+            mate.getRelationships().marry(suitor);
+
+            // tell everyone about it
+            suitor.sendEventMessage(new TranslatableText("events.marry", suitor.getName(), mate.getName()));
+        }
+    }
 
-                    // tell everyone about it
-                    suitor.sendEventMessage(new TranslatableText("events.marry", suitor.getName(), mate.getName()));
-                });
+    //the unmarried adult with the least max hearts matching the filter
+    @Nullable
+    private VillagerEntityMCA findLonely(Predicate<VillagerEntityMCA> filter) {
+        VillagerEntityMCA best = null;
+        int bestHearts = Integer.MAX_VALUE;
+        for (VillagerEntityMCA v : residents) {
+            if (!v.getRelationships().isMarried() && !v.isBaby() && filter.test(v)) {
+                int hearts = getMaxHearts(v);
+                if (hearts < bestHearts) {
+                    bestHearts = hearts;
+                    best = v;
+                }
+            }
+        }
+        return best;
+    }
+
+    private static int getMaxHearts(VillagerEntityMCA villager) {
+        int max = Integer.MIN_VALUE;
+        for (Memories memories : villager.getVillagerBrain().getMemories().values()) {
+            max = Math.max(max, memories.getHearts());
+        }
+        return max == Integer.MIN_VALUE ? 0 : max;
     }
 
     public void markDirty(ServerWorld world) {
@@ -466,6 +584,7 @@ public class Village implements Iterable<Building> {
         removeResident(villager);
         lastMoveIn = villager.world.getTime();
         buildings.get(buildingId).addResident(villager);
+        residents.join(villager);
         markDirty((ServerWorld)villager.world);
     }
 
@@ -474,7 +593,8 @@ public class Village implements Iterable<Building> {
     }
 
     public void removeResident(UUID uuid) {
-        buildings.values().forEach(b -> b.getResidents().remove(uuid));
+        buildings.values().forEach(b -> b.removeResident(uuid));
+        residents.leave(uuid);
     }
 
     public EquipmentSet getGuardEquipment(VillagerProfession profession) {
@@ -510,10 +630,12 @@ public class Village implements Iterable<Building> {
                 map.remove(uuid);
             }
         }
+        ranks.invalidate();
     }
 
     public void setReputation(PlayerEntity player, VillagerEntityMCA villager, int rep) {
         reputation.computeIfAbsent(player.getUuid(), i -> new HashMap<>()).put(villager.getUuid(), rep);
+        ranks.invalidate(player.getUuid());
         markDirty((ServerWorld)player.world);
     }
 
@@ -526,6 +648,7 @@ public class Village implements Iterable<Building> {
 
     public void resetHearts(PlayerEntity player) {
         unspentHearts.remove(player.getUuid());
+        ranks.invalidate(player.getUuid());
         markDirty((ServerWorld)player.world);
     }
 
@@ -536,11 +659,13 @@ public class Village implements Iterable<Building> {
 
     public void pushHearts(UUID player, int rep) {
         unspentHearts.put(player, unspentHearts.getOrDefault(player, 0) + rep);
+        ranks.invalidate(player);
     }
 
     public int popHearts(PlayerEntity player) {
         int v = unspentHearts.getOrDefault(player.getUuid(), 0);
         int step = (int)Math.ceil(Math.abs(((double)v) / getPopulation()));
+        ranks.invalidate(player.getUuid());
         if (v > 0) {
             v -= step;
             if (v == 0) {
@@ -585,31 +710,43 @@ public class Village implements Iterable<Building> {
     }
 
     public NbtCompound save() {
-        NbtCompound v = new NbtCompound();
-        v.putInt("id", id);
-        v.putString("name", name);
-        v.putInt("taxes", taxes);
+        NbtCompound v = saveSettings();
         v.put("unspentHearts", NbtHelper.fromMap(new NbtCompound(), unspentHearts, UUID::toString, NbtInt::of));
         v.put("reputation", NbtHelper.fromMap(new NbtCompound(), reputation, UUID::toString, i ->
                 NbtHelper.fromMap(new NbtCompound(), i, UUID::toString, NbtInt::of)
         ));
         v.putInt("unspentMood", unspentMood);
+        v.put("buildings", NbtHelper.fromList(buildings.values(), Building::save));
+        return v;
+    }
+
+    /**
+     * A trimmed copy for the blueprint screen, without reputations and block positions.
+     */
+    public NbtCompound saveSummary() {
+        NbtCompound v = saveSettings();
+        v.put("buildings", NbtHelper.fromList(buildings.values(), Building::saveSummary));
+        return v;
+    }
+
+    /**
+     * The name and the settings shown in the blueprint screen.
+     */
+    public NbtCompound saveSettings() {
+        NbtCompound v = new NbtCompound();
+        v.putInt("id", id);
+        v.putString("name", name);
+        v.putInt("taxes", taxes);
         v.putInt("populationThreshold", populationThreshold);
         v.putInt("marriageThreshold", marriageThreshold);
-        v.put("buildings", NbtHelper.fromList(buildings.values(), Building::save));
         v.putBoolean("autoScan", autoScan);
         return v;
     }
 
-    public void load(NbtCompound v) {
+    public void loadSettings(NbtCompound v) {
         id = v.getInt("id");
         name = v.getString("name");
         taxes = v.getInt("taxes");
-        unspentHearts = NbtHelper.toMap(v.getCompound("unspentHearts"), UUID::fromString, i -> ((NbtInt)i).intValue());
-        reputation = NbtHelper.toMap(v.getCompound("reputation"), UUID::fromString, i ->
-                NbtHelper.toMap((NbtCompound)i, UUID::fromString, i2 -> ((NbtInt)i2).intValue())
-        );
-        unspentMood = v.getInt("unspentMood");
         populationThreshold = v.getInt("populationThreshold");
         marriageThreshold = v.getInt("marriageThreshold");
 
@@ -618,11 +755,20 @@ public class Village implements Iterable<Building> {
         } else {
             autoScan = true;
         }
+    }
+
+    public void load(NbtCompound v) {
+        loadSettings(v);
+        unspentHearts = NbtHelper.toMap(v.getCompound("unspentHearts"), UUID::fromString, i -> ((NbtInt)i).intValue());
+        reputation = NbtHelper.toMap(v.getCompound("reputation"), UUID::fromString, i ->
+                NbtHelper.toMap((NbtCompound)i, UUID::fromString, i2 -> ((NbtInt)i2).intValue())
+        );
+        unspentMood = v.getInt("unspentMood");
+        ranks.invalidate();
 
         NbtList b = v.getList("buildings", NbtElement.COMPOUND_TYPE);
         for (int i = 0; i < b.size(); i++) {
-            Building building = new Building(b.getCompound(i));
-            buildings.put(building.getId(), building);
+            putBuilding(new Building(b.getCompound(i)));
         }
 
         if (!buildings.isEmpty()) {
@@ -631,7 +777,8 @@ public class Village implements Iterable<Building> {
     }
 
     public void merge(Village village) {
-        buildings.putAll(village.buildings);
+        village.buildings.values().forEach(this::putBuilding);
+        village.residents.transferTo(residents);
         unspentMood += village.unspentMood;
         calculateDimensions();
     }
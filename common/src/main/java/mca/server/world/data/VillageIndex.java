@@ -0,0 +1,96 @@
+package mca.server.world.data;
+
+import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.ints.IntOpenHashSet;
+import it.unimi.dsi.fastutil.ints.IntSet;
+import it.unimi.dsi.fastutil.ints.IntSets;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import net.minecraft.util.math.BlockBox;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.util.math.Vec3i;
+
+/**
+ * A coarse horizontal grid mapping regions to the ids of villages whose bounds touch them.
+ * <p>
+ * Villages are registered with their bounds expanded by {@link #MAX_MARGIN}, so every village
+ * within that margin of a position is guaranteed to be listed in the region of that position.
+ * Lookups only return candidates, the exact bounds still have to be checked by the caller.
+ */
+class VillageIndex {
+    public static final int MAX_MARGIN = Village.MERGE_MARGIN;
+
+    private static final int REGION_SHIFT = 6;
+
+    private final Long2ObjectMap<IntSet> regions = new Long2ObjectOpenHashMap<>();
+    private final Int2ObjectMap<int[]> indexed = new Int2ObjectOpenHashMap<>();
+
+    /**
+     * Adds the village or updates its region coverage after its bounds changed.
+     */
+    public void put(Village village) {
+        remove(village.getId());
+
+        BlockBox box = village.getBox();
+        int[] bounds = {
+                (box.getMinX() - MAX_MARGIN) >> REGION_SHIFT,
+                (box.getMinZ() - MAX_MARGIN) >> REGION_SHIFT,
+                (box.getMaxX() + MAX_MARGIN) >> REGION_SHIFT,
+                (box.getMaxZ() + MAX_MARGIN) >> REGION_SHIFT
+        };
+        indexed.put(village.getId(), bounds);
+
+        for (int x = bounds[0]; x <= bounds[2]; x++) {
+            for (int z = bounds[1]; z <= bounds[3]; z++) {
+                regions.computeIfAbsent(ChunkPos.toLong(x, z), l -> new IntOpenHashSet()).add(village.getId());
+            }
+        }
+    }
+
+    public void remove(int id) {
+        int[] bounds = indexed.remove(id);
+        if (bounds == null) {
+            return;
+        }
+
+        for (int x = bounds[0]; x <= bounds[2]; x++) {
+            for (int z = bounds[1]; z <= bounds[3]; z++) {
+                long key = ChunkPos.toLong(x, z);
+                IntSet ids = regions.get(key);
+                if (ids != null && ids.remove(id) && ids.isEmpty()) {
+                    regions.remove(key);
+                }
+            }
+        }
+    }
+
+    public void clear() {
+        regions.clear();
+        indexed.clear();
+    }
+
+    /**
+     * Returns the ids of all villages which may be within {@link #MAX_MARGIN} blocks of the given position, ignoring height.
+     */
+    public IntSet getCandidates(Vec3i pos) {
+        IntSet ids = regions.get(ChunkPos.toLong(pos.getX() >> REGION_SHIFT, pos.getZ() >> REGION_SHIFT));
+        return ids == null ? IntSets.EMPTY_SET : ids;
+    }
+
+    /**
+     * Returns the ids of all villages which may be within {@link #MAX_MARGIN} blocks of the given box, ignoring height.
+     */
+    public IntSet getCandidates(BlockBox box) {
+        IntSet candidates = new IntOpenHashSet();
+        for (int x = box.getMinX() >> REGION_SHIFT; x <= box.getMaxX() >> REGION_SHIFT; x++) {
+            for (int z = box.getMinZ() >> REGION_SHIFT; z <= box.getMaxZ() >> REGION_SHIFT; z++) {
+                IntSet ids = regions.get(ChunkPos.toLong(x, z));
+                if (ids != null) {
+                    candidates.addAll(ids);
+                }
+            }
+        }
+        return candidates;
+    }
+}
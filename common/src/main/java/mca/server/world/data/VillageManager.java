@@ -1,5 +1,9 @@
 package mca.server.world.data;
 
+import it.unimi.dsi.fastutil.longs.Long2LongMap;
+import it.unimi.dsi.fastutil.longs.Long2LongOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.longs.LongSet;
 import mca.Config;
 import mca.MCA;
 import mca.advancement.criterion.CriterionMCA;
@@ -15,6 +19,7 @@ import net.minecraft.entity.EntityType;
 import net.minecraft.entity.SpawnReason;
 import net.minecraft.entity.SpawnRestriction;
 import net.minecraft.entity.mob.IllagerEntity;
+import net.minecraft.entity.player.PlayerEntity;
 import net.minecraft.nbt.NbtCompound;
 import net.minecraft.nbt.NbtElement;
 import net.minecraft.nbt.NbtList;
@@ -23,27 +28,40 @@ import net.minecraft.server.world.ServerWorld;
 import net.minecraft.text.TranslatableText;
 import net.minecraft.util.Formatting;
 import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.util.math.ChunkSectionPos;
 import net.minecraft.util.math.MathHelper;
 import net.minecraft.util.registry.Registry;
 import net.minecraft.world.Difficulty;
 import net.minecraft.world.Heightmap;
 import net.minecraft.world.PersistentState;
 import net.minecraft.world.SpawnHelper;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Predicate;
-import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 public class VillageManager extends PersistentState implements Iterable<Village> {
     private final Map<Integer, Village> villages = new HashMap<>();
 
-    public final Set<BlockPos> cache = ConcurrentHashMap.newKeySet();
+    private final VillageIndex index = new VillageIndex();
+
+    private final RoofCache roofs = new RoofCache();
+
+    private final FarmIndex farms;
+
+    private final VillageViewers viewers;
+
+    private final BlockChangeDispatcher blockChanges;
+
+    private final Long2LongMap chunkChanges = new Long2LongOpenHashMap();
 
     public final Map<Integer, Integer> buildingToVillages = new HashMap<>();
 
-    private final List<BlockPos> buildingQueue = new LinkedList<>();
+    private final BuildingReportQueue buildingQueue = new BuildingReportQueue();
+
+    private final List<PendingScan> scans = new LinkedList<>();
 
     private int lastBuildingId;
     private int lastVillageId;
@@ -52,6 +70,7 @@ public class VillageManager extends PersistentState implements Iterable<Village>
 
     private final ReaperSpawner reapers;
     private final BabyBunker babies;
+    private final EntityDataTemplate entityTemplate;
 
     private int buildingCooldown = 21;
 
@@ -61,16 +80,26 @@ public class VillageManager extends PersistentState implements Iterable<Village>
 
     VillageManager(ServerWorld world) {
         this.world = world;
+        farms = new FarmIndex(world);
+        viewers = new VillageViewers(world);
+        blockChanges = new BlockChangeDispatcher(world);
         reapers = new ReaperSpawner(this);
         babies = new BabyBunker(this);
+        entityTemplate = new EntityDataTemplate(world);
+        registerBlockListeners();
     }
 
     VillageManager(ServerWorld world, NbtCompound nbt) {
         this.world = world;
+        farms = new FarmIndex(world);
+        viewers = new VillageViewers(world);
+        blockChanges = new BlockChangeDispatcher(world);
         lastBuildingId = nbt.getInt("lastBuildingId");
         lastVillageId = nbt.getInt("lastVillageId");
         reapers = nbt.contains("reapers", NbtElement.COMPOUND_TYPE) ? new ReaperSpawner(this, nbt.getCompound("reapers")) : new ReaperSpawner(this);
         babies = nbt.contains("babies", NbtElement.COMPOUND_TYPE) ? new BabyBunker(this, nbt.getCompound("babies")) : new BabyBunker(this);
+        entityTemplate = new EntityDataTemplate(world);
+        registerBlockListeners();
 
         NbtList villageList = nbt.getList("villages", NbtElement.COMPOUND_TYPE);
         for (int i = 0; i < villageList.size(); i++) {
@@ -89,9 +118,20 @@ public class VillageManager extends PersistentState implements Iterable<Village>
             for (Building b : v.getBuildings().values()) {
                 buildingToVillages.put(b.getId(), v.getId());
             }
+            index.put(v);
         }
     }
 
+    private void registerBlockListeners() {
+        blockChanges.register("buildings", (pos, oldState, newState) -> oldState.getBlock() != newState.getBlock(), (pos, oldState, newState) -> onBlockChanged(pos));
+        blockChanges.register("farms", (pos, oldState, newState) -> FarmIndex.isIndexed(oldState) || FarmIndex.isIndexed(newState), farms::onBlockChanged);
+        blockChanges.registerDeferred("reaper", (pos, oldState, newState) -> oldState.getBlock() != newState.getBlock() && ReaperSpawner.isAltarFire(world, pos, newState), (pos, oldState, newState) -> reapers.trySpawnReaper(world, newState, pos));
+    }
+
+    public BlockChangeDispatcher getBlockChanges() {
+        return blockChanges;
+    }
+
     public ReaperSpawner getReaperSpawner() {
         return reapers;
     }
@@ -100,18 +140,55 @@ public class VillageManager extends PersistentState implements Iterable<Village>
         return babies;
     }
 
+    public EntityDataTemplate getEntityTemplate() {
+        return entityTemplate;
+    }
+
+    public RoofCache getRoofCache() {
+        return roofs;
+    }
+
+    public FarmIndex getFarmIndex() {
+        return farms;
+    }
+
+    public VillageViewers getViewers() {
+        return viewers;
+    }
+
+    public void onBlockChanged(BlockPos pos) {
+        roofs.invalidate(pos);
+
+        //remember recent changes to detect outdated snapshots
+        if (!scans.isEmpty()) {
+            chunkChanges.put(ChunkPos.toLong(ChunkSectionPos.getSectionCoord(pos.getX()), ChunkSectionPos.getSectionCoord(pos.getZ())), world.getTime());
+        }
+    }
+
     public Optional<Village> getOrEmpty(int id) {
         return Optional.ofNullable(villages.get(id));
     }
 
     public boolean removeVillage(int id) {
         if (villages.remove(id) != null) {
-            cache.clear();
+            index.remove(id);
+            buildingQueue.resetCooldowns();
             return true;
         }
         return false;
     }
 
+    public void removeBuilding(Village village, int id) {
+        village.removeBuilding(id);
+        if (village.getBuildings().isEmpty()) {
+            villages.remove(village.getId());
+            index.remove(village.getId());
+        } else {
+            index.put(village);
+        }
+        markDirty();
+    }
+
     @Override
     public Iterator<Village> iterator() {
         return villages.values().iterator();
@@ -122,16 +199,37 @@ public class VillageManager extends PersistentState implements Iterable<Village>
     }
 
     public Optional<Village> findNearestVillage(Entity entity) {
-        BlockPos p = entity.getBlockPos();
-        return findVillages(v -> v.isWithinBorder(entity)).min((a, b) -> (int)(a.getCenter().getSquaredDistance(p) - b.getCenter().getSquaredDistance(p)));
+        return findNearestVillage(entity.getBlockPos(), Village.BORDER_MARGIN);
     }
 
     public Optional<Village> findNearestVillage(BlockPos p, int margin) {
-        return findVillages(v -> v.isWithinBorder(p, margin)).min((a, b) -> (int)(a.getCenter().getSquaredDistance(p) - b.getCenter().getSquaredDistance(p)));
+        if (margin > VillageIndex.MAX_MARGIN) {
+            return findVillages(v -> v.isWithinBorder(p, margin)).min(Comparator.comparingDouble(v -> v.getCenter().getSquaredDistance(p)));
+        }
+
+        Village nearest = null;
+        double nearestDistance = Double.MAX_VALUE;
+        for (int id : index.getCandidates(p)) {
+            Village v = villages.get(id);
+            if (v != null && v.isWithinBorder(p, margin)) {
+                double distance = v.getCenter().getSquaredDistance(p);
+                if (distance < nearestDistance) {
+                    nearestDistance = distance;
+                    nearest = v;
+                }
+            }
+        }
+        return Optional.ofNullable(nearest);
     }
 
     public boolean isWithinHorizontalBoundaries(BlockPos p) {
-        return villages.values().stream().anyMatch(v -> v.getBox().expand(0, 1000, 0).contains(p));
+        for (int id : index.getCandidates(p)) {
+            Village v = villages.get(id);
+            if (v != null && v.getBox().contains(p, 0, 1000, 0)) {
+                return true;
+            }
+        }
+        return false;
     }
 
     @Override
@@ -172,11 +270,21 @@ public class VillageManager extends PersistentState implements Iterable<Village>
             v.tick(world, time);
         }
 
-        //process a single building
-        if (time % buildingCooldown == 0 && !buildingQueue.isEmpty()) {
-            processBuilding(buildingQueue.remove(0));
+        //process a batch of buildings
+        if (time % buildingCooldown == 0) {
+            for (int i = 0; i < Config.getInstance().buildingQueueBatchSize && !buildingQueue.isEmpty() && scans.size() < Config.getInstance().maxConcurrentBuildingScans; i++) {
+                processBuilding(buildingQueue.poll(time), false, false, true);
+            }
+        }
+
+        if (time % Building.SCAN_COOLDOWN == 0) {
+            buildingQueue.purge(time);
         }
 
+        tickScans();
+
+        viewers.tick(this, time);
+
         reapers.tick(world);
         SpawnQueue.getInstance().tick();
     }
@@ -232,10 +340,46 @@ public class VillageManager extends PersistentState implements Iterable<Village>
 
     //adds a potential block to the processing queue
     public void reportBuilding(BlockPos pos) {
-        //mark in cache
-        cache.add(pos);
+        if (isCovered(pos)) {
+            buildingQueue.skip();
+            return;
+        }
+
+        //the closer to a player, the more important
+        PlayerEntity player = world.getClosestPlayer(pos.getX(), pos.getY(), pos.getZ(), -1.0, false);
+        double distance = player == null ? Double.MAX_VALUE : player.squaredDistanceTo(pos.getX(), pos.getY(), pos.getZ());
+
+        buildingQueue.offer(pos, distance, world.getTime());
+    }
+
+    //whether reporting this position might result in a new or changed building
+    public boolean shouldReport(BlockPos pos) {
+        return !buildingQueue.isKnown(pos, world.getTime()) && !isCovered(pos);
+    }
+
+    //whether the position is part of a building which has been scanned recently
+    private boolean isCovered(BlockPos pos) {
+        long time = world.getTime();
+        for (int id : index.getCandidates(pos)) {
+            Village v = villages.get(id);
+            if (v != null && v.isWithinBorder(pos)) {
+                for (Building b : v) {
+                    if (time - b.getLastScan() <= Building.SCAN_COOLDOWN
+                            && (b.getBuildingType().grouped() ? b.containsBlock(pos) : b.containsPos(pos))) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    public BuildingReportQueue getBuildingQueue() {
+        return buildingQueue;
+    }
 
-        buildingQueue.add(pos);
+    public int getPendingScans() {
+        return scans.size();
     }
 
     public Building.validationResult processBuilding(BlockPos pos) {
@@ -253,15 +397,116 @@ public class VillageManager extends PersistentState implements Iterable<Village>
     }
 
     //returns the scan-source blocks of all buildings, used to check for overlaps
-    private Set<BlockPos> getBlockedSet(Village village) {
-        return village.getBuildings().values().stream()
-                .filter(b -> !b.getBuildingType().grouped())
-                .map(Building::getSourceBlock)
-                .collect(Collectors.toSet());
+    private LongSet getBlockedSet(Village village) {
+        LongSet blocked = new LongOpenHashSet();
+        for (Building b : village) {
+            if (!b.getBuildingType().grouped()) {
+                blocked.add(b.getSourceBlock().asLong());
+            }
+        }
+        return blocked;
+    }
+
+    //advances the pending building scans until the tick budget is used up
+    private void tickScans() {
+        if (scans.isEmpty()) {
+            chunkChanges.clear();
+            return;
+        }
+
+        long deadline = System.nanoTime() + Config.getInstance().buildingScanTickBudget * 1000L;
+        int visits = Config.getInstance().buildingScanVisitsPerStep;
+        List<PendingScan> retries = new LinkedList<>();
+        boolean stepped;
+        do {
+            stepped = false;
+            Iterator<PendingScan> iterator = scans.iterator();
+            while (iterator.hasNext()) {
+                PendingScan pending = iterator.next();
+                if (pending.async() == null) {
+                    stepped = true;
+                    if (pending.scan().step(world, visits)) {
+                        iterator.remove();
+                        finishScan(pending);
+                    }
+                } else if (pending.async().isDone()) {
+                    iterator.remove();
+                    if (pending.async().getResult() == null || !isCurrent(pending.async().getSnapshot())) {
+                        //the scan left the snapshot or the world changed in the meantime, repeat it on the server thread
+                        Building building = pending.building();
+                        retries.add(new PendingScan(building, building.startScan(world, pending.scan().getBlocked(), roofs), pending.rescan(), null));
+                    } else {
+                        finishScan(pending);
+                    }
+                }
+            }
+        } while (stepped && System.nanoTime() < deadline);
+        scans.addAll(retries);
+    }
+
+    //checks if the chunks of a snapshot have been modified since it has been taken
+    private boolean isCurrent(ChunkSnapshot snapshot) {
+        for (long chunk : snapshot.getChunks()) {
+            if (chunkChanges.getOrDefault(chunk, Long.MIN_VALUE) >= snapshot.getTime()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void scheduleScan(Building building, LongSet blocked, boolean rescan) {
+        if (Config.getInstance().asyncBuildingScans) {
+            //the worker scans a copy with its own roof cache
+            BuildingScan scan = building.startScan(world, blocked, new RoofCache());
+            Building candidate = rescan ? building.copyForScan() : building;
+            scans.add(new PendingScan(building, scan, rescan, new AsyncBuildingScan(world, candidate, scan)));
+        } else {
+            scans.add(new PendingScan(building, building.startScan(world, blocked, roofs), rescan, null));
+        }
+    }
+
+    //applies a finished scan to the building it has been started for
+    private Building.validationResult applyScan(PendingScan pending) {
+        if (pending.async() == null) {
+            return pending.building().applyScan(pending.scan());
+        } else {
+            if (pending.rescan()) {
+                pending.building().applyScan(pending.async().getCandidate());
+            }
+            return pending.async().getResult();
+        }
+    }
+
+    private void finishScan(PendingScan pending) {
+        Building building = pending.building();
+        if (pending.rescan()) {
+            //the building might have been removed in the meantime
+            getOrEmpty(mapBuildingToVillage(building.getId()))
+                    .filter(v -> v.getBuilding(building.getId()).orElse(null) == building)
+                    .ifPresent(village -> {
+                        if (applyScan(pending) != Building.validationResult.SUCCESS) {
+                            removeBuilding(village, building.getId());
+                        }
+                        markDirty();
+                    });
+        } else {
+            //the world might have changed since the scan started
+            BlockPos pos = building.getSourceBlock();
+            Optional<Village> optionalVillage = findNearestVillage(pos, Village.MERGE_MARGIN);
+            if (optionalVillage.filter(v -> v.getBuildingAt(pos).isPresent() || getBlockedSet(v).contains(pos.asLong())).isEmpty()
+                    && applyScan(pending) == Building.validationResult.SUCCESS) {
+                addBuilding(optionalVillage, building, false);
+            }
+        }
     }
 
     //processed a building at given position
     public Building.validationResult processBuilding(BlockPos pos, boolean enforce, boolean strictScan) {
+        return processBuilding(pos, enforce, strictScan, false);
+    }
+
+    //processed a building at given position, if deferred, flood fills are queued as pending scans and the result is meaningless
+    private Building.validationResult processBuilding(BlockPos pos, boolean enforce, boolean strictScan, boolean deferred) {
         //find the closest village
         Optional<Village> optionalVillage = findNearestVillage(pos, Village.MERGE_MARGIN);
 
@@ -269,7 +514,7 @@ public class VillageManager extends PersistentState implements Iterable<Village>
         BuildingType groupedBuildingType = getGroupedBuildingType(pos);
 
         //block existing buildings to prevent overlaps
-        Set<BlockPos> blocked = new HashSet<>();
+        LongSet blocked = new LongOpenHashSet();
 
         //look for existing building
         boolean found = false;
@@ -300,8 +545,12 @@ public class VillageManager extends PersistentState implements Iterable<Village>
                         if (!enforce) {
                             found = true;
                         }
-                        if ((enforce || world.getTime() - b.getLastScan() > Building.SCAN_COOLDOWN) && b.validateBuilding(world, blocked) != Building.validationResult.SUCCESS) {
-                            toRemove.add(b.getId());
+                        if (enforce || world.getTime() - b.getLastScan() > Building.SCAN_COOLDOWN) {
+                            if (deferred) {
+                                scheduleScan(b, blocked, true);
+                            } else if (b.validateBuilding(world, blocked, roofs) != Building.validationResult.SUCCESS) {
+                                toRemove.add(b.getId());
+                            }
                         }
                     }
                 }
@@ -321,69 +570,77 @@ public class VillageManager extends PersistentState implements Iterable<Village>
 
             //remove buildings which became invalid for whatever reason
             for (int id : toRemove) {
-                village.removeBuilding(id);
-                markDirty();
+                removeBuilding(village, id);
             }
 
             //village is empty
             if (village.getBuildings().isEmpty()) {
                 villages.remove(village.getId());
+                index.remove(village.getId());
                 optionalVillage = Optional.empty();
                 markDirty();
             }
         }
 
         //add a new building, if no overlap has been found or the player enforced a full add
-        if (!found && !blocked.contains(pos)) {
-            //create new village
-            Village village = optionalVillage.orElse(new Village(lastVillageId++));
-
+        if (!found && !blocked.contains(pos.asLong())) {
             //create new building
             Building building = new Building(pos, strictScan);
             if (groupedBuildingType != null) {
                 //add initial poi
                 building.setType(groupedBuildingType.name());
                 building.addPOI(world, pos);
+            } else if (deferred) {
+                //check its boundaries, count the blocks, etc over the next ticks
+                scheduleScan(building, blocked, false);
+                return Building.validationResult.SUCCESS;
             } else {
                 //check its boundaries, count the blocks, etc
-                Building.validationResult result = building.validateBuilding(world, blocked);
-                if (result == Building.validationResult.SUCCESS) {
-                    //the building is valid, but might be identical to an old one with an existing one
-                    if (village.getBuildings().values().stream().anyMatch(b -> b.isIdentical(building))) {
-                        return Building.validationResult.IDENTICAL;
-                    }
-                } else {
+                Building.validationResult result = building.validateBuilding(world, blocked, roofs);
+                if (result != Building.validationResult.SUCCESS) {
                     //not valid
                     return result;
                 }
             }
 
-            //add to building list
-            villages.put(village.getId(), village);
-            building.setId(lastBuildingId++);
-            village.getBuildings().put(building.getId(), building);
-            village.calculateDimensions();
-            buildingToVillages.put(building.getId(), village.getId());
-
-            //attempt to merge
-            villages.values().stream()
-                    .filter(v -> v != village)
-                    .filter(v -> v.getBox().expand(Village.MERGE_MARGIN).intersects(village.getBox()))
-                    .findAny()
-                    .ifPresent(v -> {
-                                if (v.getPopulation() > village.getPopulation()) {
-                                    merge(v, village);
-                                    villages.remove(village.getId());
-                                } else {
-                                    merge(village, v);
-                                    villages.remove(v.getId());
-                                }
-                            }
-                    );
+            return addBuilding(optionalVillage, building, groupedBuildingType != null);
+        }
 
-            markDirty();
+        return Building.validationResult.SUCCESS;
+    }
+
+    private Building.validationResult addBuilding(Optional<Village> optionalVillage, Building building, boolean grouped) {
+        //create new village
+        Village village = optionalVillage.orElseGet(() -> new Village(lastVillageId++));
+
+        //the building is valid, but might be identical to an old one with an existing one
+        if (!grouped && village.getBuildings().values().stream().anyMatch(b -> b.isIdentical(building))) {
+            return Building.validationResult.IDENTICAL;
         }
 
+        //add to building list
+        villages.put(village.getId(), village);
+        building.setId(lastBuildingId++);
+        village.putBuilding(building);
+        village.calculateDimensions();
+        index.put(village);
+        buildingToVillages.put(building.getId(), village.getId());
+
+        //attempt to merge
+        for (int id : index.getCandidates(village.getBox())) {
+            Village v = villages.get(id);
+            if (v != null && v != village && v.getBox().expand(Village.MERGE_MARGIN).intersects(village.getBox())) {
+                if (v.getPopulation() > village.getPopulation()) {
+                    merge(v, village);
+                } else {
+                    merge(village, v);
+                }
+                break;
+            }
+        }
+
+        markDirty();
+
         return Building.validationResult.SUCCESS;
     }
 
@@ -401,5 +658,12 @@ public class VillageManager extends PersistentState implements Iterable<Village>
         for (Building b : from.getBuildings().values()) {
             buildingToVillages.put(b.getId(), into.getId());
         }
+
+        villages.remove(from.getId());
+        index.remove(from.getId());
+        index.put(into);
+    }
+
+    private record PendingScan(Building building, BuildingScan scan, boolean rescan, @Nullable AsyncBuildingScan async) {
     }
 }
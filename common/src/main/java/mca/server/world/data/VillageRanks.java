@@ -0,0 +1,124 @@
+package mca.server.world.data;
+
+import it.unimi.dsi.fastutil.objects.Object2IntMap;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+import mca.resources.Rank;
+import mca.resources.Tasks;
+import mca.resources.data.tasks.Task;
+import net.minecraft.server.network.ServerPlayerEntity;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * The ranks and completed tasks of the players of a village.
+ * <p>
+ * Both are evaluated in a single pass and kept until something they depend on changes:
+ * the buildings or the population of the village, the reputation of the player, their advancements, or the tasks themselves.
+ */
+public class VillageRanks {
+    private static final Object2IntMap<UUID> ADVANCEMENTS = new Object2IntOpenHashMap<>();
+
+    private static long hits;
+    private static long misses;
+
+    private final Village village;
+
+    private final Map<UUID, Entry> entries = new HashMap<>();
+
+    private int revision;
+
+    public VillageRanks(Village village) {
+        this.village = village;
+    }
+
+    /**
+     * Called whenever a player gained or lost an advancement criterion.
+     */
+    public static void onAdvancementsChanged(UUID player) {
+        ADVANCEMENTS.put(player, ADVANCEMENTS.getInt(player) + 1);
+    }
+
+    /**
+     * Drops the entries of all players, e.g. after the buildings or the population changed.
+     */
+    public void invalidate() {
+        revision++;
+    }
+
+    /**
+     * Drops the entry of a single player, e.g. after their reputation changed.
+     */
+    public void invalidate(UUID player) {
+        entries.remove(player);
+    }
+
+    public Rank getRank(ServerPlayerEntity player) {
+        return get(player).rank;
+    }
+
+    public Set<String> getCompletedIds(ServerPlayerEntity player) {
+        return get(player).completedIds;
+    }
+
+    private Entry get(ServerPlayerEntity player) {
+        UUID uuid = player.getUuid();
+        int advancements = ADVANCEMENTS.getInt(uuid);
+        Entry entry = entries.get(uuid);
+        if (entry != null && entry.isValid(revision, advancements)) {
+            hits++;
+            return entry;
+        }
+
+        misses++;
+        entry = compute(player, advancements);
+        entries.put(uuid, entry);
+        return entry;
+    }
+
+    private Entry compute(ServerPlayerEntity player, int advancements) {
+        Set<String> completedIds = new HashSet<>();
+        Rank rank = Rank.OUTLAW;
+
+        //ranks are ordered, the highest one with all required tasks done wins
+        for (Rank r : Rank.values()) {
+            boolean reached = true;
+            for (Task task : Tasks.getInstance().tasks.getOrDefault(r, List.of())) {
+                if (task.isCompleted(village, player)) {
+                    completedIds.add(task.getId());
+                } else if (task.isRequired()) {
+                    reached = false;
+                }
+            }
+            if (reached) {
+                rank = r;
+            }
+        }
+
+        return new Entry(revision, advancements, Tasks.getRevision(), rank, Collections.unmodifiableSet(completedIds));
+    }
+
+    public static long getHits() {
+        return hits;
+    }
+
+    public static long getMisses() {
+        return misses;
+    }
+
+    public static String getStats() {
+        long total = hits + misses;
+        return String.format("%d hits, %d misses (%.1f%% hit rate)", hits, misses, total == 0 ? 0.0 : 100.0 * hits / total);
+    }
+
+    private record Entry(int revision, int advancements, int tasks, Rank rank, Set<String> completedIds) {
+        boolean isValid(int revision, int advancements) {
+            return this.revision == revision && this.advancements == advancements && tasks == Tasks.getRevision();
+        }
+    }
+}
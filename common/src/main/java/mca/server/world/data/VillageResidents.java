@@ -0,0 +1,162 @@
+package mca.server.world.data;
+
+import com.google.common.collect.AbstractIterator;
+import it.unimi.dsi.fastutil.objects.Object2IntMap;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+import mca.entity.VillagerEntityMCA;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.UUID;
+
+/**
+ * The loaded residents of a village.
+ * <p>
+ * Villagers join once loaded or moved in and leave once unloaded or moved out.
+ * Entries are weak and dropped once their entity is gone, the counts are gathered once per village update.
+ */
+public class VillageResidents implements Iterable<VillagerEntityMCA> {
+    private final List<Entry> entries = new ArrayList<>();
+    private final Object2IntMap<UUID> indices = new Object2IntOpenHashMap<>();
+
+    private int guards;
+    private int babies;
+    private int marriedAdults;
+
+    public VillageResidents() {
+        indices.defaultReturnValue(-1);
+    }
+
+    public void join(VillagerEntityMCA villager) {
+        Entry entry = new Entry(villager.getUuid(), new WeakReference<>(villager));
+        int index = indices.getInt(entry.uuid);
+        if (index >= 0) {
+            entries.set(index, entry);
+        } else {
+            indices.put(entry.uuid, entries.size());
+            entries.add(entry);
+        }
+    }
+
+    public void leave(UUID uuid) {
+        int index = indices.removeInt(uuid);
+        if (index < 0) {
+            return;
+        }
+
+        //swap the last entry into the gap
+        Entry last = entries.remove(entries.size() - 1);
+        if (index < entries.size()) {
+            entries.set(index, last);
+            indices.put(last.uuid, index);
+        }
+    }
+
+    /**
+     * Leaves unless a newer entity with the same uuid has joined in the meantime.
+     */
+    public void leave(VillagerEntityMCA villager) {
+        int index = indices.getInt(villager.getUuid());
+        if (index >= 0 && entries.get(index).ref.get() == villager) {
+            leave(villager.getUuid());
+        }
+    }
+
+    public void transferTo(VillageResidents other) {
+        for (VillagerEntityMCA villager : this) {
+            other.join(villager);
+        }
+        entries.clear();
+        indices.clear();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public int getGuards() {
+        return guards;
+    }
+
+    public int getBabies() {
+        return babies;
+    }
+
+    public int getMarriedAdults() {
+        return marriedAdults;
+    }
+
+    /**
+     * Drops residents which are gone and recounts the others.
+     */
+    public void update() {
+        guards = 0;
+        babies = 0;
+        marriedAdults = 0;
+
+        //backwards, so dropped entries do not shift the ones left to visit
+        for (int i = entries.size() - 1; i >= 0; i--) {
+            Entry entry = entries.get(i);
+            VillagerEntityMCA villager = entry.get();
+            if (villager == null) {
+                leave(entry.uuid);
+                continue;
+            }
+
+            if (villager.isGuard()) {
+                guards++;
+            }
+            if (villager.isBaby()) {
+                babies++;
+            } else if (villager.getRelationships().isMarried()) {
+                marriedAdults++;
+            }
+        }
+    }
+
+    public Optional<VillagerEntityMCA> pick(Random random) {
+        while (!entries.isEmpty()) {
+            Entry entry = entries.get(random.nextInt(entries.size()));
+            VillagerEntityMCA villager = entry.get();
+            if (villager != null) {
+                return Optional.of(villager);
+            }
+            leave(entry.uuid);
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Iterates over the residents still loaded, without dropping the others.
+     */
+    @Override
+    public Iterator<VillagerEntityMCA> iterator() {
+        return new AbstractIterator<>() {
+            private int index;
+
+            @Override
+            protected VillagerEntityMCA computeNext() {
+                while (index < entries.size()) {
+                    VillagerEntityMCA villager = entries.get(index++).get();
+                    if (villager != null) {
+                        return villager;
+                    }
+                }
+                return endOfData();
+            }
+        };
+    }
+
+    private record Entry(UUID uuid, WeakReference<VillagerEntityMCA> ref) {
+        @Nullable
+        VillagerEntityMCA get() {
+            VillagerEntityMCA villager = ref.get();
+            return villager == null || villager.isRemoved() ? null : villager;
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package mca.server.world.data;
+
+import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.ints.IntIterator;
+import it.unimi.dsi.fastutil.objects.Object2IntMap;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ObjectIterator;
+import mca.cobalt.network.NetworkHandler;
+import mca.network.s2c.GetVillageFailedResponse;
+import mca.network.s2c.VillageDeltaMessage;
+import net.minecraft.nbt.NbtCompound;
+import net.minecraft.nbt.NbtList;
+import net.minecraft.server.network.ServerPlayerEntity;
+import net.minecraft.server.world.ServerWorld;
+
+import java.util.UUID;
+
+/**
+ * Players looking at a village in the blueprint screen.
+ * <p>
+ * Viewers receive a summary of the village first, afterwards only the settings and buildings the village marked as changed are sent.
+ */
+public class VillageViewers {
+    private static final int UPDATE_INTERVAL = 20;
+
+    private final ServerWorld world;
+
+    //village id by player
+    private final Object2IntMap<UUID> views = new Object2IntOpenHashMap<>();
+
+    VillageViewers(ServerWorld world) {
+        this.world = world;
+    }
+
+    /**
+     * Starts sending changes of the given village to the player.
+     *
+     * @return the summary the player has to receive first
+     */
+    public NbtCompound subscribe(ServerPlayerEntity player, Village village) {
+        views.put(player.getUuid(), village.getId());
+        return village.saveSummary();
+    }
+
+    public void unsubscribe(UUID player) {
+        views.removeInt(player);
+    }
+
+    /**
+     * Whether the player currently looks at the given village.
+     */
+    public boolean isViewing(UUID player, int village) {
+        return views.containsKey(player) && views.getInt(player) == village;
+    }
+
+    public int size() {
+        return views.size();
+    }
+
+    void tick(VillageManager manager, long time) {
+        if (time % UPDATE_INTERVAL != 0) {
+            return;
+        }
+
+        //changes are collected even without viewers, so they never pile up
+        Int2ObjectMap<VillageDeltaMessage> deltas = new Int2ObjectOpenHashMap<>();
+        for (Village village : manager) {
+            if (village.hasChanges()) {
+                if (views.containsValue(village.getId())) {
+                    deltas.put(village.getId(), createDelta(village));
+                }
+                village.clearChanges();
+            }
+        }
+
+        if (views.isEmpty()) {
+            return;
+        }
+
+        ObjectIterator<Object2IntMap.Entry<UUID>> iterator = views.object2IntEntrySet().iterator();
+        while (iterator.hasNext()) {
+            Object2IntMap.Entry<UUID> entry = iterator.next();
+            ServerPlayerEntity player = world.getServer().getPlayerManager().getPlayer(entry.getKey());
+            if (player == null || player.getWorld() != world) {
+                iterator.remove();
+                continue;
+            }
+
+            if (manager.getOrEmpty(entry.getIntValue()).isEmpty()) {
+                NetworkHandler.sendToPlayer(new GetVillageFailedResponse(), player);
+                iterator.remove();
+                continue;
+            }
+
+            VillageDeltaMessage delta = deltas.get(entry.getIntValue());
+            if (delta != null) {
+                NetworkHandler.sendToPlayer(delta, player);
+            }
+        }
+    }
+
+    private static VillageDeltaMessage createDelta(Village village) {
+        NbtList updated = new NbtList();
+        IntIterator ids = village.getChangedBuildings().iterator();
+        while (ids.hasNext()) {
+            village.getBuilding(ids.nextInt()).ifPresent(b -> updated.add(b.saveSummary()));
+        }
+        return new VillageDeltaMessage(village.getId(), village.isSettingsChanged() ? village.saveSettings() : null, updated, village.getRemovedBuildings().toIntArray());
+    }
+}
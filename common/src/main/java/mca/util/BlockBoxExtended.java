@@ -1,6 +1,7 @@
 package mca.util;
 
 import net.minecraft.util.math.BlockBox;
+import net.minecraft.util.math.Vec3i;
 
 public class BlockBoxExtended extends BlockBox {
     public BlockBoxExtended(int minX, int minY, int minZ, int maxX, int maxY, int maxZ) {
@@ -23,6 +24,12 @@ public class BlockBoxExtended extends BlockBox {
         );
     }
 
+    public boolean contains(Vec3i pos, int x, int y, int z) {
+        return pos.getX() >= getMinX() - x && pos.getX() <= getMaxX() + x
+                && pos.getY() >= getMinY() - y && pos.getY() <= getMaxY() + y
+                && pos.getZ() >= getMinZ() - z && pos.getZ() <= getMaxZ() + z;
+    }
+
     public int getMaxBlockCount() {
         return Math.max(Math.max(getBlockCountX(), getBlockCountY()), getBlockCountZ());
     }
@@ -3,6 +3,7 @@ package mca.util.network.datasync;
 import net.minecraft.entity.Entity;
 import net.minecraft.entity.data.TrackedData;
 import net.minecraft.nbt.NbtCompound;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -30,6 +31,19 @@ public class CDataManager<E extends Entity> {
         return entry != null && entry.parameter == parameter;
     }
 
+    /**
+     * Checks whether the tracked data belongs to one of the parameters of this manager.
+     */
+    public boolean contains(TrackedData<?> data) {
+        return backwardLookup.containsKey(data);
+    }
+
+    @Nullable
+    public CParameter<?, ?> getParam(TrackedData<?> data) {
+        Entry<E, ?, ?> entry = backwardLookup.get(data);
+        return entry == null ? null : entry.parameter;
+    }
+
     @SuppressWarnings({"unchecked", "RedundantSuppression"})
     public <T, TrackedType> T get(E entity, CParameter<T, TrackedType> parameter) {
         //noinspection RedundantCast
@@ -16,6 +16,7 @@ import mca.server.world.data.VillageManager;
 import net.fabricmc.api.ModInitializer;
 import net.fabricmc.fabric.api.command.v1.CommandRegistrationCallback;
 import net.fabricmc.fabric.api.entity.event.v1.ServerPlayerEvents;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerLifecycleEvents;
 import net.fabricmc.fabric.api.event.lifecycle.v1.ServerTickEvents;
 import net.fabricmc.fabric.api.networking.v1.ServerPlayConnectionEvents;
 import net.fabricmc.fabric.api.resource.ResourceManagerHelper;
@@ -54,6 +55,14 @@ public final class MCAFabric implements ModInitializer {
                 ServerInteractionManager.getInstance().onPlayerJoin(handler.player)
         );
 
+        ServerLifecycleEvents.END_DATA_PACK_RELOAD.register((server, resourceManager, success) ->
+                ServerInteractionManager.getInstance().onDataReload(server)
+        );
+
+        ServerPlayConnectionEvents.DISCONNECT.register((handler, server) ->
+                ServerInteractionManager.getInstance().onPlayerLeave(handler.player)
+        );
+
         CommandRegistrationCallback.EVENT.register((dispatcher, dedicated) -> {
             AdminCommand.register(dispatcher);
             Command.register(dispatcher);
@@ -12,44 +12,49 @@ import net.minecraft.network.PacketByteBuf;
 import net.minecraft.server.network.ServerPlayerEntity;
 import net.minecraft.util.Identifier;
 
-import java.util.Locale;
+import java.util.function.Function;
 
 public class NetworkHandlerImpl extends NetworkHandler.Impl {
-    @Override
-    public <T extends Message> void registerMessage(Class<T> msg) {
-        Identifier id = new Identifier(MCA.MOD_ID, msg.getName().toLowerCase(Locale.ENGLISH));
+    //all messages share one channel, prefixed by their numeric id
+    private static final Identifier CHANNEL = new Identifier(MCA.MOD_ID, "main");
 
-        ServerPlayNetworking.registerGlobalReceiver(id, (server, player, handler, buffer, responder) -> {
-            Message m = Message.decode(buffer);
+    public NetworkHandlerImpl() {
+        ServerPlayNetworking.registerGlobalReceiver(CHANNEL, (server, player, handler, buffer, responder) -> {
+            Message m = read(buffer);
             server.execute(() -> m.receive(player));
         });
 
         if (FabricLoader.getInstance().getEnvironmentType() == EnvType.CLIENT) {
-            ClientProxy.register(id, msg);
+            ClientProxy.register(this);
         }
     }
 
+    @Override
+    public <T extends Message> void registerMessage(Class<T> msg, Function<PacketByteBuf, T> decoder) {
+        register(msg, decoder);
+    }
+
     @Override
     public void sendToServer(Message m) {
         PacketByteBuf buf = new PacketByteBuf(Unpooled.buffer());
-        m.encode(buf);
-        ClientPlayNetworking.send(new Identifier(MCA.MOD_ID, m.getClass().getName().toLowerCase(Locale.ENGLISH)), buf);
+        write(m, buf);
+        ClientPlayNetworking.send(CHANNEL, buf);
     }
 
     @Override
     public void sendToPlayer(Message m, ServerPlayerEntity e) {
         PacketByteBuf buf = new PacketByteBuf(Unpooled.buffer());
-        m.encode(buf);
-        ServerPlayNetworking.send(e, new Identifier(MCA.MOD_ID, m.getClass().getName().toLowerCase(Locale.ENGLISH)), buf);
+        write(m, buf);
+        ServerPlayNetworking.send(e, CHANNEL, buf);
     }
 
     // Fabric's APIs are not side-agnostic.
     // We punt this to a separate class file to keep it from being eager-loaded on a server environment.
     private static final class ClientProxy {
         private ClientProxy() {throw new RuntimeException("new ClientProxy()");}
-        public static <T extends Message> void register(Identifier id, Class<T> msg) {
-            ClientPlayNetworking.registerGlobalReceiver(id, (client, ignore1, buffer, ignore2) -> {
-                Message m = Message.decode(buffer);
+        public static void register(NetworkHandlerImpl handler) {
+            ClientPlayNetworking.registerGlobalReceiver(CHANNEL, (client, ignore1, buffer, ignore2) -> {
+                Message m = handler.read(buffer);
                 client.execute(m::receive);
             });
         }
@@ -8,6 +8,7 @@ import mca.server.world.data.VillageManager;
 import net.minecraft.server.network.ServerPlayerEntity;
 import net.minecraft.server.world.ServerWorld;
 import net.minecraftforge.common.MinecraftForge;
+import net.minecraftforge.event.OnDatapackSyncEvent;
 import net.minecraftforge.event.RegisterCommandsEvent;
 import net.minecraftforge.event.TickEvent;
 import net.minecraftforge.event.entity.player.PlayerEvent;
@@ -55,4 +56,19 @@ public class ForgeBusEvents {
             ServerInteractionManager.getInstance().onPlayerJoin((ServerPlayerEntity)event.getPlayer());
         }
     }
+
+    @SubscribeEvent
+    public static void onPlayerLoggedOutEvent(PlayerEvent.PlayerLoggedOutEvent event) {
+        if (!event.getEntity().world.isClient) {
+            ServerInteractionManager.getInstance().onPlayerLeave((ServerPlayerEntity)event.getPlayer());
+        }
+    }
+
+    @SubscribeEvent
+    public static void onDatapackSync(OnDatapackSyncEvent event) {
+        //a null player means the data packs have been reloaded
+        if (event.getPlayer() == null) {
+            ServerInteractionManager.getInstance().onDataReload(event.getPlayerList().getServer());
+        }
+    }
 }
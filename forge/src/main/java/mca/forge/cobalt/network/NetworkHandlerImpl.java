@@ -3,27 +3,31 @@ package mca.forge.cobalt.network;
 import mca.MCA;
 import mca.cobalt.network.Message;
 import mca.cobalt.network.NetworkHandler;
+import net.minecraft.network.PacketByteBuf;
 import net.minecraft.server.network.ServerPlayerEntity;
 import net.minecraft.util.Identifier;
 import net.minecraftforge.network.NetworkRegistry;
 import net.minecraftforge.network.PacketDistributor;
 import net.minecraftforge.network.simple.SimpleChannel;
 
+import java.util.function.Function;
+
 public class NetworkHandlerImpl extends NetworkHandler.Impl {
-    private final String PROTOCOL_VERSION = "1";
+    private final String PROTOCOL_VERSION = "2";
     private final SimpleChannel channel = NetworkRegistry.newSimpleChannel(
             new Identifier(MCA.MOD_ID, "main"),
             () -> PROTOCOL_VERSION,
             PROTOCOL_VERSION::equals,
             PROTOCOL_VERSION::equals
     );
-    private int id = 0;
 
     @Override
-    public <T extends Message> void registerMessage(Class<T> msg) {
-        channel.registerMessage(id++, msg,
-                Message::encode,
-                b -> (T) Message.decode(b),
+    @SuppressWarnings("unchecked")
+    public <T extends Message> void registerMessage(Class<T> msg, Function<PacketByteBuf, T> decoder) {
+        int id = register(msg, decoder);
+        channel.registerMessage(id, msg,
+                this::encode,
+                b -> (T)decode(id, b),
                 (m, ctx) -> {
                     ctx.get().enqueueWork(() -> {
                         ServerPlayerEntity sender = ctx.get().getSender();